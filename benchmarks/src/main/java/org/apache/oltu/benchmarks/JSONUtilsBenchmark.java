@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.oltu.oauth2.common.utils.JSONUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link JSONUtils#parseJSON(String)} and {@link JSONUtils#buildJSON(Map)}
+ * on a token endpoint response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JSONUtilsBenchmark {
+
+    private final Map<String, Object> params = new LinkedHashMap<String, Object>();
+
+    private String json;
+
+    @Setup
+    public void setUp() {
+        params.put("access_token", "2YotnFZFEjr1zCsicMWpAA");
+        params.put("token_type", "Bearer");
+        params.put("expires_in", 3600);
+        params.put("refresh_token", "tGzv3JOkF0XG5Qx2TlKWIA");
+        params.put("scope", "read write");
+        params.put("audiences", new String[]{ "https://rs1.example.com", "https://rs2.example.com" });
+        json = JSONUtils.buildJSON(params);
+    }
+
+    @Benchmark
+    public Map<String, Object> parseJSON() {
+        return JSONUtils.parseJSON(json);
+    }
+
+    @Benchmark
+    public String buildJSON() {
+        return JSONUtils.buildJSON(params);
+    }
+
+}
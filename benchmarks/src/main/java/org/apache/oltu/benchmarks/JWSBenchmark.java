@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.benchmarks;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.oltu.jose.jws.JWS;
+import org.apache.oltu.jose.jws.JWSConstants;
+import org.apache.oltu.jose.jws.io.JWSReader;
+import org.apache.oltu.jose.jws.io.JWSWriter;
+import org.apache.oltu.jose.jws.signature.impl.PrivateKey;
+import org.apache.oltu.jose.jws.signature.impl.PublicKey;
+import org.apache.oltu.jose.jws.signature.impl.SignatureMethodECDSAImpl;
+import org.apache.oltu.jose.jws.signature.impl.SignatureMethodRSAImpl;
+import org.apache.oltu.jose.jws.signature.impl.SignatureMethodsHMAC256Impl;
+import org.apache.oltu.jose.jws.signature.impl.SymmetricKeyImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link JWSReader#read(String)} alone and followed by {@link JWS#validate},
+ * for the {@code HS256}, {@code RS256} and {@code ES256} signature methods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWSBenchmark {
+
+    private static final String PAYLOAD = "{\"iss\":\"https://as.example.com\","
+                                          + "\"sub\":\"user-1234567890\","
+                                          + "\"aud\":\"https://rs.example.com\","
+                                          + "\"iat\":1500000000,"
+                                          + "\"exp\":1500003600,"
+                                          + "\"scope\":\"read write\"}";
+
+    private final JWSReader reader = new JWSReader();
+
+    private final SignatureMethodsHMAC256Impl hmacMethod = new SignatureMethodsHMAC256Impl();
+
+    private final SignatureMethodRSAImpl rsaMethod = new SignatureMethodRSAImpl(JWSConstants.RS256);
+
+    private final SignatureMethodECDSAImpl ecdsaMethod = new SignatureMethodECDSAImpl(JWSConstants.ES256);
+
+    private SymmetricKeyImpl hmacKey;
+
+    private PublicKey rsaPublicKey;
+
+    private PublicKey ecPublicKey;
+
+    private String hs256Token;
+
+    private String rs256Token;
+
+    private String es256Token;
+
+    @Setup
+    public void setUp() throws Exception {
+        byte[] secret = new byte[32];
+        for (int i = 0; i < secret.length; i++) {
+            secret[i] = (byte) (i * 31 + 7);
+        }
+        hmacKey = new SymmetricKeyImpl(secret);
+
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair rsaKeyPair = keyPairGenerator.generateKeyPair();
+        rsaPublicKey = new PublicKey(rsaKeyPair.getPublic());
+
+        keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        ecPublicKey = new PublicKey(keyPair.getPublic());
+
+        JWSWriter writer = new JWSWriter();
+        hs256Token = writer.write(new JWS.Builder()
+                                  .setType("JWT")
+                                  .setPayload(PAYLOAD)
+                                  .sign(hmacMethod, hmacKey)
+                                  .build());
+        rs256Token = writer.write(new JWS.Builder()
+                                  .setType("JWT")
+                                  .setPayload(PAYLOAD)
+                                  .sign(rsaMethod, new PrivateKey(rsaKeyPair.getPrivate()))
+                                  .build());
+        es256Token = writer.write(new JWS.Builder()
+                                  .setType("JWT")
+                                  .setPayload(PAYLOAD)
+                                  .sign(ecdsaMethod, new PrivateKey(keyPair.getPrivate()))
+                                  .build());
+
+        if (!reader.read(hs256Token).validate(hmacMethod, hmacKey)
+                || !reader.read(rs256Token).validate(rsaMethod, rsaPublicKey)
+                || !reader.read(es256Token).validate(ecdsaMethod, ecPublicKey)) {
+            throw new IllegalStateException("Benchmark tokens do not verify");
+        }
+    }
+
+    @Benchmark
+    public JWS readHS256() {
+        return reader.read(hs256Token);
+    }
+
+    @Benchmark
+    public boolean readAndValidateHS256() {
+        return reader.read(hs256Token).validate(hmacMethod, hmacKey);
+    }
+
+    @Benchmark
+    public boolean readAndValidateRS256() {
+        return reader.read(rs256Token).validate(rsaMethod, rsaPublicKey);
+    }
+
+    @Benchmark
+    public boolean readAndValidateES256() {
+        return reader.read(es256Token).validate(ecdsaMethod, ecPublicKey);
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.benchmarks;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.oltu.jose.jws.JWS;
+import org.apache.oltu.jose.jws.JWSConstants;
+import org.apache.oltu.jose.jws.JWSHeaderTemplate;
+import org.apache.oltu.jose.jws.io.JWSReader;
+import org.apache.oltu.jose.jws.io.JWSWriter;
+import org.apache.oltu.jose.jws.signature.SignatureMethod;
+import org.apache.oltu.jose.jws.signature.impl.PrivateKey;
+import org.apache.oltu.jose.jws.signature.impl.PublicKey;
+import org.apache.oltu.jose.jws.signature.impl.SignatureMethodECDSAImpl;
+import org.apache.oltu.jose.jws.signature.impl.SignatureMethodEdDSAImpl;
+import org.apache.oltu.jose.jws.signature.impl.SignatureMethodRSAImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares signing through {@link JWS.Builder#sign} (or a {@link JWSHeaderTemplate})
+ * and verification through {@link JWS#validate} across the asymmetric algorithms: {@code RS256} with a
+ * 2048 bits key, {@code ES256} and {@code EdDSA} (Ed25519, needs Java 15 or later).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWSSignatureBenchmark {
+
+    private static final String PAYLOAD = "{\"iss\":\"https://as.example.com\","
+                                          + "\"sub\":\"service-a\","
+                                          + "\"aud\":\"https://service-b.example.com\","
+                                          + "\"iat\":1500000000,"
+                                          + "\"exp\":1500000060}";
+
+    @Param({ JWSConstants.RS256, JWSConstants.ES256, JWSConstants.EdDSA })
+    public String algorithm;
+
+    private final JWSReader reader = new JWSReader();
+
+    private SignatureMethod<PrivateKey, PublicKey> method;
+
+    private PrivateKey privateKey;
+
+    private PublicKey publicKey;
+
+    private JWSHeaderTemplate<PrivateKey, PublicKey> template;
+
+    private String token;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPairGenerator keyPairGenerator;
+        if (JWSConstants.RS256.equals(algorithm)) {
+            method = new SignatureMethodRSAImpl(algorithm);
+            keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(2048);
+        } else if (JWSConstants.ES256.equals(algorithm)) {
+            method = new SignatureMethodECDSAImpl(algorithm);
+            keyPairGenerator = KeyPairGenerator.getInstance("EC");
+            keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        } else {
+            method = new SignatureMethodEdDSAImpl();
+            keyPairGenerator = KeyPairGenerator.getInstance("Ed25519");
+        }
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        privateKey = new PrivateKey(keyPair.getPrivate());
+        publicKey = new PublicKey(keyPair.getPublic());
+
+        template = new JWS.Builder().setType("JWT").buildHeaderTemplate(method, privateKey);
+
+        token = new JWSWriter().write(sign());
+        if (!verify()) {
+            throw new IllegalStateException("Benchmark token does not verify");
+        }
+    }
+
+    @Benchmark
+    public JWS sign() {
+        return new JWS.Builder()
+               .setType("JWT")
+               .setPayload(PAYLOAD)
+               .sign(method, privateKey)
+               .build();
+    }
+
+    @Benchmark
+    public String signAndWrite() {
+        return new JWSWriter().write(sign());
+    }
+
+    @Benchmark
+    public String signWithTemplate() {
+        return template.sign(PAYLOAD);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return reader.read(token).validate(method, publicKey);
+    }
+
+}
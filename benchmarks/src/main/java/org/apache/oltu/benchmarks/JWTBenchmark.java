@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.oltu.oauth2.jwt.JWT;
+import org.apache.oltu.oauth2.jwt.io.JWTReader;
+import org.apache.oltu.oauth2.jwt.io.JWTWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link JWTReader#read(String)} and {@link JWTWriter#write(Object)} on a typical access token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWTBenchmark {
+
+    private final JWTReader reader = new JWTReader();
+
+    private final JWTWriter writer = new JWTWriter();
+
+    private JWT jwt;
+
+    private String rawString;
+
+    @Setup
+    public void setUp() {
+        jwt = new JWT.Builder()
+              .setHeaderAlgorithm("HS256")
+              .setHeaderType("JWT")
+              .setClaimsSetIssuer("https://as.example.com")
+              .setClaimsSetSubject("user-1234567890")
+              .setClaimsSetAudience("https://rs.example.com")
+              .setClaimsSetIssuedAt(1500000000L)
+              .setClaimsSetExpirationTime(1500003600L)
+              .setClaimsSetJwdId("3f2d2a36-6a0b-4bd7-8b79-8d6c6a1f4e3c")
+              .setClaimsSetCustomField("scope", "read write")
+              .setClaimsSetCustomField("client_id", "s6BhdRkqt3")
+              .setSignature("dBjftJeZ4CVP-mB92K27uhbUJU1p1r_wW1gFWFOEjXk")
+              .build();
+        rawString = writer.write(jwt);
+    }
+
+    @Benchmark
+    public JWT read() {
+        return reader.read(rawString);
+    }
+
+    @Benchmark
+    public String write() {
+        return writer.write(jwt);
+    }
+
+}
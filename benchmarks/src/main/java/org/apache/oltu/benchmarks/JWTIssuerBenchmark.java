@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.benchmarks;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.oltu.jose.jws.JWSConstants;
+import org.apache.oltu.jose.jws.signature.impl.PrivateKey;
+import org.apache.oltu.jose.jws.signature.impl.PublicKey;
+import org.apache.oltu.jose.jws.signature.impl.SignatureMethodECDSAImpl;
+import org.apache.oltu.jose.jws.signature.impl.SignatureMethodHMACImpl;
+import org.apache.oltu.jose.jws.signature.impl.SignatureMethodRSAImpl;
+import org.apache.oltu.jose.jws.signature.impl.SymmetricKeyImpl;
+import org.apache.oltu.oauth2.as.issuer.OAuthIssuer;
+import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
+import org.apache.oltu.oauth2.jwt.issuer.JWTIssuer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the tokens per second a single core mints through {@link JWTIssuer#accessToken()},
+ * for {@code RS256} with a 2048 bits key, {@code ES256} and {@code HS256}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(1)
+public class JWTIssuerBenchmark {
+
+    @Param({ JWSConstants.RS256, JWSConstants.ES256, JWSConstants.HS256 })
+    public String algorithm;
+
+    private OAuthIssuer issuer;
+
+    @Setup
+    public void setUp() throws Exception {
+        if (JWSConstants.HS256.equals(algorithm)) {
+            issuer = configure(new JWTIssuer.Builder<SymmetricKeyImpl, SymmetricKeyImpl>(new SignatureMethodHMACImpl(algorithm),
+                                                                                        new SymmetricKeyImpl("supercalifragilistichespiralidoso1234567890".getBytes())));
+            return;
+        }
+
+        KeyPairGenerator keyPairGenerator;
+        if (JWSConstants.RS256.equals(algorithm)) {
+            keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+            keyPairGenerator.initialize(2048);
+        } else {
+            keyPairGenerator = KeyPairGenerator.getInstance("EC");
+            keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        }
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        PrivateKey privateKey = new PrivateKey(keyPair.getPrivate());
+
+        if (JWSConstants.RS256.equals(algorithm)) {
+            issuer = configure(new JWTIssuer.Builder<PrivateKey, PublicKey>(new SignatureMethodRSAImpl(algorithm), privateKey));
+        } else {
+            issuer = configure(new JWTIssuer.Builder<PrivateKey, PublicKey>(new SignatureMethodECDSAImpl(algorithm), privateKey));
+        }
+    }
+
+    private static JWTIssuer configure(JWTIssuer.Builder<?, ?> builder) {
+        return builder.setKeyId("key-1")
+                      .setIssuer("https://as.example.com")
+                      .setAudience("https://rs.example.com")
+                      .setClaim("scope", "read write")
+                      .build();
+    }
+
+    @Benchmark
+    public String accessToken() throws OAuthSystemException {
+        return issuer.accessToken();
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.oltu.oauth2.common.OAuth;
+import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
+import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
+import org.apache.oltu.oauth2.common.message.types.ParameterStyle;
+import org.apache.oltu.oauth2.rs.request.OAuthAccessResourceRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Measures the construction of an {@link OAuthAccessResourceRequest} for a bearer token
+ * sent in the {@code Authorization} header of a form {@code POST}, the path every protected resource
+ * request goes through, probing either the header only or all the parameter styles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OAuthAccessResourceRequestBenchmark {
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest(OAuth.HttpMethod.POST, "/api/resource");
+        request.setContentType(OAuth.ContentType.URL_ENCODED);
+        request.addHeader(OAuth.HeaderType.AUTHORIZATION, "Bearer mF_9.B5f-4.1JqM");
+    }
+
+    @Benchmark
+    public String headerStyle() throws OAuthSystemException, OAuthProblemException {
+        return new OAuthAccessResourceRequest(request, ParameterStyle.HEADER).getAccessToken();
+    }
+
+    @Benchmark
+    public String allStyles() throws OAuthSystemException, OAuthProblemException {
+        return new OAuthAccessResourceRequest(request,
+                                              ParameterStyle.HEADER,
+                                              ParameterStyle.QUERY,
+                                              ParameterStyle.BODY).getAccessToken();
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.benchmarks;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.oltu.oauth2.common.utils.OAuthUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the form and scope helpers of {@link OAuthUtils} used on every token request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OAuthUtilsBenchmark {
+
+    private final Map<String, Object> parameters = new LinkedHashMap<String, Object>();
+
+    private String form;
+
+    private String scopes;
+
+    @Setup
+    public void setUp() {
+        parameters.put("grant_type", "authorization_code");
+        parameters.put("code", "SplxlOBeZQQYbYS6WxSbIA");
+        parameters.put("redirect_uri", "https://client.example.com/cb?state=xyz&lang=en");
+        parameters.put("client_id", "s6BhdRkqt3");
+        parameters.put("scope", "openid profile email read write");
+        form = OAuthUtils.format(parameters.entrySet(), "UTF-8");
+        scopes = "openid profile email address phone read write admin";
+    }
+
+    @Benchmark
+    public Map<String, Object> decodeForm() {
+        return OAuthUtils.decodeForm(form);
+    }
+
+    @Benchmark
+    public String format() {
+        Collection<Map.Entry<String, Object>> entries = parameters.entrySet();
+        return OAuthUtils.format(entries, "UTF-8");
+    }
+
+    @Benchmark
+    public Set<String> decodeScopes() {
+        return OAuthUtils.decodeScopes(scopes);
+    }
+
+}
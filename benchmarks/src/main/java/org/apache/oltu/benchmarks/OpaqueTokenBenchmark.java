@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.benchmarks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.oltu.oauth2.common.token.OpaqueToken;
+import org.apache.oltu.oauth2.common.token.OpaqueTokenFormat;
+import org.apache.oltu.oauth2.rs.OpaqueTokenVerifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the local verification of self-contained opaque tokens through {@link OpaqueTokenVerifier}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OpaqueTokenBenchmark {
+
+    private static final byte[] SECRET = "01234567890123456789012345678901".getBytes();
+
+    private static final List<String> SCOPE_NAMES = Arrays.asList("read", "write", "admin");
+
+    private final OpaqueTokenVerifier verifier = new OpaqueTokenVerifier.Builder()
+                                                 .addKey(1, SECRET)
+                                                 .setScopeNames(SCOPE_NAMES)
+                                                 .build();
+
+    private final List<String> requiredScopes = Arrays.asList("read");
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        OpaqueTokenFormat format = new OpaqueTokenFormat(Collections.singletonMap(1, SECRET));
+        token = format.write(new OpaqueToken(1,
+                                             OpaqueToken.Type.ACCESS,
+                                             "s6BhdRkqt3",
+                                             System.currentTimeMillis() / 1000L + 3600L,
+                                             OpaqueTokenFormat.toScopeBitmap(SCOPE_NAMES, SCOPE_NAMES)),
+                             new byte[OpaqueTokenFormat.NONCE_LENGTH]);
+        if (verify() == null) {
+            throw new IllegalStateException("Benchmark token does not verify");
+        }
+    }
+
+    @Benchmark
+    public OpaqueToken verify() {
+        return verifier.verify(token, requiredScopes);
+    }
+
+}
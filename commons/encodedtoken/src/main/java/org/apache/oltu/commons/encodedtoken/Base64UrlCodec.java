@@ -0,0 +1,467 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.commons.encodedtoken;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Table driven, stateless and thread-safe base64url codec, as defined in
+ * <a href="http://tools.ietf.org/html/rfc4648#section-5">RFC 4648 section 5</a>.
+ *
+ * Encoding never emits padding characters; decoding accepts both the URL safe and the standard alphabets,
+ * with or without trailing padding. All methods are able to work on caller supplied buffer ranges,
+ * so no intermediate copy is required.
+ */
+public final class Base64UrlCodec {
+
+    /**
+     * The {@code UTF-8} charset reference.
+     */
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final char PAD = '=';
+
+    private static final char[] ENCODE_TABLE = {
+        'A', 'B', 'C', 'D', 'E', 'F', 'G', 'H', 'I', 'J', 'K', 'L', 'M',
+        'N', 'O', 'P', 'Q', 'R', 'S', 'T', 'U', 'V', 'W', 'X', 'Y', 'Z',
+        'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', 'i', 'j', 'k', 'l', 'm',
+        'n', 'o', 'p', 'q', 'r', 's', 't', 'u', 'v', 'w', 'x', 'y', 'z',
+        '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', '-', '_'
+    };
+
+    private static final byte[] ENCODE_TABLE_BYTES = new byte[ENCODE_TABLE.length];
+
+    private static final int[] DECODE_TABLE = new int[128];
+
+    static {
+        Arrays.fill(DECODE_TABLE, -1);
+        for (int i = 0; i < ENCODE_TABLE.length; i++) {
+            ENCODE_TABLE_BYTES[i] = (byte) ENCODE_TABLE[i];
+            DECODE_TABLE[ENCODE_TABLE[i]] = i;
+        }
+        // standard alphabet, accepted for compatibility
+        DECODE_TABLE['+'] = 62;
+        DECODE_TABLE['/'] = 63;
+    }
+
+    private Base64UrlCodec() {
+        // do nothing
+    }
+
+    // ---------- Encoding ----------------------------------------------------
+
+    /**
+     * Returns the number of characters needed to encode {@code length} bytes, without padding.
+     */
+    public static int encodedLength(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative length not allowed: " + length);
+        }
+        int remainder = length % 3;
+        return (length / 3) * 4 + (remainder == 0 ? 0 : remainder + 1);
+    }
+
+    public static String encode(byte[] src) {
+        return encode(src, 0, src.length);
+    }
+
+    public static String encode(byte[] src, int offset, int length) {
+        char[] encoded = new char[encodedLength(length)];
+        encode(src, offset, length, encoded, 0);
+        return new String(encoded);
+    }
+
+    /**
+     * Encodes {@code src[offset, offset + length)} in {@code dst} starting from {@code dstOffset}.
+     *
+     * @return the number of characters written.
+     */
+    public static int encode(byte[] src, int offset, int length, char[] dst, int dstOffset) {
+        checkRange(src.length, offset, length);
+        checkRange(dst.length, dstOffset, encodedLength(length));
+
+        final int end = offset + length - length % 3;
+        int d = dstOffset;
+        int i = offset;
+        while (i < end) {
+            int bits = (src[i++] & 0xff) << 16 | (src[i++] & 0xff) << 8 | (src[i++] & 0xff);
+            dst[d++] = ENCODE_TABLE[bits >>> 18];
+            dst[d++] = ENCODE_TABLE[(bits >>> 12) & 0x3f];
+            dst[d++] = ENCODE_TABLE[(bits >>> 6) & 0x3f];
+            dst[d++] = ENCODE_TABLE[bits & 0x3f];
+        }
+
+        switch (length % 3) {
+            case 1:
+                int bits = (src[i] & 0xff) << 16;
+                dst[d++] = ENCODE_TABLE[bits >>> 18];
+                dst[d++] = ENCODE_TABLE[(bits >>> 12) & 0x3f];
+                break;
+
+            case 2:
+                bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8;
+                dst[d++] = ENCODE_TABLE[bits >>> 18];
+                dst[d++] = ENCODE_TABLE[(bits >>> 12) & 0x3f];
+                dst[d++] = ENCODE_TABLE[(bits >>> 6) & 0x3f];
+                break;
+
+            default:
+                break;
+        }
+
+        return d - dstOffset;
+    }
+
+    /**
+     * Encodes {@code src[offset, offset + length)} as ASCII bytes in {@code dst} starting from {@code dstOffset}.
+     *
+     * @return the number of bytes written.
+     */
+    public static int encode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        checkRange(src.length, offset, length);
+        checkRange(dst.length, dstOffset, encodedLength(length));
+
+        final int end = offset + length - length % 3;
+        int d = dstOffset;
+        int i = offset;
+        while (i < end) {
+            int bits = (src[i++] & 0xff) << 16 | (src[i++] & 0xff) << 8 | (src[i++] & 0xff);
+            dst[d++] = ENCODE_TABLE_BYTES[bits >>> 18];
+            dst[d++] = ENCODE_TABLE_BYTES[(bits >>> 12) & 0x3f];
+            dst[d++] = ENCODE_TABLE_BYTES[(bits >>> 6) & 0x3f];
+            dst[d++] = ENCODE_TABLE_BYTES[bits & 0x3f];
+        }
+
+        switch (length % 3) {
+            case 1:
+                int bits = (src[i] & 0xff) << 16;
+                dst[d++] = ENCODE_TABLE_BYTES[bits >>> 18];
+                dst[d++] = ENCODE_TABLE_BYTES[(bits >>> 12) & 0x3f];
+                break;
+
+            case 2:
+                bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8;
+                dst[d++] = ENCODE_TABLE_BYTES[bits >>> 18];
+                dst[d++] = ENCODE_TABLE_BYTES[(bits >>> 12) & 0x3f];
+                dst[d++] = ENCODE_TABLE_BYTES[(bits >>> 6) & 0x3f];
+                break;
+
+            default:
+                break;
+        }
+
+        return d - dstOffset;
+    }
+
+    /**
+     * Encodes the remaining bytes of {@code src} as ASCII bytes in {@code dst};
+     * both buffers positions are advanced.
+     *
+     * @return the number of bytes written.
+     */
+    public static int encode(ByteBuffer src, ByteBuffer dst) {
+        final int length = src.remaining();
+        final int encodedLength = encodedLength(length);
+        if (dst.remaining() < encodedLength) {
+            throw new IllegalArgumentException("Destination buffer too small, required "
+                                               + encodedLength
+                                               + " bytes but only "
+                                               + dst.remaining()
+                                               + " available");
+        }
+
+        if (src.hasArray() && dst.hasArray()) {
+            encode(src.array(), src.arrayOffset() + src.position(), length,
+                   dst.array(), dst.arrayOffset() + dst.position());
+            src.position(src.limit());
+            dst.position(dst.position() + encodedLength);
+            return encodedLength;
+        }
+
+        while (src.remaining() >= 3) {
+            int bits = (src.get() & 0xff) << 16 | (src.get() & 0xff) << 8 | (src.get() & 0xff);
+            dst.put(ENCODE_TABLE_BYTES[bits >>> 18]);
+            dst.put(ENCODE_TABLE_BYTES[(bits >>> 12) & 0x3f]);
+            dst.put(ENCODE_TABLE_BYTES[(bits >>> 6) & 0x3f]);
+            dst.put(ENCODE_TABLE_BYTES[bits & 0x3f]);
+        }
+
+        switch (src.remaining()) {
+            case 1:
+                int bits = (src.get() & 0xff) << 16;
+                dst.put(ENCODE_TABLE_BYTES[bits >>> 18]);
+                dst.put(ENCODE_TABLE_BYTES[(bits >>> 12) & 0x3f]);
+                break;
+
+            case 2:
+                bits = (src.get() & 0xff) << 16 | (src.get() & 0xff) << 8;
+                dst.put(ENCODE_TABLE_BYTES[bits >>> 18]);
+                dst.put(ENCODE_TABLE_BYTES[(bits >>> 12) & 0x3f]);
+                dst.put(ENCODE_TABLE_BYTES[(bits >>> 6) & 0x3f]);
+                break;
+
+            default:
+                break;
+        }
+
+        return encodedLength;
+    }
+
+    // ---------- Decoding ----------------------------------------------------
+
+    /**
+     * Returns the number of bytes encoded by {@code length} characters, trailing padding excluded.
+     */
+    public static int decodedLength(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative length not allowed: " + length);
+        }
+        int remainder = length % 4;
+        if (remainder == 1) {
+            throw new IllegalArgumentException("Illegal base64url length: " + length);
+        }
+        return (length / 4) * 3 + (remainder == 0 ? 0 : remainder - 1);
+    }
+
+    public static byte[] decode(CharSequence src) {
+        return decode(src, 0, src.length());
+    }
+
+    public static byte[] decode(CharSequence src, int begin, int end) {
+        byte[] decoded = new byte[decodedLength(unpaddedEnd(src, begin, end) - begin)];
+        decode(src, begin, end, decoded, 0);
+        return decoded;
+    }
+
+    /**
+     * Decodes the {@code [begin, end)} characters range as an {@code UTF-8} string.
+     */
+    public static String decodeToString(CharSequence src, int begin, int end) {
+        return new String(decode(src, begin, end), UTF_8);
+    }
+
+    /**
+     * Decodes the {@code [begin, end)} characters range in {@code dst} starting from {@code dstOffset}.
+     *
+     * @return the number of bytes written.
+     */
+    public static int decode(CharSequence src, int begin, int end, byte[] dst, int dstOffset) {
+        checkRange(src.length(), begin, end - begin);
+        end = unpaddedEnd(src, begin, end);
+        final int length = end - begin;
+        checkRange(dst.length, dstOffset, decodedLength(length));
+
+        final int fullEnd = end - length % 4;
+        int d = dstOffset;
+        int i = begin;
+        while (i < fullEnd) {
+            int bits = decode(src.charAt(i++)) << 18
+                       | decode(src.charAt(i++)) << 12
+                       | decode(src.charAt(i++)) << 6
+                       | decode(src.charAt(i++));
+            if (bits < 0) {
+                throw illegalCharacter(i - 4);
+            }
+            dst[d++] = (byte) (bits >> 16);
+            dst[d++] = (byte) (bits >> 8);
+            dst[d++] = (byte) bits;
+        }
+
+        switch (length % 4) {
+            case 2:
+                int bits = decode(src.charAt(i)) << 18 | decode(src.charAt(i + 1)) << 12;
+                if (bits < 0) {
+                    throw illegalCharacter(i);
+                }
+                dst[d++] = (byte) (bits >> 16);
+                break;
+
+            case 3:
+                bits = decode(src.charAt(i)) << 18 | decode(src.charAt(i + 1)) << 12 | decode(src.charAt(i + 2)) << 6;
+                if (bits < 0) {
+                    throw illegalCharacter(i);
+                }
+                dst[d++] = (byte) (bits >> 16);
+                dst[d++] = (byte) (bits >> 8);
+                break;
+
+            default:
+                break;
+        }
+
+        return d - dstOffset;
+    }
+
+    /**
+     * Decodes {@code src[offset, offset + length)} characters in {@code dst} starting from {@code dstOffset}.
+     *
+     * @return the number of bytes written.
+     */
+    public static int decode(char[] src, int offset, int length, byte[] dst, int dstOffset) {
+        checkRange(src.length, offset, length);
+        return decode(new CharArraySequence(src), offset, offset + length, dst, dstOffset);
+    }
+
+    /**
+     * Decodes {@code src[offset, offset + length)} ASCII bytes in {@code dst} starting from {@code dstOffset}.
+     *
+     * @return the number of bytes written.
+     */
+    public static int decode(byte[] src, int offset, int length, byte[] dst, int dstOffset) {
+        checkRange(src.length, offset, length);
+        int end = unpaddedEnd(src, offset, offset + length);
+        length = end - offset;
+        checkRange(dst.length, dstOffset, decodedLength(length));
+
+        final int fullEnd = end - length % 4;
+        int d = dstOffset;
+        int i = offset;
+        while (i < fullEnd) {
+            int bits = decode(src[i++]) << 18
+                       | decode(src[i++]) << 12
+                       | decode(src[i++]) << 6
+                       | decode(src[i++]);
+            if (bits < 0) {
+                throw illegalCharacter(i - 4);
+            }
+            dst[d++] = (byte) (bits >> 16);
+            dst[d++] = (byte) (bits >> 8);
+            dst[d++] = (byte) bits;
+        }
+
+        switch (length % 4) {
+            case 2:
+                int bits = decode(src[i]) << 18 | decode(src[i + 1]) << 12;
+                if (bits < 0) {
+                    throw illegalCharacter(i);
+                }
+                dst[d++] = (byte) (bits >> 16);
+                break;
+
+            case 3:
+                bits = decode(src[i]) << 18 | decode(src[i + 1]) << 12 | decode(src[i + 2]) << 6;
+                if (bits < 0) {
+                    throw illegalCharacter(i);
+                }
+                dst[d++] = (byte) (bits >> 16);
+                dst[d++] = (byte) (bits >> 8);
+                break;
+
+            default:
+                break;
+        }
+
+        return d - dstOffset;
+    }
+
+    /**
+     * Decodes the remaining ASCII bytes of {@code src} in {@code dst}; both buffers positions are advanced.
+     *
+     * @return the number of bytes written.
+     */
+    public static int decode(ByteBuffer src, ByteBuffer dst) {
+        if (src.hasArray() && dst.hasArray()) {
+            int written = decode(src.array(), src.arrayOffset() + src.position(), src.remaining(),
+                                 dst.array(), dst.arrayOffset() + dst.position());
+            src.position(src.limit());
+            dst.position(dst.position() + written);
+            return written;
+        }
+
+        byte[] encoded = new byte[src.remaining()];
+        src.get(encoded);
+        byte[] decoded = new byte[decodedLength(unpaddedEnd(encoded, 0, encoded.length))];
+        int written = decode(encoded, 0, encoded.length, decoded, 0);
+        dst.put(decoded, 0, written);
+        return written;
+    }
+
+    // ---------- Private methods ---------------------------------------------
+
+    private static int decode(int c) {
+        // bytes are signed, non ASCII ones are negative
+        return c >= 0 && c < 128 ? DECODE_TABLE[c] : -1;
+    }
+
+    private static int unpaddedEnd(CharSequence src, int begin, int end) {
+        int unpaddedEnd = end;
+        while (unpaddedEnd > begin && end - unpaddedEnd < 2 && src.charAt(unpaddedEnd - 1) == PAD) {
+            unpaddedEnd--;
+        }
+        return unpaddedEnd;
+    }
+
+    private static int unpaddedEnd(byte[] src, int begin, int end) {
+        int unpaddedEnd = end;
+        while (unpaddedEnd > begin && end - unpaddedEnd < 2 && src[unpaddedEnd - 1] == PAD) {
+            unpaddedEnd--;
+        }
+        return unpaddedEnd;
+    }
+
+    private static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IndexOutOfBoundsException("Range ["
+                                                + offset
+                                                + ", "
+                                                + (offset + length)
+                                                + ") out of bounds for length "
+                                                + arrayLength);
+        }
+    }
+
+    private static IllegalArgumentException illegalCharacter(int quantumStart) {
+        return new IllegalArgumentException("Illegal base64url character in quantum starting at index "
+                                            + quantumStart);
+    }
+
+    /**
+     * Read-only {@link CharSequence} view over a {@code char[]}, avoids copying the array in a String.
+     */
+    private static final class CharArraySequence implements CharSequence {
+
+        private final char[] chars;
+
+        CharArraySequence(char[] chars) {
+            this.chars = chars;
+        }
+
+        @Override
+        public int length() {
+            return chars.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(chars, start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars);
+        }
+
+    }
+
+}
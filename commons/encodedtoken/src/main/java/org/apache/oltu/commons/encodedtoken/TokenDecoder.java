@@ -18,8 +18,6 @@ package org.apache.oltu.commons.encodedtoken;
 
 import java.nio.charset.Charset;
 
-import org.apache.commons.codec.binary.Base64;
-
 public abstract class TokenDecoder {
 
     /**
@@ -27,25 +25,26 @@ public abstract class TokenDecoder {
      */
     private static final Charset UTF_8 = Charset.forName("UTF-8");
 
+    public static final String base64Decode(String base64encoded) {
+        return Base64UrlCodec.decodeToString(base64encoded, 0, base64encoded.length());
+    }
+
     /**
-     * Empty Line separator for rfc 2045 section 6.8
-     * {@see org.apache.commons.codec.binary.Base64}
+     * Decodes the base64url characters of the given string in the {@code [beginIndex, endIndex)} range.
      */
-    private static final byte[] LINE_SEPARATOR = {};
-
-    public static final String base64Decode(String base64encoded) {
-        return new String(new Base64(-1, LINE_SEPARATOR, true).decode(base64encoded), UTF_8);
+    public static final String base64Decode(String base64encoded, int beginIndex, int endIndex) {
+        return Base64UrlCodec.decodeToString(base64encoded, beginIndex, endIndex);
     }
-    
+
     public static final byte[] base64DecodeToByte(String base64encoded) {
-        return new Base64(-1, LINE_SEPARATOR, true).decode(base64encoded);
+        return Base64UrlCodec.decode(base64encoded);
     }
 
     public static final String base64Encode(String input) {
-        return new String(new Base64(-1, LINE_SEPARATOR, true).encode(input.getBytes(UTF_8)), UTF_8);
+        return Base64UrlCodec.encode(input.getBytes(UTF_8));
     }
-    
+
     public static final String base64Encode(byte [] input) {
-        return new String(new Base64(-1, LINE_SEPARATOR, true).encode(input));
+        return Base64UrlCodec.encode(input);
     }
 }
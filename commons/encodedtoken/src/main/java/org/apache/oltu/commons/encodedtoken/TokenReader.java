@@ -16,18 +16,12 @@
  */
 package org.apache.oltu.commons.encodedtoken;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.StringReader;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 public abstract class TokenReader<T> extends TokenDecoder {
 
     /**
-     * The Base64 JSON string default separator.
+     * The compact serialization segments separator.
      */
-    private final Pattern base64urlTokenPattern = Pattern.compile("([a-zA-Z0-9-​_=]+)\\.([a-zA-Z0-9-_​=]+)\\.([a-zA-Z0-9-_=]+)");
+    private static final char SEPARATOR = '.';
 
     /**
      * Read the base64url token string
@@ -39,44 +33,59 @@ public abstract class TokenReader<T> extends TokenDecoder {
             throw new IllegalArgumentException("Impossible to obtain a Token from a null or empty string");
         }
 
-        // TODO improve multi-line tokens
-        StringBuilder buffer = new StringBuilder();
-        BufferedReader reader = new BufferedReader(new StringReader(base64String));
-        String line = null;
-        try {
-            while ((line = reader.readLine()) != null) {
-                buffer.append(line.trim());
-            }
-        } catch (IOException e) {
-            // it cannot happen
-        } finally {
-            try {
-                reader.close();
-            } catch (IOException e) {
-                // swallow it
+        // multi-line tokens are rare, the compact form is copied only when whitespaces are found
+        String token = hasWhitespaces(base64String) ? removeWhitespaces(base64String) : base64String;
+
+        // single pass: locate the two separators and check the base64url alphabet
+        int headerEnd = -1;
+        int payloadEnd = -1;
+        int segmentStart = 0;
+        final int length = token.length();
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c == SEPARATOR) {
+                if (i == segmentStart || payloadEnd != -1) {
+                    throw invalidToken(base64String);
+                }
+                if (headerEnd == -1) {
+                    headerEnd = i;
+                } else {
+                    payloadEnd = i;
+                }
+                segmentStart = i + 1;
+            } else if (!isBase64urlChar(c)) {
+                throw invalidToken(base64String);
             }
         }
 
-        Matcher matcher = base64urlTokenPattern.matcher(buffer.toString());
-        if (!matcher.matches()) {
-            throw new IllegalArgumentException(base64String
-                                               + "is not a valid Token, it does not match with the pattern: "
-                                               + base64urlTokenPattern.pattern());
+        if (payloadEnd == -1 || segmentStart == length) {
+            throw invalidToken(base64String);
         }
 
+        return build(token, headerEnd, payloadEnd);
+    }
+
+    /**
+     * Build the token from its compact serialization, given the position of the two segments separators;
+     * by default decodes the header and the body and keeps the signature encoded in base64url.
+     *
+     * @param rawString the token compact serialization, without whitespaces
+     * @param headerEnd the index of the separator between the header and the body
+     * @param payloadEnd the index of the separator between the body and the signature
+     * @return the built token
+     */
+    protected T build(String rawString, int headerEnd, int payloadEnd) {
         // HEADER
-        String header = matcher.group(1);
-        String decodedHeader = base64Decode(header);
+        String decodedHeader = base64Decode(rawString, 0, headerEnd);
 
         // BODY
-        String body = matcher.group(2);
-        String decodedBody = base64Decode(body);
+        String decodedBody = base64Decode(rawString, headerEnd + 1, payloadEnd);
 
         // SIGNATURE
         // Keep signature encoded in base64url
-        String signature = matcher.group(3);
+        String signature = rawString.substring(payloadEnd + 1);
 
-        return build(base64String, decodedHeader, decodedBody, signature);
+        return build(rawString, decodedHeader, decodedBody, signature);
     }
 
     /**
@@ -89,4 +98,40 @@ public abstract class TokenReader<T> extends TokenDecoder {
      * @return
      */
     protected abstract T build(String rawString, String decodedHeader, String decodedBody, String encodedSignature);
+
+    private static boolean isBase64urlChar(char c) {
+        return (c >= 'a' && c <= 'z')
+               || (c >= 'A' && c <= 'Z')
+               || (c >= '0' && c <= '9')
+               || c == '-'
+               || c == '_'
+               || c == '=';
+    }
+
+    private static boolean hasWhitespaces(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isWhitespace(value.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String removeWhitespaces(String value) {
+        StringBuilder buffer = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                buffer.append(c);
+            }
+        }
+        return buffer.toString();
+    }
+
+    private static IllegalArgumentException invalidToken(String base64String) {
+        return new IllegalArgumentException(base64String
+                                            + " is not a valid Token, it must be made of three non empty "
+                                            + "base64url segments separated by '" + SEPARATOR + "'");
+    }
+
 }
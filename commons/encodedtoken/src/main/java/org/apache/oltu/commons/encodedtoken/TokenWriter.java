@@ -16,28 +16,36 @@
  */
 package org.apache.oltu.commons.encodedtoken;
 
+import java.nio.charset.Charset;
+
 public abstract class TokenWriter<T> extends TokenDecoder {
 
+    /**
+     * The {@code UTF-8} charset reference.
+     */
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     public final String write(T token) {
         if (token == null) {
             throw new IllegalArgumentException("Impossible to build a Token from a null JWS representation.");
         }
 
-        String header = writeHeader(token);
-        String encodedHeader = base64Encode(header);
+        byte[] header = writeHeader(token).getBytes(UTF_8);
+        byte[] body = writeBody(token).getBytes(UTF_8);
+        String signature = String.valueOf(writeSignature(token));
 
-        String body = writeBody(token);
-        String encodedBody = base64Encode(body);
+        // encode the segments straight in the final buffer
+        int encodedHeaderLength = Base64UrlCodec.encodedLength(header.length);
+        int encodedBodyLength = Base64UrlCodec.encodedLength(body.length);
+        char[] compact = new char[encodedHeaderLength + encodedBodyLength + signature.length() + 2];
 
-        String signature = writeSignature(token);
+        int position = Base64UrlCodec.encode(header, 0, header.length, compact, 0);
+        compact[position++] = '.';
+        position += Base64UrlCodec.encode(body, 0, body.length, compact, position);
+        compact[position++] = '.';
+        signature.getChars(0, signature.length(), compact, position);
 
-        return new StringBuilder()
-                   .append(encodedHeader)
-                   .append('.')
-                   .append(encodedBody)
-                   .append('.')
-                   .append(signature)
-                   .toString();
+        return new String(compact);
     }
 
     protected abstract String writeHeader(T token);
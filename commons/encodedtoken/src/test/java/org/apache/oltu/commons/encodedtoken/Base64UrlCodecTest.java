@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.commons.encodedtoken;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class Base64UrlCodecTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    // test vectors from http://tools.ietf.org/html/rfc4648#section-10, without padding
+    private static final String[][] VECTORS = {
+        { "", "" },
+        { "f", "Zg" },
+        { "fo", "Zm8" },
+        { "foo", "Zm9v" },
+        { "foob", "Zm9vYg" },
+        { "fooba", "Zm9vYmE" },
+        { "foobar", "Zm9vYmFy" }
+    };
+
+    @Test
+    public void test_encode() {
+        for (String[] vector : VECTORS) {
+            Assert.assertEquals(vector[1], Base64UrlCodec.encode(vector[0].getBytes(UTF_8)));
+        }
+        Assert.assertEquals("-_8", Base64UrlCodec.encode(new byte[]{ (byte) 0xfb, (byte) 0xff }));
+    }
+
+    @Test
+    public void test_decode() {
+        for (String[] vector : VECTORS) {
+            Assert.assertArrayEquals(vector[0].getBytes(UTF_8), Base64UrlCodec.decode(vector[1]));
+        }
+        // padding and standard alphabet are tolerated
+        Assert.assertArrayEquals("fo".getBytes(UTF_8), Base64UrlCodec.decode("Zm8="));
+        Assert.assertArrayEquals("f".getBytes(UTF_8), Base64UrlCodec.decode("Zg=="));
+        Assert.assertArrayEquals(new byte[]{ (byte) 0xfb, (byte) 0xff }, Base64UrlCodec.decode("+/8"));
+    }
+
+    @Test
+    public void test_ranges() {
+        byte[] data = "foobar".getBytes(UTF_8);
+
+        char[] chars = new char[10];
+        Assert.assertEquals(4, Base64UrlCodec.encode(data, 3, 3, chars, 2));
+        Assert.assertEquals("YmFy", new String(chars, 2, 4));
+
+        byte[] ascii = new byte[8];
+        Assert.assertEquals(8, Base64UrlCodec.encode(data, 0, data.length, ascii, 0));
+        Assert.assertEquals("Zm9vYmFy", new String(ascii, UTF_8));
+
+        byte[] decoded = new byte[5];
+        Assert.assertEquals(3, Base64UrlCodec.decode("xx.Zm9v.yy", 3, 7, decoded, 1));
+        Assert.assertEquals("foo", new String(decoded, 1, 3, UTF_8));
+        Assert.assertEquals("bar", Base64UrlCodec.decodeToString("Zm9v.YmFy", 5, 9));
+
+        Assert.assertEquals(2, Base64UrlCodec.decode("Zm8".toCharArray(), 0, 3, decoded, 0));
+        Assert.assertEquals("fo", new String(decoded, 0, 2, UTF_8));
+    }
+
+    @Test
+    public void test_byteBuffers() {
+        ByteBuffer src = ByteBuffer.wrap("foobar".getBytes(UTF_8));
+        ByteBuffer encoded = ByteBuffer.allocateDirect(8);
+        Assert.assertEquals(8, Base64UrlCodec.encode(src, encoded));
+        Assert.assertFalse(src.hasRemaining());
+        encoded.flip();
+
+        ByteBuffer decoded = ByteBuffer.allocate(6);
+        Assert.assertEquals(6, Base64UrlCodec.decode(encoded, decoded));
+        Assert.assertEquals("foobar", new String(decoded.array(), UTF_8));
+    }
+
+    @Test
+    public void test_paddedByteBuffers() {
+        for (String padded : new String[] { "QUJD=", "Zm8=", "Zg==" }) {
+            byte[] expected = Base64UrlCodec.decode(padded);
+            byte[] ascii = padded.getBytes(UTF_8);
+
+            ByteBuffer heap = ByteBuffer.allocate(expected.length);
+            Assert.assertEquals(expected.length, Base64UrlCodec.decode(ByteBuffer.wrap(ascii), heap));
+            Assert.assertArrayEquals(expected, heap.array());
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(ascii.length);
+            direct.put(ascii).flip();
+            ByteBuffer decoded = ByteBuffer.allocateDirect(expected.length);
+            Assert.assertEquals(expected.length, Base64UrlCodec.decode(direct, decoded));
+            Assert.assertFalse(direct.hasRemaining());
+            decoded.flip();
+            byte[] actual = new byte[decoded.remaining()];
+            decoded.get(actual);
+            Assert.assertArrayEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void test_roundTrip() {
+        Random random = new Random(42);
+        for (int length = 0; length < 100; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            String encoded = Base64UrlCodec.encode(data);
+            Assert.assertEquals(Base64UrlCodec.encodedLength(length), encoded.length());
+            Assert.assertArrayEquals(data, Base64UrlCodec.decode(encoded));
+        }
+    }
+
+    @Test
+    public void test_illegal() {
+        String[] illegal = { "Z", "Zm9vY", "Zm 9v", "Zm9v.", "Z=9v", "Zm9é" };
+        for (String encoded : illegal) {
+            try {
+                Base64UrlCodec.decode(encoded);
+                Assert.fail(encoded + " is not a valid base64url string");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void test_illegalNonAscii() {
+        // UTF-8 bytes of non ASCII characters are negative, in full quanta and in the trailing partial one
+        byte[][] illegal = {
+            { 'Z', 'm', (byte) 0xc3, (byte) 0xa9 },
+            { 'Z', 'm', '9', 'v', (byte) 0xc3, (byte) 0xa9 },
+            { 'Z', 'm', '9', 'v', 'Y', (byte) 0x80, 'F' },
+            { (byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff }
+        };
+        for (final byte[] bytes : illegal) {
+            final String chars = new String(bytes, Charset.forName("ISO-8859-1"));
+            assertIllegal(chars, new Runnable() {
+                public void run() {
+                    Base64UrlCodec.decode(chars);
+                }
+            });
+            assertIllegal(chars, new Runnable() {
+                public void run() {
+                    Base64UrlCodec.decodeToString(chars, 0, chars.length());
+                }
+            });
+            assertIllegal(chars, new Runnable() {
+                public void run() {
+                    Base64UrlCodec.decode(chars.toCharArray(), 0, chars.length(), new byte[8], 0);
+                }
+            });
+            assertIllegal(chars, new Runnable() {
+                public void run() {
+                    Base64UrlCodec.decode(bytes, 0, bytes.length, new byte[8], 0);
+                }
+            });
+            assertIllegal(chars, new Runnable() {
+                public void run() {
+                    Base64UrlCodec.decode(ByteBuffer.wrap(bytes), ByteBuffer.allocate(8));
+                }
+            });
+            assertIllegal(chars, new Runnable() {
+                public void run() {
+                    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+                    direct.put(bytes).flip();
+                    Base64UrlCodec.decode(direct, ByteBuffer.allocateDirect(8));
+                }
+            });
+        }
+    }
+
+    private static void assertIllegal(String encoded, Runnable decoding) {
+        try {
+            decoding.run();
+            Assert.fail(encoded + " is not a valid base64url string");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+}
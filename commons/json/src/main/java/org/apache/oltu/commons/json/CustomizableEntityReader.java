@@ -19,15 +19,37 @@ package org.apache.oltu.commons.json;
 import static java.lang.String.format;
 
 import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 
-import javax.json.*;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
 
 /**
- * TODO
+ * Reads a flat JSON object and notifies each of its properties to
+ * {@link #handleProperty(String, Object)}; properties not handled are set as
+ * custom fields of the builder.
+ *
+ * The JSON text is streamed through a {@link JsonParser}, values are converted
+ * as they are met without building an intermediate tree: strings as
+ * {@link String}, booleans as {@link Boolean}, integral numbers as {@link Long}
+ * (as {@link BigDecimal} when beyond the {@code long} range or not integral),
+ * arrays as {@code Object[]}; nested objects and {@code null}s are notified
+ * as {@code null}. Like with a {@code JsonObject}, a property appearing more
+ * than once is notified once, at its first position, with its last value;
+ * nothing but whitespace may follow the object.
  */
 public abstract class CustomizableEntityReader<E, B extends CustomizableBuilder<E>> {
 
+    /**
+     * Max number of characters of a number always fitting in a {@code long}, sign included.
+     */
+    private static final int MAX_LONG_CHARS = 18;
+
     private final B builder;
 
     public CustomizableEntityReader(B builder) {
@@ -47,79 +69,103 @@ public abstract class CustomizableEntityReader<E, B extends CustomizableBuilder<
             throw new IllegalArgumentException("Null string does not represent a valid JSON object");
         }
 
-        StringReader reader = new StringReader(jsonString);
-        JsonReader jsonReader = Json.createReader(reader);
-        JsonStructure structure = jsonReader.read();
-
-        if (structure == null || structure instanceof JsonArray) {
-            throw new IllegalArgumentException(format("String '%s' is not a valid JSON object representation",
-                                                      jsonString));
-        }
+        JsonParser parser = JsonProviders.getParserFactory().createParser(new StringReader(jsonString));
+        try {
+            if (!parser.hasNext() || parser.next() != Event.START_OBJECT) {
+                throw new IllegalArgumentException(format("String '%s' is not a valid JSON object representation",
+                                                          jsonString));
+            }
 
-        JsonObject object = (JsonObject) structure;
-        for (Entry<String, JsonValue> entry : object.entrySet()) {
-            String key = entry.getKey();
-            JsonValue jsonValue = entry.getValue();
+            // values are converted while streaming, but notified once the object is complete and valid
+            Map<String, Object> properties = new LinkedHashMap<String, Object>();
+            while (parser.next() == Event.KEY_NAME) {
+                String key = parser.getString();
+                properties.put(key, readValue(parser, parser.next()));
+            }
 
-            // guard from null values
-            if (jsonValue != null) {
-                Object value = toJavaObject(jsonValue);
+            if (parser.hasNext()) {
+                throw new IllegalArgumentException(format("String '%s' is not a valid JSON object representation",
+                                                          jsonString));
+            }
 
+            for (Entry<String, Object> property : properties.entrySet()) {
                 // if the concrete implementation is not able to handle the property, set the custom field
-                if (!handleProperty(key, value)) {
-                    builder.setCustomField(key, value);
+                if (!handleProperty(property.getKey(), property.getValue())) {
+                    builder.setCustomField(property.getKey(), property.getValue());
                 }
             }
+        } finally {
+            parser.close();
         }
-
-        jsonReader.close();
     }
 
-    private static Object toJavaObject(JsonValue jsonValue) {
-        Object value = null;
-
-        switch (jsonValue.getValueType()) {
-            case ARRAY:
-                JsonArray array = (JsonArray) jsonValue;
-                Object[] values = new Object[array.size()];
-                for (int i = 0; i < array.size(); i++) {
-                    JsonValue current = array.get(i);
-                    values[i] = toJavaObject(current);
+    private static Object readValue(JsonParser parser, Event event) {
+        switch (event) {
+            case START_ARRAY:
+                List<Object> values = new ArrayList<Object>();
+                while ((event = parser.next()) != Event.END_ARRAY) {
+                    values.add(readValue(parser, event));
                 }
-                value = values;
-                break;
-
-            case FALSE:
-                value = false;
-                break;
+                return values.toArray();
 
-            case NULL:
-                value = null;
-                break;
+            case START_OBJECT:
+                // not supported in this version
+                skipObject(parser);
+                return null;
 
-            case NUMBER:
-                JsonNumber jsonNumber = (JsonNumber) jsonValue;
-                value = jsonNumber.numberValue();
-                break;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
 
-            case OBJECT:
-                // not supported in this version
-                break;
+            case VALUE_TRUE:
+                return Boolean.TRUE;
 
-            case STRING:
-                JsonString jsonString = (JsonString) jsonValue;
-                value = jsonString.getString();
-                break;
+            case VALUE_NUMBER:
+                return readNumber(parser);
 
-            case TRUE:
-                value = true;
-                break;
+            case VALUE_STRING:
+                return parser.getString();
 
+            case VALUE_NULL:
             default:
-                break;
+                return null;
         }
+    }
 
-        return value;
+    private static Object readNumber(JsonParser parser) {
+        if (parser.isIntegralNumber()) {
+            // the common case: timestamps, counters, ...
+            if (parser.getString().length() <= MAX_LONG_CHARS) {
+                return parser.getLong();
+            }
+
+            BigDecimal value = parser.getBigDecimal();
+            try {
+                return value.longValueExact();
+            } catch (ArithmeticException e) {
+                return value;
+            }
+        }
+        return parser.getBigDecimal();
+    }
+
+    private static void skipObject(JsonParser parser) {
+        int depth = 1;
+        while (depth > 0) {
+            switch (parser.next()) {
+                case START_OBJECT:
+                case START_ARRAY:
+                    depth++;
+                    break;
+
+                case END_OBJECT:
+                case END_ARRAY:
+                    depth--;
+                    break;
+
+                default:
+                    break;
+            }
+        }
     }
 
     protected abstract <T> boolean handleProperty(String key, T value);
@@ -16,37 +16,167 @@
  */
 package org.apache.oltu.commons.json;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.util.Collection;
 import java.util.Map.Entry;
 
-import javax.json.Json;
 import javax.json.stream.JsonGenerator;
 
+/**
+ * Serializes a {@link CustomizableEntity} to JSON.
+ *
+ * Writers don't hold any per-serialization state: a new {@link JsonGenerator} is
+ * created on each call, so a single instance can be shared across threads and
+ * reused for any number of entities.
+ *
+ * Subclasses override {@link #handleProperties(CustomizableEntity, JsonGenerator)}
+ * and write with the static {@code set(JsonGenerator, ...)} helpers; subclasses
+ * written for the previous versions, overriding
+ * {@link #handleProperties(CustomizableEntity)} and using the instance
+ * {@code set(String, ...)} helpers, keep working.
+ */
 public abstract class CustomizableEntityWriter<CE extends CustomizableEntity> {
 
-    private final StringWriter stringWriter = new StringWriter();
+    /**
+     * The {@code UTF-8} charset reference.
+     */
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
 
-    private final JsonGenerator generator = Json.createGenerator(stringWriter);
+    /**
+     * The generator of the serialization in progress on the current thread, only bound for subclasses
+     * overriding the deprecated {@link #handleProperties(CustomizableEntity)}.
+     */
+    private final ThreadLocal<JsonGenerator> legacyGenerator = new ThreadLocal<JsonGenerator>();
 
     public final String write(CE customizableEntity) {
+        StringWriter stringWriter = new StringWriter();
+        write(customizableEntity, JsonProviders.getGeneratorFactory().createGenerator(stringWriter));
+        return stringWriter.toString();
+    }
+
+    /**
+     * Serializes the entity to the given {@link Appendable}, which is left open.
+     */
+    public final void write(CE customizableEntity, Appendable appendable) {
+        if (appendable == null) {
+            throw new IllegalArgumentException("Impossible to write an entity to a null Appendable.");
+        }
+
+        Writer writer = new AppendableWriter(appendable);
+        write(customizableEntity, JsonProviders.getGeneratorFactory().createGenerator(writer));
+    }
+
+    /**
+     * Serializes the entity as {@code UTF-8} to the given {@link OutputStream}, which is left open.
+     */
+    public final void write(CE customizableEntity, OutputStream outputStream) {
+        if (outputStream == null) {
+            throw new IllegalArgumentException("Impossible to write an entity to a null OutputStream.");
+        }
+
+        OutputStream unclosable = new FilterOutputStream(outputStream) {
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+
+        };
+        write(customizableEntity, JsonProviders.getGeneratorFactory().createGenerator(unclosable, UTF_8));
+    }
+
+    /**
+     * Serializes the entity to its {@code UTF-8} JSON representation.
+     */
+    public final byte[] toByteArray(CE customizableEntity) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(256);
+        write(customizableEntity, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private void write(CE customizableEntity, JsonGenerator generator) {
+        if (customizableEntity == null) {
+            throw new IllegalArgumentException("Impossible to write a null entity.");
+        }
+
         generator.writeStartObject();
 
-        handleProperties(customizableEntity);
+        handleProperties(customizableEntity, generator);
 
         for (Entry<String, Object> customFields : customizableEntity.getCustomFields()) {
-            set(customFields.getKey(), customFields.getValue());
+            set(generator, customFields.getKey(), customFields.getValue());
         }
 
         generator.writeEnd().close();
+    }
 
-        return stringWriter.toString();
+    /**
+     * Writes the entity properties with the given generator.
+     *
+     * The default implementation delegates to the deprecated {@link #handleProperties(CustomizableEntity)},
+     * for subclasses written for the previous versions.
+     */
+    protected void handleProperties(CE customizableEntity, JsonGenerator generator) {
+        legacyGenerator.set(generator);
+        try {
+            handleProperties(customizableEntity);
+        } finally {
+            legacyGenerator.remove();
+        }
     }
 
-    protected abstract void handleProperties(CE customizableEntity);
+    /**
+     * Writes the entity properties with the instance {@code set(String, ...)} helpers.
+     *
+     * @deprecated override {@link #handleProperties(CustomizableEntity, JsonGenerator)} instead.
+     */
+    @Deprecated
+    protected void handleProperties(CE customizableEntity) {
+        throw new UnsupportedOperationException(getClass().getName()
+                                                + " must override handleProperties(CustomizableEntity, JsonGenerator)");
+    }
 
+    /**
+     * @deprecated use {@link #set(JsonGenerator, String, Object)} from
+     *             {@link #handleProperties(CustomizableEntity, JsonGenerator)} instead.
+     */
+    @Deprecated
     protected final <T> void set(String key, T value) {
+        set(currentGenerator(), key, value);
+    }
+
+    /**
+     * @deprecated use {@link #set(JsonGenerator, String, Object[])} from
+     *             {@link #handleProperties(CustomizableEntity, JsonGenerator)} instead.
+     */
+    @Deprecated
+    protected final <T> void set(String key, T[] value) {
+        set(currentGenerator(), key, value);
+    }
+
+    private JsonGenerator currentGenerator() {
+        JsonGenerator generator = legacyGenerator.get();
+        if (generator == null) {
+            throw new IllegalStateException("Properties can only be set while handleProperties(CustomizableEntity)"
+                                            + " is writing an entity");
+        }
+        return generator;
+    }
+
+    protected static final <T> void set(JsonGenerator generator, String key, T value) {
         if (key != null && value != null) {
             if (value instanceof Boolean) {
                 generator.write(key, (Boolean) value);
@@ -65,11 +195,15 @@ public abstract class CustomizableEntityWriter<CE extends CustomizableEntity> {
                 if (!string.isEmpty()) {
                     generator.write(key, string);
                 }
+            } else if (value instanceof Collection) {
+                set(generator, key, ((Collection<?>) value).toArray());
+            } else if (value instanceof Object[]) {
+                set(generator, key, (Object[]) value);
             }
         }
     }
 
-    protected final <T> void set(String key, T[] value) {
+    protected static final <T> void set(JsonGenerator generator, String key, T[] value) {
         if (value == null) {
             return;
         }
@@ -99,4 +233,58 @@ public abstract class CustomizableEntityWriter<CE extends CustomizableEntity> {
         generator.writeEnd();
     }
 
+    /**
+     * Adapts an {@link Appendable} to a {@link Writer}; closing it only flushes the target.
+     */
+    private static final class AppendableWriter extends Writer {
+
+        private final Appendable appendable;
+
+        AppendableWriter(Appendable appendable) {
+            this.appendable = appendable;
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            appendable.append((char) c);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            if (appendable instanceof Writer) {
+                ((Writer) appendable).write(cbuf, off, len);
+            } else if (appendable instanceof StringBuilder) {
+                ((StringBuilder) appendable).append(cbuf, off, len);
+            } else {
+                for (int i = off; i < off + len; i++) {
+                    appendable.append(cbuf[i]);
+                }
+            }
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            appendable.append(str, off, off + len);
+        }
+
+        @Override
+        public Writer append(CharSequence csq) throws IOException {
+            appendable.append(csq);
+            return this;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (appendable instanceof Writer) {
+                ((Writer) appendable).flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+    }
+
 }
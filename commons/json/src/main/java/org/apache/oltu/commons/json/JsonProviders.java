@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.commons.json;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.json.JsonReaderFactory;
+import javax.json.spi.JsonProvider;
+import javax.json.stream.JsonGeneratorFactory;
+import javax.json.stream.JsonParserFactory;
+
+/**
+ * Holds the {@link JsonProvider} and the reader, parser and generator
+ * factories shared by all the JSON entry points.
+ *
+ * {@code Json.createReader()}, {@code Json.createParser()} and friends look
+ * the provider up through the {@code ServiceLoader} on every call; here the
+ * provider is resolved once, lazily, unless a preferred one is injected via
+ * {@link #configure(JsonProvider, Map)}. Factories are thread-safe and can be
+ * shared.
+ */
+public final class JsonProviders {
+
+    private static volatile Factories factories;
+
+    private JsonProviders() {
+        // do nothing
+    }
+
+    /**
+     * Sets the provider, and the configuration of the factories, to be used by
+     * all the JSON entry points from now on.
+     *
+     * @param provider the preferred provider, {@code null} to look it up
+     *        through the {@code ServiceLoader}
+     * @param config the provider specific factories configuration, may be {@code null}
+     */
+    public static void configure(JsonProvider provider, Map<String, ?> config) {
+        factories = new Factories(provider != null ? provider : JsonProvider.provider(), config);
+    }
+
+    public static JsonProvider getProvider() {
+        return getFactories().provider;
+    }
+
+    public static JsonReaderFactory getReaderFactory() {
+        return getFactories().readerFactory;
+    }
+
+    public static JsonParserFactory getParserFactory() {
+        return getFactories().parserFactory;
+    }
+
+    public static JsonGeneratorFactory getGeneratorFactory() {
+        return getFactories().generatorFactory;
+    }
+
+    private static Factories getFactories() {
+        Factories current = factories;
+        if (current == null) {
+            synchronized (JsonProviders.class) {
+                current = factories;
+                if (current == null) {
+                    current = new Factories(JsonProvider.provider(), null);
+                    factories = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static final class Factories {
+
+        private final JsonProvider provider;
+
+        private final JsonReaderFactory readerFactory;
+
+        private final JsonParserFactory parserFactory;
+
+        private final JsonGeneratorFactory generatorFactory;
+
+        Factories(JsonProvider provider, Map<String, ?> config) {
+            Map<String, ?> factoriesConfig = config == null
+                                             ? Collections.<String, Object>emptyMap()
+                                             : new HashMap<String, Object>(config);
+            this.provider = provider;
+            this.readerFactory = provider.createReaderFactory(factoriesConfig);
+            this.parserFactory = provider.createParserFactory(factoriesConfig);
+            this.generatorFactory = provider.createGeneratorFactory(factoriesConfig);
+        }
+
+    }
+
+}
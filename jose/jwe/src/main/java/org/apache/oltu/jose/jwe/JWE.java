@@ -26,6 +26,11 @@ import org.apache.oltu.jose.jwe.io.JWEHeaderWriter;
 
 public class JWE {
 
+    /**
+     * The shared JWE Header writer, writers are stateless.
+     */
+    private static final JWEHeaderWriter HEADER_WRITER = new JWEHeaderWriter();
+
     /**
      * The JWE Header.
      */
@@ -102,7 +107,7 @@ public class JWE {
             throw new IllegalStateException("JWE token must have a content encryption");
         }
 
-        return contentEncryptMethod.decrypt(new JWEHeaderWriter().write(header), contentEncryption, keyEncryptMethod.decrypt(encryptedKey, decryptingKey));
+        return contentEncryptMethod.decrypt(HEADER_WRITER.write(header), contentEncryption, keyEncryptMethod.decrypt(encryptedKey, decryptingKey));
     }
 
     public static final class Builder extends CustomizableBuilder<JWE> {
@@ -275,7 +280,7 @@ public class JWE {
             setAlgorithm(keyEncryptMethod.getAlgorithm());
             setEncryptionAlgorithm(contentEncryptMethod.getAlgorithm());
 
-            String header = new JWEHeaderWriter().write(new Header(algorithm,
+            String header = HEADER_WRITER.write(new Header(algorithm,
                     encryptionAlgorithm,
                     compressionAlgorithm,
                     jwkSetUrl,
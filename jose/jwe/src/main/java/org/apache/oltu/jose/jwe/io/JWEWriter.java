@@ -21,6 +21,8 @@ import org.apache.oltu.jose.jwe.JWE;
 
 public final class JWEWriter extends TokenDecoder {
 
+    private static final JWEHeaderWriter HEADER_WRITER = new JWEHeaderWriter();
+
     public final String write(JWE token) {
         if (token == null) {
             throw new IllegalArgumentException("Impossible to build a Token from a null JWS representation.");
@@ -41,7 +43,7 @@ public final class JWEWriter extends TokenDecoder {
     }
 
     protected String writeHeader(JWE token) {
-        return new JWEHeaderWriter().write(token.getHeader());
+        return HEADER_WRITER.write(token.getHeader());
     }
 
     protected String writeEncryptedKey(JWE token) {
@@ -16,6 +16,11 @@
  */
 package org.apache.oltu.jose.jws;
 
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.oltu.commons.encodedtoken.Base64UrlCodec;
 import org.apache.oltu.commons.encodedtoken.TokenDecoder;
 import org.apache.oltu.commons.json.CustomizableBuilder;
 import org.apache.oltu.jose.jws.io.JWSHeaderWriter;
@@ -24,12 +29,28 @@ import org.apache.oltu.jose.jws.signature.SigningKey;
 import org.apache.oltu.jose.jws.signature.VerifyingKey;
 
 public class JWS {
-    
+
+    /**
+     * The shared JWS Header writer, writers are stateless.
+     */
+    private static final JWSHeaderWriter HEADER_WRITER = new JWSHeaderWriter();
+
+    /**
+     * The {@code UTF-8} charset reference.
+     */
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     /**
      * The raw JWS String
      */
     private String rawString;
 
+    /**
+     * The length of the JWS Signing Input at the beginning of the raw JWS String,
+     * -1 when not known.
+     */
+    private final int signingInputLength;
+
     /**
      * The JWS Header.
      */
@@ -46,11 +67,12 @@ public class JWS {
     private final String signature;
 
     JWS(Header header, String payload, String signature) {
-        this(null, header, payload, signature);
+        this(null, -1, header, payload, signature);
     }
     
-    JWS(String rawString, Header header, String payload, String signature) {
+    JWS(String rawString, int signingInputLength, Header header, String payload, String signature) {
         this.rawString = rawString;
+        this.signingInputLength = signingInputLength;
         this.header = header;
         this.payload = payload;
         this.signature = signature;
@@ -101,11 +123,35 @@ public class JWS {
         }
         
         if (rawString == null) {
-            return method.verify(signature, TokenDecoder.base64Encode(new JWSHeaderWriter().write(header)), TokenDecoder.base64Encode(payload), verifyingKey);
-        } else {
-            String jwt[] = rawString.split("\\.");
-            return method.verify(jwt[2], jwt[0], jwt[1], verifyingKey);
+            return method.verify(signature, TokenDecoder.base64Encode(HEADER_WRITER.toByteArray(header)), TokenDecoder.base64Encode(payload), verifyingKey);
         }
+
+        // verify the JWS Signing Input as it was received, without splitting nor re-encoding it
+        int length = signingInputLength >= 0 ? signingInputLength : rawString.lastIndexOf('.');
+        if (length <= 0) {
+            return false;
+        }
+
+        byte[] decodedSignature;
+        try {
+            decodedSignature = Base64UrlCodec.decode(rawString, length + 1, rawString.length());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        return method.verify(decodedSignature, toAscii(rawString, length), 0, length, verifyingKey);
+    }
+
+    /**
+     * Copies the first {@code length} characters of a compact serialization,
+     * made of base64url characters and separators only, as ASCII bytes.
+     */
+    private static byte[] toAscii(String value, int length) {
+        byte[] ascii = new byte[length];
+        for (int i = 0; i < length; i++) {
+            ascii[i] = (byte) value.charAt(i);
+        }
+        return ascii;
     }
 
     public static final class Builder extends CustomizableBuilder<JWS> {
@@ -113,7 +159,17 @@ public class JWS {
         public Builder(){}
         
         public Builder(String rawString) {
+            this(rawString, -1);
+        }
+
+        /**
+         * @param rawString the raw JWS String
+         * @param signingInputLength the length of the JWS Signing Input, i.e. the
+         *        index of the separator between the payload and the signature
+         */
+        public Builder(String rawString, int signingInputLength) {
             this.rawString = rawString;
+            this.signingInputLength = signingInputLength;
         }
         
         /**
@@ -121,6 +177,11 @@ public class JWS {
          */
         private String rawString;
 
+        /**
+         * The length of the JWS Signing Input in the raw JWS String.
+         */
+        private int signingInputLength = -1;
+
         /**
          * The {@code alg} JWS Header parameter.
          */
@@ -253,36 +314,65 @@ public class JWS {
                 throw new IllegalStateException("Payload needs to be set in order to sign the current JWT");
             }
             setAlgorithm(method.getAlgorithm());
-            
-            String header = new JWSHeaderWriter().write(new Header(algorithm,
-                                      jwkSetUrl,
-                                      jsonWebKey,
-                                      x509url,
-                                      x509CertificateThumbprint,
-                                      x509CertificateChain,
-                                      keyId, type,
-                                      contentType,
-                                      critical,
-                                      getCustomFields())); 
-            
-            return setSignature(method.calculate(TokenDecoder.base64Encode(header), TokenDecoder.base64Encode(payload), signingKey));
+
+            byte[] header = HEADER_WRITER.toByteArray(buildHeader(getCustomFields()));
+            byte[] payloadBytes = payload.getBytes(UTF_8);
+
+            // encode header and payload straight in the JWS Signing Input
+            byte[] signingInput = new byte[Base64UrlCodec.encodedLength(header.length)
+                                           + 1
+                                           + Base64UrlCodec.encodedLength(payloadBytes.length)];
+            int position = Base64UrlCodec.encode(header, 0, header.length, signingInput, 0);
+            signingInput[position++] = '.';
+            Base64UrlCodec.encode(payloadBytes, 0, payloadBytes.length, signingInput, position);
+
+            return setSignature(method.calculate(signingInput, 0, signingInput.length, signingKey));
+        }
+
+        /**
+         * Builds a {@link JWSHeaderTemplate} that serializes and encodes the
+         * header configured so far once, then signs any number of payloads
+         * with the given method and key.
+         *
+         * @param method the signature method, it sets the <code>alg</code> header parameter.
+         * @param signingKey the key payloads are signed with.
+         * @return the header template.
+         */
+        public <SK extends SigningKey, VK extends VerifyingKey> JWSHeaderTemplate<SK, VK> buildHeaderTemplate(SignatureMethod<SK, VK> method,
+                                                                                                              SK signingKey) {
+            if (method == null) {
+                throw new IllegalArgumentException("A signature method is required in order to calculate the signature.");
+            }
+            if (signingKey == null) {
+                throw new IllegalArgumentException("A signing key is required in order to calculate the signature.");
+            }
+            setAlgorithm(method.getAlgorithm());
+
+            Header header = buildHeader(new LinkedHashMap<String, Object>(getCustomFields()));
+            return new JWSHeaderTemplate<SK, VK>(header, HEADER_WRITER.toByteArray(header), method, signingKey);
         }
 
         public JWS build() {
-            return new JWS(rawString, new Header(algorithm,
-                                      jwkSetUrl,
-                                      jsonWebKey,
-                                      x509url,
-                                      x509CertificateThumbprint,
-                                      x509CertificateChain,
-                                      keyId, type,
-                                      contentType,
-                                      critical,
-                                      getCustomFields()),
+            return new JWS(rawString,
+                           signingInputLength,
+                           buildHeader(getCustomFields()),
                            payload,
                            signature);
         }
 
+        private Header buildHeader(Map<String, Object> customFields) {
+            return new Header(algorithm,
+                              jwkSetUrl,
+                              jsonWebKey,
+                              x509url,
+                              x509CertificateThumbprint,
+                              x509CertificateChain,
+                              keyId, type,
+                              contentType,
+                              critical,
+                              customFields);
+        }
+
     }
 
 }
@@ -0,0 +1,390 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.jose.jws;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.apache.oltu.jose.jws.io.JWSReader;
+import org.apache.oltu.jose.jws.signature.SignatureMethod;
+import org.apache.oltu.jose.jws.signature.SigningKey;
+import org.apache.oltu.jose.jws.signature.VerifyingKey;
+
+/**
+ * Verifies large batches of serialized JWS tokens against a fixed set of
+ * verifying keys.
+ *
+ * Tokens are parsed once, grouped by their <code>alg</code>/<code>kid</code>
+ * header parameters and each group is verified against the key resolved once
+ * for the whole group, so that the (per thread cached) verifier engines are
+ * initialized once per key rather than once per token. Groups can optionally
+ * be fanned out across a {@link ForkJoinPool}.
+ *
+ * Verification never throws: every input token gets its own {@link Result}.
+ * Instances are immutable and thread-safe.
+ */
+public final class JWSBatchVerifier {
+
+    /**
+     * Number of tokens below which a group is not split any further when
+     * verifying on a {@link ForkJoinPool}.
+     */
+    private static final int SPLIT_THRESHOLD = 256;
+
+    /**
+     * Verification outcome of a single token.
+     */
+    public enum Status {
+
+        /**
+         * The signature has been verified.
+         */
+        VALID,
+
+        /**
+         * The signature does not match.
+         */
+        INVALID_SIGNATURE,
+
+        /**
+         * No key has been registered for the token <code>alg</code>/<code>kid</code>.
+         */
+        UNKNOWN_KEY,
+
+        /**
+         * The token could not be parsed or is missing mandatory parts.
+         */
+        MALFORMED
+
+    }
+
+    private final JWSReader reader = new JWSReader();
+
+    private final Map<GroupKey, KeyEntry<?, ?>> keys;
+
+    private JWSBatchVerifier(Map<GroupKey, KeyEntry<?, ?>> keys) {
+        this.keys = keys;
+    }
+
+    /**
+     * Verifies the given tokens in the calling thread.
+     *
+     * @return the results, in the same order as the input tokens.
+     */
+    public List<Result> verify(List<String> tokens) {
+        return verify(tokens, null);
+    }
+
+    /**
+     * Verifies the given tokens, splitting the work across the given pool
+     * when not {@code null}.
+     *
+     * @return the results, in the same order as the input tokens.
+     */
+    public List<Result> verify(List<String> tokens, ForkJoinPool pool) {
+        if (tokens == null) {
+            throw new IllegalArgumentException("Tokens list must not be null");
+        }
+
+        final String[] raw = tokens.toArray(new String[tokens.size()]);
+        final Result[] results = new Result[raw.length];
+        final JWS[] parsed = new JWS[results.length];
+        final Map<GroupKey, List<Integer>> groups = new LinkedHashMap<GroupKey, List<Integer>>();
+
+        for (int i = 0; i < results.length; i++) {
+            String token = raw[i];
+            JWS jws;
+            try {
+                jws = reader.read(token);
+            } catch (RuntimeException e) {
+                results[i] = new Result(token, null, Status.MALFORMED, e);
+                continue;
+            }
+            if (jws.getHeader() == null || jws.getHeader().getAlgorithm() == null) {
+                results[i] = new Result(token, jws, Status.MALFORMED, null);
+                continue;
+            }
+
+            parsed[i] = jws;
+            GroupKey groupKey = new GroupKey(jws.getHeader().getAlgorithm(), jws.getHeader().getKeyId());
+            List<Integer> group = groups.get(groupKey);
+            if (group == null) {
+                group = new ArrayList<Integer>();
+                groups.put(groupKey, group);
+            }
+            group.add(i);
+        }
+
+        List<GroupTask> tasks = new ArrayList<GroupTask>(groups.size());
+        for (Map.Entry<GroupKey, List<Integer>> group : groups.entrySet()) {
+            KeyEntry<?, ?> keyEntry = resolve(group.getKey());
+            int[] indexes = toArray(group.getValue());
+
+            if (keyEntry == null) {
+                for (int index : indexes) {
+                    results[index] = new Result(raw[index], parsed[index], Status.UNKNOWN_KEY, null);
+                }
+            } else {
+                tasks.add(new GroupTask(keyEntry, raw, parsed, results, indexes, 0, indexes.length));
+            }
+        }
+
+        if (pool == null) {
+            for (GroupTask task : tasks) {
+                task.compute();
+            }
+        } else {
+            pool.invoke(new RecursiveAction() {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+
+            });
+        }
+
+        List<Result> list = new ArrayList<Result>(results.length);
+        Collections.addAll(list, results);
+        return list;
+    }
+
+    // ---------- Private methods ---------------------------------------------
+
+    private KeyEntry<?, ?> resolve(GroupKey groupKey) {
+        KeyEntry<?, ?> keyEntry = keys.get(groupKey);
+        if (keyEntry == null && groupKey.keyId != null) {
+            keyEntry = keys.get(new GroupKey(groupKey.algorithm, null));
+        }
+        return keyEntry;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * The verification outcome of a single token.
+     */
+    public static final class Result {
+
+        private final String token;
+
+        private final JWS jws;
+
+        private final Status status;
+
+        private final Exception error;
+
+        Result(String token, JWS jws, Status status, Exception error) {
+            this.token = token;
+            this.jws = jws;
+            this.status = status;
+            this.error = error;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        /**
+         * @return the parsed token, {@code null} if it could not be parsed.
+         */
+        public JWS getJWS() {
+            return jws;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return the error raised while parsing or verifying the token, if any.
+         */
+        public Exception getError() {
+            return error;
+        }
+
+        public boolean isValid() {
+            return status == Status.VALID;
+        }
+
+    }
+
+    public static final class Builder {
+
+        private final Map<GroupKey, KeyEntry<?, ?>> keys = new HashMap<GroupKey, KeyEntry<?, ?>>();
+
+        /**
+         * Registers the key verifying tokens signed with the given method,
+         * regardless of their <code>kid</code> unless a more specific key has
+         * been registered for it.
+         */
+        public <SK extends SigningKey, VK extends VerifyingKey> Builder addKey(SignatureMethod<SK, VK> method,
+                                                                              VK verifyingKey) {
+            return addKey(null, method, verifyingKey);
+        }
+
+        /**
+         * Registers the key verifying tokens signed with the given method and
+         * carrying the given <code>kid</code>.
+         */
+        public <SK extends SigningKey, VK extends VerifyingKey> Builder addKey(String keyId,
+                                                                              SignatureMethod<SK, VK> method,
+                                                                              VK verifyingKey) {
+            if (method == null) {
+                throw new IllegalArgumentException("A signature method is required in order to verify the signature.");
+            }
+            if (verifyingKey == null) {
+                throw new IllegalArgumentException("A verifying key is required in order to verify the signature.");
+            }
+            keys.put(new GroupKey(method.getAlgorithm(), keyId), new KeyEntry<SK, VK>(method, verifyingKey));
+            return this;
+        }
+
+        public JWSBatchVerifier build() {
+            return new JWSBatchVerifier(new HashMap<GroupKey, KeyEntry<?, ?>>(keys));
+        }
+
+    }
+
+    private static final class GroupKey {
+
+        private final String algorithm;
+
+        private final String keyId;
+
+        GroupKey(String algorithm, String keyId) {
+            // JWS#acceptAlgorithm ignores the case of the alg header parameter
+            this.algorithm = algorithm.toUpperCase(Locale.ENGLISH);
+            this.keyId = keyId;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * algorithm.hashCode() + (keyId == null ? 0 : keyId.hashCode());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof GroupKey)) {
+                return false;
+            }
+            GroupKey other = (GroupKey) obj;
+            return algorithm.equals(other.algorithm)
+                    && (keyId == null ? other.keyId == null : keyId.equals(other.keyId));
+        }
+
+    }
+
+    private static final class KeyEntry<SK extends SigningKey, VK extends VerifyingKey> {
+
+        private final SignatureMethod<SK, VK> method;
+
+        private final VK verifyingKey;
+
+        KeyEntry(SignatureMethod<SK, VK> method, VK verifyingKey) {
+            this.method = method;
+            this.verifyingKey = verifyingKey;
+        }
+
+        boolean verify(JWS jws) {
+            return jws.validate(method, verifyingKey);
+        }
+
+    }
+
+    private static final class GroupTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final KeyEntry<?, ?> keyEntry;
+
+        private final String[] tokens;
+
+        private final JWS[] parsed;
+
+        private final Result[] results;
+
+        private final int[] indexes;
+
+        private final int from;
+
+        private final int to;
+
+        GroupTask(KeyEntry<?, ?> keyEntry,
+                  String[] tokens,
+                  JWS[] parsed,
+                  Result[] results,
+                  int[] indexes,
+                  int from,
+                  int to) {
+            this.keyEntry = keyEntry;
+            this.tokens = tokens;
+            this.parsed = parsed;
+            this.results = results;
+            this.indexes = indexes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD && inForkJoinPool()) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new GroupTask(keyEntry, tokens, parsed, results, indexes, from, middle),
+                          new GroupTask(keyEntry, tokens, parsed, results, indexes, middle, to));
+                return;
+            }
+
+            for (int i = from; i < to; i++) {
+                int index = indexes[i];
+                JWS jws = parsed[index];
+                Result result;
+                try {
+                    result = new Result(tokens[index],
+                                        jws,
+                                        keyEntry.verify(jws) ? Status.VALID : Status.INVALID_SIGNATURE,
+                                        null);
+                } catch (IllegalStateException e) {
+                    result = new Result(tokens[index], jws, Status.MALFORMED, e);
+                } catch (RuntimeException e) {
+                    result = new Result(tokens[index], jws, Status.INVALID_SIGNATURE, e);
+                }
+                results[index] = result;
+            }
+        }
+
+    }
+
+}
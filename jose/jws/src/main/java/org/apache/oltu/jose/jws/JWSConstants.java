@@ -25,4 +25,16 @@ public class JWSConstants {
     public static final String RS512 = "RS512";
     
     public static final String HS256 = "HS256";
+
+    public static final String HS384 = "HS384";
+
+    public static final String HS512 = "HS512";
+
+    public static final String ES256 = "ES256";
+
+    public static final String ES384 = "ES384";
+
+    public static final String ES512 = "ES512";
+
+    public static final String EdDSA = "EdDSA";
 }
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.jose.jws;
+
+import java.nio.charset.Charset;
+
+import org.apache.oltu.commons.encodedtoken.Base64UrlCodec;
+import org.apache.oltu.jose.jws.signature.SignatureMethod;
+import org.apache.oltu.jose.jws.signature.SigningKey;
+import org.apache.oltu.jose.jws.signature.VerifyingKey;
+
+/**
+ * A JWS Header bound to a signature method and signing key, serialized and
+ * base64url encoded once.
+ *
+ * Tokens minted in high volume usually share the same protected header
+ * (<code>alg</code>, <code>typ</code>, <code>kid</code>); signing a payload
+ * through a template only encodes the payload and computes the signature
+ * over the cached <code>BASE64URL(header) || '.'</code> prefix.
+ *
+ * Instances are immutable and thread-safe, as long as the signature method is;
+ * keep one per key/algorithm combination. Use
+ * {@link JWS.Builder#buildHeaderTemplate(SignatureMethod, SigningKey)} to create them.
+ *
+ * @param <S> the {@link SigningKey} type.
+ * @param <V> the {@link VerifyingKey} type.
+ */
+public final class JWSHeaderTemplate<S extends SigningKey, V extends VerifyingKey> {
+
+    /**
+     * The {@code UTF-8} charset reference.
+     */
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * The {@code US-ASCII} charset reference.
+     */
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+
+    /**
+     * The JWS Header.
+     */
+    private final Header header;
+
+    /**
+     * The <code>ASCII(BASE64URL(header) || '.')</code> prefix of every JWS Signing Input.
+     */
+    private final byte[] prefix;
+
+    /**
+     * The base64url encoded JWS Header.
+     */
+    private final String encodedHeader;
+
+    private final SignatureMethod<S, V> method;
+
+    private final S signingKey;
+
+    JWSHeaderTemplate(Header header, byte[] serializedHeader, SignatureMethod<S, V> method, S signingKey) {
+        this.header = header;
+        this.method = method;
+        this.signingKey = signingKey;
+
+        prefix = new byte[Base64UrlCodec.encodedLength(serializedHeader.length) + 1];
+        int position = Base64UrlCodec.encode(serializedHeader, 0, serializedHeader.length, prefix, 0);
+        prefix[position] = '.';
+
+        encodedHeader = new String(prefix, 0, position, US_ASCII);
+    }
+
+    public Header getHeader() {
+        return header;
+    }
+
+    public String getEncodedHeader() {
+        return encodedHeader;
+    }
+
+    /**
+     * Signs the given payload and returns the JWS Compact Serialization,
+     * <code>BASE64URL(header) || '.' || BASE64URL(payload) || '.' || BASE64URL(signature)</code>.
+     *
+     * @param payload the payload to sign, it cannot be null.
+     * @return the signed token.
+     */
+    public String sign(String payload) {
+        if (payload == null) {
+            throw new IllegalArgumentException("Payload needs to be set in order to sign the current JWT");
+        }
+
+        byte[] payloadBytes = payload.getBytes(UTF_8);
+        byte[] signingInput = new byte[prefix.length + Base64UrlCodec.encodedLength(payloadBytes.length)];
+        System.arraycopy(prefix, 0, signingInput, 0, prefix.length);
+        Base64UrlCodec.encode(payloadBytes, 0, payloadBytes.length, signingInput, prefix.length);
+
+        String signature = method.calculate(signingInput, 0, signingInput.length, signingKey);
+
+        // the signing input is plain ASCII, widen it straight in the final buffer
+        char[] compact = new char[signingInput.length + 1 + signature.length()];
+        for (int i = 0; i < signingInput.length; i++) {
+            compact[i] = (char) signingInput[i];
+        }
+        compact[signingInput.length] = '.';
+        signature.getChars(0, signature.length(), compact, signingInput.length + 1);
+
+        return new String(compact);
+    }
+
+}
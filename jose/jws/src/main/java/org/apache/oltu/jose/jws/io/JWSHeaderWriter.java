@@ -16,23 +16,25 @@
  */
 package org.apache.oltu.jose.jws.io;
 
+import javax.json.stream.JsonGenerator;
+
 import org.apache.oltu.commons.json.CustomizableEntityWriter;
 import org.apache.oltu.jose.jws.Header;
 
 public final class JWSHeaderWriter extends CustomizableEntityWriter<Header> implements JWSConstants {
 
     @Override
-    protected void handleProperties(Header header) {
-        set(ALGORITHM, header.getAlgorithm());
-        set(JWK_SET_URL, header.getJwkSetUrl());
-        set(JSON_WEB_KEY, header.getJsonWebKey());
-        set(X509_URL, header.getX509url());
-        set(X509_CERTIFICATE_THUMBPRINT, header.getX509CertificateThumbprint());
-        set(X509_CERTIFICATE_CHAIN, header.getX509CertificateChain());
-        set(KEY_ID, header.getKeyId());
-        set(TYPE, header.getType());
-        set(CONTENT_TYPE, header.getContentType());
-        set(CRITICAL, header.getCritical());
+    protected void handleProperties(Header header, JsonGenerator generator) {
+        set(generator, ALGORITHM, header.getAlgorithm());
+        set(generator, JWK_SET_URL, header.getJwkSetUrl());
+        set(generator, JSON_WEB_KEY, header.getJsonWebKey());
+        set(generator, X509_URL, header.getX509url());
+        set(generator, X509_CERTIFICATE_THUMBPRINT, header.getX509CertificateThumbprint());
+        set(generator, X509_CERTIFICATE_CHAIN, header.getX509CertificateChain());
+        set(generator, KEY_ID, header.getKeyId());
+        set(generator, TYPE, header.getType());
+        set(generator, CONTENT_TYPE, header.getContentType());
+        set(generator, CRITICAL, header.getCritical());
     }
 
 }
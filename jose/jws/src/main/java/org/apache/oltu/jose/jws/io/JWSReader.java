@@ -26,10 +26,24 @@ import org.apache.oltu.jose.jws.JWS;
  */
 public final class JWSReader extends TokenReader<JWS> {
 
+    /**
+     * Retains the JWS Signing Input boundary, so that {@link JWS#validate} can
+     * verify the raw string as is.
+     */
+    @Override
+    protected JWS build(String rawString, int headerEnd, int payloadEnd) {
+        return build(new JWS.Builder(rawString, payloadEnd),
+                     base64Decode(rawString, 0, headerEnd),
+                     base64Decode(rawString, headerEnd + 1, payloadEnd),
+                     rawString.substring(payloadEnd + 1));
+    }
+
     @Override
     protected JWS build(String rawString, String decodedHeader, String decodedBody, String encodedSignature) {
-        final JWS.Builder jwsBuilder = new JWS.Builder(rawString);
+        return build(new JWS.Builder(rawString), decodedHeader, decodedBody, encodedSignature);
+    }
 
+    private static JWS build(JWS.Builder jwsBuilder, String decodedHeader, String decodedBody, String encodedSignature) {
         new JWSHeaderParser(jwsBuilder).read(decodedHeader);
 
         return jwsBuilder
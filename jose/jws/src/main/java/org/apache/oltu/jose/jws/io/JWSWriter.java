@@ -21,9 +21,11 @@ import org.apache.oltu.jose.jws.JWS;
 
 public final class JWSWriter extends TokenWriter<JWS> {
 
+    private static final JWSHeaderWriter HEADER_WRITER = new JWSHeaderWriter();
+
     @Override
     protected String writeHeader(JWS token) {
-        return new JWSHeaderWriter().write(token.getHeader());
+        return HEADER_WRITER.write(token.getHeader());
     }
 
     @Override
@@ -16,6 +16,10 @@
  */
 package org.apache.oltu.jose.jws.signature;
 
+import java.nio.charset.Charset;
+
+import org.apache.oltu.commons.encodedtoken.Base64UrlCodec;
+
 /**
  * Common definition of OAuth signature method algorithm.
  *
@@ -26,8 +30,66 @@ public interface SignatureMethod<S extends SigningKey, V extends VerifyingKey> {
 
     String calculate(String header, String payload, S signingKey);
 
+    /**
+     * Calculate the signature of the JWS Signing Input,
+     * <code>ASCII(BASE64URL(header) || '.' || BASE64URL(payload))</code>, found
+     * in the given range of the input array.
+     *
+     * The default implementation splits the range back into the encoded header
+     * and payload and delegates to {@link #calculate(String, String, SigningKey)};
+     * implementations should override it to feed the range straight to the
+     * underlying engine.
+     *
+     * @param signingInput the array holding the JWS Signing Input.
+     * @param offset the offset of the JWS Signing Input in the array.
+     * @param length the length of the JWS Signing Input.
+     * @param signingKey the key to sign the input with.
+     * @return the base64url encoded signature.
+     */
+    default String calculate(byte[] signingInput, int offset, int length, S signingKey) {
+        String input = new String(signingInput, offset, length, Charset.forName("US-ASCII"));
+        int separator = input.indexOf('.');
+        if (separator == -1) {
+            throw new IllegalArgumentException("The JWS Signing Input must contain the header and payload separator.");
+        }
+        return calculate(input.substring(0, separator), input.substring(separator + 1), signingKey);
+    }
+
     boolean verify(String signature, String header, String payload, V verifyingKey);
 
+    /**
+     * Verify the raw signature against the JWS Signing Input,
+     * <code>ASCII(BASE64URL(header) || '.' || BASE64URL(payload))</code>, found
+     * in the given range of the input array.
+     *
+     * The default implementation rebuilds the encoded header, payload and
+     * signature and delegates to {@link #verify(String, String, String, VerifyingKey)};
+     * implementations should override it to feed the range straight to the
+     * underlying engine.
+     *
+     * @param signature the decoded signature.
+     * @param signingInput the array holding the JWS Signing Input.
+     * @param offset the offset of the JWS Signing Input in the array.
+     * @param length the length of the JWS Signing Input.
+     * @param verifyingKey the key to verify the signature with.
+     * @return true if the signature is valid, false otherwise.
+     */
+    default boolean verify(byte[] signature, byte[] signingInput, int offset, int length, V verifyingKey) {
+        if (signature == null) {
+            return false;
+        }
+
+        String input = new String(signingInput, offset, length, Charset.forName("US-ASCII"));
+        int separator = input.indexOf('.');
+        if (separator == -1) {
+            return false;
+        }
+        return verify(Base64UrlCodec.encode(signature),
+                      input.substring(0, separator),
+                      input.substring(separator + 1),
+                      verifyingKey);
+    }
+
     String getAlgorithm();
 
 }
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.jose.jws.signature.impl;
+
+/**
+ * Converts ECDSA signatures between the ASN.1 DER <code>SEQUENCE { r INTEGER, s INTEGER }</code>
+ * produced and consumed by the JCA, and the fixed length <code>R || S</code>
+ * concatenation mandated by JWS, as for
+ * <a href="http://tools.ietf.org/html/draft-ietf-jose-json-web-algorithms-21#section-3.4">section-3.4</a>.
+ */
+public final class ECDSASignatureTranscoder {
+
+    private static final byte SEQUENCE = 0x30;
+
+    private static final byte INTEGER = 0x02;
+
+    private ECDSASignatureTranscoder() {
+        // do nothing
+    }
+
+    /**
+     * Converts a DER encoded signature to its <code>R || S</code> form, each
+     * integer left-padded to {@code integerLength} bytes.
+     *
+     * @throws IllegalArgumentException if the input is not a well formed
+     *         DER ECDSA signature or an integer does not fit.
+     */
+    public static byte[] toConcatenated(byte[] der, int integerLength) {
+        if (der == null || der.length < 8 || der[0] != SEQUENCE) {
+            throw invalidSignature();
+        }
+
+        int offset;
+        int sequenceLength;
+        if (der[1] == (byte) 0x81) {
+            sequenceLength = der[2] & 0xFF;
+            offset = 3;
+        } else if (der[1] >= 0) {
+            sequenceLength = der[1];
+            offset = 2;
+        } else {
+            throw invalidSignature();
+        }
+        if (sequenceLength != der.length - offset) {
+            throw invalidSignature();
+        }
+
+        byte[] concatenated = new byte[2 * integerLength];
+        offset = readInteger(der, offset, concatenated, 0, integerLength);
+        offset = readInteger(der, offset, concatenated, integerLength, integerLength);
+        if (offset != der.length) {
+            throw invalidSignature();
+        }
+        return concatenated;
+    }
+
+    /**
+     * Converts a <code>R || S</code> signature to its DER encoded form.
+     *
+     * @throws IllegalArgumentException if the input length is not even.
+     */
+    public static byte[] toDER(byte[] concatenated) {
+        if (concatenated == null || concatenated.length == 0 || (concatenated.length & 1) != 0) {
+            throw invalidSignature();
+        }
+
+        int integerLength = concatenated.length / 2;
+        int rStart = skipLeadingZeros(concatenated, 0, integerLength);
+        int sStart = skipLeadingZeros(concatenated, integerLength, concatenated.length);
+        int rLength = integerLength - rStart + (concatenated[rStart] < 0 ? 1 : 0);
+        int sLength = concatenated.length - sStart + (concatenated[sStart] < 0 ? 1 : 0);
+
+        int sequenceLength = 2 + rLength + 2 + sLength;
+        if (sequenceLength > 0xFF) {
+            throw invalidSignature();
+        }
+        int headerLength = sequenceLength > 0x7F ? 3 : 2;
+
+        byte[] der = new byte[headerLength + sequenceLength];
+        int offset = 0;
+        der[offset++] = SEQUENCE;
+        if (headerLength == 3) {
+            der[offset++] = (byte) 0x81;
+        }
+        der[offset++] = (byte) sequenceLength;
+        offset = writeInteger(concatenated, rStart, integerLength, rLength, der, offset);
+        writeInteger(concatenated, sStart, concatenated.length, sLength, der, offset);
+        return der;
+    }
+
+    // ---------- Private methods ---------------------------------------------
+
+    private static int readInteger(byte[] der, int offset, byte[] dst, int dstOffset, int integerLength) {
+        if (offset + 2 > der.length || der[offset] != INTEGER) {
+            throw invalidSignature();
+        }
+        int length = der[offset + 1];
+        offset += 2;
+        if (length <= 0 || offset + length > der.length) {
+            throw invalidSignature();
+        }
+
+        int start = offset;
+        int end = offset + length;
+        while (start < end - 1 && der[start] == 0) {
+            start++;
+        }
+        int significant = end - start;
+        if (significant > integerLength) {
+            throw invalidSignature();
+        }
+        System.arraycopy(der, start, dst, dstOffset + integerLength - significant, significant);
+        return end;
+    }
+
+    private static int writeInteger(byte[] src, int start, int end, int length, byte[] der, int offset) {
+        der[offset++] = INTEGER;
+        der[offset++] = (byte) length;
+        if (length > end - start) {
+            der[offset++] = 0;
+        }
+        System.arraycopy(src, start, der, offset, end - start);
+        return offset + end - start;
+    }
+
+    private static int skipLeadingZeros(byte[] bytes, int start, int end) {
+        while (start < end - 1 && bytes[start] == 0) {
+            start++;
+        }
+        return start;
+    }
+
+    private static IllegalArgumentException invalidSignature() {
+        return new IllegalArgumentException("Invalid ECDSA signature format");
+    }
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.jose.jws.signature.impl;
+
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Per-thread cache of initialized {@link Mac} and {@link Signature} engines,
+ * keyed by JCA algorithm name and key: raw secrets are matched by content,
+ * and copied when cached so that a secret overwritten in place by its owner
+ * is not matched anymore, while public and private keys, which are
+ * immutable, are matched by identity.
+ *
+ * A JCA engine returns to its freshly initialized state after
+ * {@code doFinal()}, {@code sign()} or {@code verify()}, so an engine bound
+ * to a key can be reused for the next operation with the same key without
+ * going through provider resolution and key setup again. Engines are not
+ * thread-safe, hence each thread holds its own small LRU set; callers must
+ * {@link #evict(Object)} an engine whose operation failed, since its state
+ * is then undefined.
+ *
+ * The engines live as long as their thread: in a servlet container, pooled
+ * threads keep the engines, and their classes, of an undeployed web
+ * application reachable until the threads die, which may delay the
+ * collection of its classloader.
+ */
+final class JcaEngines {
+
+    /**
+     * Upper bound of cached engines per thread, keeps the footprint small
+     * when keys are rotated.
+     */
+    private static final int MAX_ENGINES_PER_THREAD = 16;
+
+    private static final int MAC = 0;
+
+    private static final int SIGN = 1;
+
+    private static final int VERIFY = 2;
+
+    private static final ThreadLocal<Engines> ENGINES = new ThreadLocal<Engines>() {
+
+        @Override
+        protected Engines initialValue() {
+            return new Engines();
+        }
+
+    };
+
+    private JcaEngines() {
+        // do nothing
+    }
+
+    /**
+     * Returns a {@link Mac} initialized with the given raw secret.
+     */
+    public static Mac getMac(String algorithm, byte[] key) throws GeneralSecurityException {
+        Engines engines = ENGINES.get();
+        Object engine = engines.lookup(MAC, algorithm, key);
+        if (engine == null) {
+            Mac mac = Mac.getInstance(algorithm);
+            mac.init(new SecretKeySpec(key, algorithm));
+            engines.store(MAC, algorithm, key, mac);
+            return mac;
+        }
+        return (Mac) engine;
+    }
+
+    /**
+     * Returns a {@link Signature} initialized for signing with the given key.
+     */
+    public static Signature getSigner(String algorithm, java.security.PrivateKey key) throws GeneralSecurityException {
+        Engines engines = ENGINES.get();
+        Object engine = engines.lookup(SIGN, algorithm, key);
+        if (engine == null) {
+            Signature signature = Signature.getInstance(algorithm);
+            signature.initSign(key);
+            engines.store(SIGN, algorithm, key, signature);
+            return signature;
+        }
+        return (Signature) engine;
+    }
+
+    /**
+     * Returns a {@link Signature} initialized for verification with the given key.
+     */
+    public static Signature getVerifier(String algorithm, java.security.PublicKey key) throws GeneralSecurityException {
+        Engines engines = ENGINES.get();
+        Object engine = engines.lookup(VERIFY, algorithm, key);
+        if (engine == null) {
+            Signature signature = Signature.getInstance(algorithm);
+            signature.initVerify(key);
+            engines.store(VERIFY, algorithm, key, signature);
+            return signature;
+        }
+        return (Signature) engine;
+    }
+
+    /**
+     * Drops the given engine from the current thread cache, if present.
+     */
+    public static void evict(Object engine) {
+        ENGINES.get().values().remove(engine);
+    }
+
+    private static final class Engines extends LinkedHashMap<EngineKey, Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Mutable key reused for lookups, so that hits do not allocate.
+         */
+        private final EngineKey probe = new EngineKey();
+
+        Engines() {
+            super(MAX_ENGINES_PER_THREAD, 0.75f, true);
+        }
+
+        Object lookup(int mode, String algorithm, Object key) {
+            probe.set(mode, algorithm, key);
+            try {
+                return get(probe);
+            } finally {
+                probe.set(0, null, null);
+            }
+        }
+
+        void store(int mode, String algorithm, Object key, Object engine) {
+            EngineKey engineKey = new EngineKey();
+            // the owner of a raw secret may overwrite it later
+            engineKey.set(mode, algorithm, key instanceof byte[] ? ((byte[]) key).clone() : key);
+            put(engineKey, engine);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<EngineKey, Object> eldest) {
+            return size() > MAX_ENGINES_PER_THREAD;
+        }
+
+    }
+
+    private static final class EngineKey {
+
+        private int mode;
+
+        private String algorithm;
+
+        private Object key;
+
+        private int keyHash;
+
+        void set(int mode, String algorithm, Object key) {
+            this.mode = mode;
+            this.algorithm = algorithm;
+            this.key = key;
+            this.keyHash = key instanceof byte[] ? Arrays.hashCode((byte[]) key) : System.identityHashCode(key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * mode + algorithm.hashCode()) + keyHash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof EngineKey)) {
+                return false;
+            }
+            EngineKey other = (EngineKey) obj;
+            return mode == other.mode
+                    && sameKey(key, other.key)
+                    && algorithm.equals(other.algorithm);
+        }
+
+        private static boolean sameKey(Object key, Object other) {
+            if (key instanceof byte[] && other instanceof byte[]) {
+                return Arrays.equals((byte[]) key, (byte[]) other);
+            }
+            return key == other;
+        }
+
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.jose.jws.signature.impl;
+
+import java.security.Key;
+import java.security.Signature;
+import java.security.interfaces.ECKey;
+
+import org.apache.oltu.commons.encodedtoken.Base64UrlCodec;
+import org.apache.oltu.jose.jws.JWSConstants;
+import org.apache.oltu.jose.jws.signature.SignatureMethod;
+
+/**
+ * Class that asymmetrically sign and verify the issued token using the
+ * <code>ES256</code>, <code>ES384</code> or <code>ES512</code> algorithm, as for
+ * <a href="http://tools.ietf.org/html/draft-ietf-jose-json-web-algorithms-21#section-3.4">section-3.4</a>.
+ *
+ * Keys are plain {@link PrivateKey}/{@link PublicKey} wrappers around JCA EC
+ * keys, which must be on the curve matching the algorithm (P-256, P-384 or P-521).
+ */
+public class SignatureMethodECDSAImpl implements SignatureMethod<PrivateKey, PublicKey> {
+
+    private final String algorithm;
+
+    private final String signatureAlgorithm;
+
+    /**
+     * Length in bytes of each of the R and S integers.
+     */
+    private final int integerLength;
+
+    /**
+     * Bit length of the curve order.
+     */
+    private final int orderBits;
+
+    public SignatureMethodECDSAImpl(String algorithm) {
+        if (JWSConstants.ES256.equals(algorithm)) {
+            signatureAlgorithm = "SHA256withECDSA";
+            orderBits = 256;
+        } else if (JWSConstants.ES384.equals(algorithm)) {
+            signatureAlgorithm = "SHA384withECDSA";
+            orderBits = 384;
+        } else if (JWSConstants.ES512.equals(algorithm)) {
+            signatureAlgorithm = "SHA512withECDSA";
+            orderBits = 521;
+        } else {
+            throw new IllegalArgumentException("Unsupported ECDSA algorithm: " + algorithm);
+        }
+        this.algorithm = algorithm;
+        this.integerLength = (orderBits + 7) / 8;
+    }
+
+    /**
+     * Calculate the signature of given header.payload as for
+     * <a href="http://tools.ietf.org/html/draft-ietf-jose-json-web-signature-21#appendix-A.3.1">appendix-A.3.1</a>
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public String calculate(String header, String payload, PrivateKey signingKey) {
+        byte[] signingInput = SigningInput.toBytes(header, payload);
+        return calculate(signingInput, 0, signingInput.length, signingKey);
+    }
+
+    @Override
+    public String calculate(byte[] signingInput, int offset, int length, PrivateKey signingKey) {
+        if (!acceptKey(signingKey.getPrivateKey())) {
+            throw new IllegalArgumentException("Signing key is not an EC key suitable for " + algorithm);
+        }
+
+        Signature signature = null;
+        byte[] token;
+        try {
+            signature = JcaEngines.getSigner(signatureAlgorithm, signingKey.getPrivateKey());
+            signature.update(signingInput, offset, length);
+            token = signature.sign();
+        } catch (Exception e) {
+            JcaEngines.evict(signature);
+            throw new RuntimeException(e);
+        }
+
+        return Base64UrlCodec.encode(ECDSASignatureTranscoder.toConcatenated(token, integerLength));
+    }
+
+    /**
+     * Verify the signature of given header.payload as for
+     * <a href="http://tools.ietf.org/html/draft-ietf-jose-json-web-signature-21#appendix-A.3.2">appendix-A.3.2</a>
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean verify(String signature, String header, String payload, PublicKey verifyingKey) {
+        if (signature == null) {
+            return false;
+        }
+
+        byte[] decoded;
+        try {
+            decoded = Base64UrlCodec.decode(signature);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        byte[] token = SigningInput.toBytes(header, payload);
+        return verify(decoded, token, 0, token.length, verifyingKey);
+    }
+
+    @Override
+    public boolean verify(byte[] signature, byte[] signingInput, int offset, int length, PublicKey verifyingKey) {
+        if (signature == null
+                || signature.length != 2 * integerLength
+                || !acceptKey(verifyingKey.getPublicKey())) {
+            return false;
+        }
+
+        byte[] der;
+        try {
+            der = ECDSASignatureTranscoder.toDER(signature);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        Signature sign = null;
+        try {
+            sign = JcaEngines.getVerifier(signatureAlgorithm, verifyingKey.getPublicKey());
+            sign.update(signingInput, offset, length);
+
+            return sign.verify(der);
+        } catch (Exception e) {
+            JcaEngines.evict(sign);
+            return false;
+        }
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    // ---------- Private methods ---------------------------------------------
+
+    private boolean acceptKey(Key key) {
+        return key instanceof ECKey
+                && ((ECKey) key).getParams().getOrder().bitLength() == orderBits;
+    }
+
+}
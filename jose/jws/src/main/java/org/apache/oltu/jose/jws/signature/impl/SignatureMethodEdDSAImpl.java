@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.jose.jws.signature.impl;
+
+import java.security.Key;
+import java.security.Signature;
+
+import org.apache.oltu.commons.encodedtoken.Base64UrlCodec;
+import org.apache.oltu.jose.jws.JWSConstants;
+import org.apache.oltu.jose.jws.signature.SignatureMethod;
+
+/**
+ * Class that asymmetrically sign and verify the issued token using the
+ * <code>EdDSA</code> algorithm over the Ed25519 curve, as for
+ * <a href="http://tools.ietf.org/html/rfc8037#section-3.1">RFC 8037 section-3.1</a>.
+ *
+ * Relies on the JDK EdDSA provider, available since Java 15; keys are plain
+ * {@link PrivateKey}/{@link PublicKey} wrappers around JCA Ed25519 keys.
+ */
+public class SignatureMethodEdDSAImpl implements SignatureMethod<PrivateKey, PublicKey> {
+
+    private static final String SIGNATURE_ALGORITHM = "Ed25519";
+
+    private static final int SIGNATURE_LENGTH = 64;
+
+    /**
+     * Calculate the signature of given header.payload as for
+     * <a href="http://tools.ietf.org/html/rfc8037#appendix-A.4">RFC 8037 appendix-A.4</a>
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public String calculate(String header, String payload, PrivateKey signingKey) {
+        byte[] signingInput = SigningInput.toBytes(header, payload);
+        return calculate(signingInput, 0, signingInput.length, signingKey);
+    }
+
+    @Override
+    public String calculate(byte[] signingInput, int offset, int length, PrivateKey signingKey) {
+        if (!acceptKey(signingKey.getPrivateKey())) {
+            throw new IllegalArgumentException("Signing key is not an Ed25519 key");
+        }
+
+        Signature signature = null;
+        byte[] token;
+        try {
+            signature = JcaEngines.getSigner(SIGNATURE_ALGORITHM, signingKey.getPrivateKey());
+            signature.update(signingInput, offset, length);
+            token = signature.sign();
+        } catch (Exception e) {
+            JcaEngines.evict(signature);
+            throw new RuntimeException(e);
+        }
+
+        return Base64UrlCodec.encode(token);
+    }
+
+    /**
+     * Verify the signature of given header.payload as for
+     * <a href="http://tools.ietf.org/html/rfc8037#appendix-A.5">RFC 8037 appendix-A.5</a>
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean verify(String signature, String header, String payload, PublicKey verifyingKey) {
+        if (signature == null) {
+            return false;
+        }
+
+        byte[] decoded;
+        try {
+            decoded = Base64UrlCodec.decode(signature);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        byte[] token = SigningInput.toBytes(header, payload);
+        return verify(decoded, token, 0, token.length, verifyingKey);
+    }
+
+    @Override
+    public boolean verify(byte[] signature, byte[] signingInput, int offset, int length, PublicKey verifyingKey) {
+        if (signature == null
+                || signature.length != SIGNATURE_LENGTH
+                || !acceptKey(verifyingKey.getPublicKey())) {
+            return false;
+        }
+
+        Signature sign = null;
+        try {
+            sign = JcaEngines.getVerifier(SIGNATURE_ALGORITHM, verifyingKey.getPublicKey());
+            sign.update(signingInput, offset, length);
+
+            return sign.verify(signature);
+        } catch (Exception e) {
+            JcaEngines.evict(sign);
+            return false;
+        }
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return JWSConstants.EdDSA;
+    }
+
+    // ---------- Private methods ---------------------------------------------
+
+    private static boolean acceptKey(Key key) {
+        return key != null
+                && ("Ed25519".equals(key.getAlgorithm()) || "EdDSA".equals(key.getAlgorithm()));
+    }
+
+}
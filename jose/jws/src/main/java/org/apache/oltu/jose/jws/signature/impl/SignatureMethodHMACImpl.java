@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.jose.jws.signature.impl;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+import javax.crypto.Mac;
+
+import org.apache.oltu.commons.encodedtoken.Base64UrlCodec;
+import org.apache.oltu.jose.jws.JWSConstants;
+import org.apache.oltu.jose.jws.signature.SignatureMethod;
+
+/**
+ * Class that symmetrically sign and verify the issued token using the
+ * <code>HS256</code>, <code>HS384</code> or <code>HS512</code> algorithm, as for
+ * <a href="http://tools.ietf.org/html/draft-ietf-jose-json-web-algorithms-21#section-3.2">section-3.2</a>.
+ */
+public class SignatureMethodHMACImpl implements SignatureMethod<SymmetricKeyImpl, SymmetricKeyImpl> {
+
+    private final String algorithm;
+
+    private final String macAlgorithm;
+
+    public SignatureMethodHMACImpl(String algorithm) {
+        if (JWSConstants.HS256.equals(algorithm)) {
+            macAlgorithm = "HmacSHA256";
+        } else if (JWSConstants.HS384.equals(algorithm)) {
+            macAlgorithm = "HmacSHA384";
+        } else if (JWSConstants.HS512.equals(algorithm)) {
+            macAlgorithm = "HmacSHA512";
+        } else {
+            throw new IllegalArgumentException("Unsupported HMAC algorithm: " + algorithm);
+        }
+        this.algorithm = algorithm;
+    }
+
+    @Override
+    public String calculate(String header, String payload, SymmetricKeyImpl signingKey) {
+        byte[] signingInput = SigningInput.toBytes(header, payload);
+        return calculate(signingInput, 0, signingInput.length, signingKey);
+    }
+
+    @Override
+    public String calculate(byte[] signingInput, int offset, int length, SymmetricKeyImpl signingKey) {
+        return Base64UrlCodec.encode(sign(signingInput, offset, length, signingKey));
+    }
+
+    /**
+     * Verify the given signature decoding it once and comparing the raw MAC
+     * bytes in constant time.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean verify(String signature, String header, String payload, SymmetricKeyImpl verifyingKey) {
+        if (signature == null) {
+            return false;
+        }
+
+        byte[] presented;
+        try {
+            presented = Base64UrlCodec.decode(signature);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        byte[] signingInput = SigningInput.toBytes(header, payload);
+        return verify(presented, signingInput, 0, signingInput.length, verifyingKey);
+    }
+
+    @Override
+    public boolean verify(byte[] signature,
+                          byte[] signingInput,
+                          int offset,
+                          int length,
+                          SymmetricKeyImpl verifyingKey) {
+        if (signature == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(signature, sign(signingInput, offset, length, verifyingKey));
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    // ---------- Private methods ---------------------------------------------
+
+    private byte[] sign(byte[] signingInput, int offset, int length, SymmetricKeyImpl key) {
+        Mac mac;
+        try {
+            mac = JcaEngines.getMac(macAlgorithm, key.getKey());
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException(e);
+        }
+
+        try {
+            mac.update(signingInput, offset, length);
+            return mac.doFinal();
+        } catch (RuntimeException e) {
+            JcaEngines.evict(mac);
+            throw e;
+        }
+    }
+
+}
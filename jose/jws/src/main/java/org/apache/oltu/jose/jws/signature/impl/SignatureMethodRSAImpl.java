@@ -17,7 +17,7 @@
 package org.apache.oltu.jose.jws.signature.impl;
 
 import java.security.Signature;
-import org.apache.oltu.commons.encodedtoken.TokenDecoder;
+import org.apache.oltu.commons.encodedtoken.Base64UrlCodec;
 import org.apache.oltu.jose.jws.JWSConstants;
 import org.apache.oltu.jose.jws.signature.SignatureMethod;
 
@@ -40,16 +40,21 @@ public class SignatureMethodRSAImpl implements SignatureMethod<PrivateKey, Publi
      */
     @Override
     public String calculate(String header, String payload, PrivateKey signingKey) {
-        byte[] token = toToken(header, payload);
-        try {
-            Signature signature = Signature.getInstance(getAlgorithmInternal());
+        byte[] signingInput = SigningInput.toBytes(header, payload);
+        return calculate(signingInput, 0, signingInput.length, signingKey);
+    }
 
-            signature.initSign(signingKey.getPrivateKey());
-            signature.update(token);
-            token = signature.sign();
+    @Override
+    public String calculate(byte[] signingInput, int offset, int length, PrivateKey signingKey) {
+        Signature signature = null;
+        try {
+            signature = JcaEngines.getSigner(getAlgorithmInternal(), signingKey.getPrivateKey());
+            signature.update(signingInput, offset, length);
+            byte[] token = signature.sign();
 
-            return TokenDecoder.base64Encode(token);
+            return Base64UrlCodec.encode(token);
         } catch (Exception e) {
+            JcaEngines.evict(signature);
             throw new RuntimeException(e);
         }
     }
@@ -62,14 +67,27 @@ public class SignatureMethodRSAImpl implements SignatureMethod<PrivateKey, Publi
      */
     @Override
     public boolean verify(String signature, String header, String payload, PublicKey verifyingKey) {
-        byte[] token = toToken(header, payload);
+        byte[] decoded;
+        try {
+            decoded = Base64UrlCodec.decode(signature);
+        } catch (Exception e) {
+            return false;
+        }
+
+        byte[] token = SigningInput.toBytes(header, payload);
+        return verify(decoded, token, 0, token.length, verifyingKey);
+    }
+
+    @Override
+    public boolean verify(byte[] signature, byte[] signingInput, int offset, int length, PublicKey verifyingKey) {
+        Signature sign = null;
         try {
-            Signature sign = Signature.getInstance(getAlgorithmInternal());
-            sign.initVerify(verifyingKey.getPublicKey());
-            sign.update(token);
+            sign = JcaEngines.getVerifier(getAlgorithmInternal(), verifyingKey.getPublicKey());
+            sign.update(signingInput, offset, length);
 
-            return sign.verify(decode(signature));
+            return sign.verify(signature);
         } catch (Exception e) {
+            JcaEngines.evict(sign);
             return false;
         }
     }
@@ -81,15 +99,6 @@ public class SignatureMethodRSAImpl implements SignatureMethod<PrivateKey, Publi
 
     // ---------- Private methods ---------------------------------------------
 
-    private static byte[] toToken(String header, String payload) {
-        return new StringBuilder()
-               .append(header)
-               .append(".")
-               .append(payload)
-               .toString()
-               .getBytes();
-    }
-
     private String getAlgorithmInternal() {
         String alg = null;
         if (JWSConstants.RS256.equals(algorithm)) {
@@ -102,29 +111,4 @@ public class SignatureMethodRSAImpl implements SignatureMethod<PrivateKey, Publi
         return alg;
     }
 
-    private static byte[] decode(String arg) throws Exception {
-        String s = arg;
-        s = s.replace('-', '+'); // 62nd char of encoding
-        s = s.replace('_', '/'); // 63rd char of encoding
-
-        switch (s.length() % 4) // Pad with trailing '='s
-        {
-          case 0: // No pad chars in this case
-              break;
-
-          case 2: // Two pad chars
-              s += "==";
-              break;
-
-          case 3: // One pad char
-              s += "=";
-              break;
-
-          default:
-              throw new Exception("Illegal base64url string!");
-        }
-
-        return TokenDecoder.base64DecodeToByte(s);
-    }
-
 }
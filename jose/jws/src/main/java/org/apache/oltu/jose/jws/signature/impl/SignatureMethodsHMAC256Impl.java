@@ -16,49 +16,15 @@
  */
 package org.apache.oltu.jose.jws.signature.impl;
 
-import java.security.InvalidKeyException;
-import java.security.NoSuchAlgorithmException;
-
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
-
-import org.apache.oltu.commons.encodedtoken.TokenDecoder;
 import org.apache.oltu.jose.jws.JWSConstants;
-import org.apache.oltu.jose.jws.signature.SignatureMethod;
-
-public class SignatureMethodsHMAC256Impl implements SignatureMethod<SymmetricKeyImpl, SymmetricKeyImpl> {
-
-    @Override
-    public String calculate(String header, String payload, SymmetricKeyImpl signingKey) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(header).append(".").append(payload);
-        String stringToSign = sb.toString();
-        byte[] bytes = stringToSign.getBytes();
-
-        try {
-            Mac mac = Mac.getInstance("HMACSHA256");
-            mac.init(new SecretKeySpec(signingKey.getKey(), mac.getAlgorithm()));
-            mac.update(bytes);
-            bytes = mac.doFinal();
 
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException(e);
-        } catch (InvalidKeyException e) {
-            throw new RuntimeException(e);
-        }
-
-        return TokenDecoder.base64Encode(bytes);
-    }
-
-    @Override
-    public boolean verify(String signature, String header, String payload, SymmetricKeyImpl verifyingKey) {
-        String signed = calculate(header, payload, verifyingKey);
-        return signed.equals(signature);
-    }
+/**
+ * <code>HS256</code> shortcut of {@link SignatureMethodHMACImpl}.
+ */
+public class SignatureMethodsHMAC256Impl extends SignatureMethodHMACImpl {
 
-    @Override
-    public String getAlgorithm() {
-        return JWSConstants.HS256;
+    public SignatureMethodsHMAC256Impl() {
+        super(JWSConstants.HS256);
     }
 
 }
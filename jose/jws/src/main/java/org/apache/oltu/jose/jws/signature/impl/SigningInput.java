@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.jose.jws.signature.impl;
+
+/**
+ * Builds the JWS Signing Input, <code>ASCII(BASE64URL(header) || '.' || BASE64URL(payload))</code>,
+ * as for <a href="http://tools.ietf.org/html/draft-ietf-jose-json-web-signature-21#section-5.1">section-5.1</a>.
+ */
+final class SigningInput {
+
+    private SigningInput() {
+        // do nothing
+    }
+
+    /**
+     * Serializes <code>header.payload</code>; both are base64url encoded, so
+     * ASCII characters are copied straight into the buffer.
+     */
+    public static byte[] toBytes(String header, String payload) {
+        int headerLength = header.length();
+        int payloadLength = payload.length();
+        byte[] token = new byte[headerLength + 1 + payloadLength];
+
+        for (int i = 0; i < headerLength; i++) {
+            char c = header.charAt(i);
+            if (c > 0x7F) {
+                return (header + '.' + payload).getBytes();
+            }
+            token[i] = (byte) c;
+        }
+        token[headerLength] = '.';
+        for (int i = 0, j = headerLength + 1; i < payloadLength; i++, j++) {
+            char c = payload.charAt(i);
+            if (c > 0x7F) {
+                return (header + '.' + payload).getBytes();
+            }
+            token[j] = (byte) c;
+        }
+
+        return token;
+    }
+
+}
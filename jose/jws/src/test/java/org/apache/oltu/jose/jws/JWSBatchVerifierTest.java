@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.jose.jws;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.oltu.commons.encodedtoken.Base64UrlCodec;
+import org.apache.oltu.jose.jws.JWSBatchVerifier.Result;
+import org.apache.oltu.jose.jws.JWSBatchVerifier.Status;
+import org.apache.oltu.jose.jws.io.JWSReader;
+import org.apache.oltu.jose.jws.io.JWSWriter;
+import org.apache.oltu.jose.jws.signature.impl.PrivateKey;
+import org.apache.oltu.jose.jws.signature.impl.PublicKey;
+import org.apache.oltu.jose.jws.signature.impl.SignatureMethodHMACImpl;
+import org.apache.oltu.jose.jws.signature.impl.SignatureMethodRSAImpl;
+import org.apache.oltu.jose.jws.signature.impl.SymmetricKeyImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class JWSBatchVerifierTest {
+
+    private final SignatureMethodHMACImpl hs256 = new SignatureMethodHMACImpl(JWSConstants.HS256);
+
+    private final SignatureMethodRSAImpl rs256 = new SignatureMethodRSAImpl(JWSConstants.RS256);
+
+    private final SymmetricKeyImpl key1 = new SymmetricKeyImpl("key-1-secret-key-1-secret-key-1-".getBytes());
+
+    private final SymmetricKeyImpl key2 = new SymmetricKeyImpl("key-2-secret-key-2-secret-key-2-".getBytes());
+
+    private KeyPair rsaKeyPair;
+
+    private JWSBatchVerifier verifier;
+
+    @Before
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(1024);
+        rsaKeyPair = generator.generateKeyPair();
+
+        verifier = new JWSBatchVerifier.Builder()
+                   .addKey("k1", hs256, key1)
+                   .addKey("k2", hs256, key2)
+                   .addKey(rs256, new PublicKey(rsaKeyPair.getPublic()))
+                   .build();
+    }
+
+    @Test
+    public void testVerify() {
+        String k1Token = hmac("k1", key1, "{\"n\":1}");
+        String tampered = k1Token.substring(0, k1Token.length() - 2) + (k1Token.endsWith("AA") ? "BB" : "AA");
+        List<String> tokens = Arrays.asList(k1Token,
+                                            hmac("k2", key2, "{\"n\":2}"),
+                                            hmac("k2", key1, "{\"n\":3}"),
+                                            hmac("k3", key1, "{\"n\":4}"),
+                                            rsa("any", "{\"n\":5}"),
+                                            tampered,
+                                            "not.a-token",
+                                            null);
+
+        List<Result> results = verifier.verify(tokens);
+
+        assertEquals(tokens.size(), results.size());
+        assertStatus(results, Status.VALID, Status.VALID, Status.INVALID_SIGNATURE, Status.UNKNOWN_KEY,
+                     Status.VALID, Status.INVALID_SIGNATURE, Status.MALFORMED, Status.MALFORMED);
+        assertSame(k1Token, results.get(0).getToken());
+        assertEquals("{\"n\":1}", results.get(0).getJWS().getPayload());
+        assertNull(results.get(6).getJWS());
+        assertNotNull(results.get(6).getError());
+    }
+
+    @Test
+    public void testVerifyOnPool() {
+        List<String> tokens = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            tokens.add(hmac(i % 2 == 0 ? "k1" : "k2", i % 7 == 0 ? key2 : key1, "{\"n\":" + i + "}"));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Result> results = verifier.verify(tokens, pool);
+            List<Result> sequential = verifier.verify(tokens);
+
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean valid = (i % 2 == 0) == (i % 7 != 0);
+                assertEquals("token " + i, valid, results.get(i).isValid());
+                assertEquals("token " + i, sequential.get(i).getStatus(), results.get(i).getStatus());
+                assertSame(tokens.get(i), results.get(i).getToken());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testAlgorithmCaseIgnored() {
+        String header = Base64UrlCodec.encode("{\"alg\":\"hs256\",\"kid\":\"k1\"}".getBytes());
+        String payload = Base64UrlCodec.encode("{\"n\":1}".getBytes());
+        String token = header + '.' + payload + '.' + hs256.calculate(header, payload, key1);
+
+        assertTrue(new JWSReader().read(token).validate(hs256, key1));
+        assertStatus(verifier.verify(Arrays.asList(token)), Status.VALID);
+    }
+
+    private String hmac(String keyId, SymmetricKeyImpl key, String payload) {
+        return new JWSWriter().write(new JWS.Builder()
+                                     .setKeyId(keyId)
+                                     .setPayload(payload)
+                                     .sign(hs256, key)
+                                     .build());
+    }
+
+    private String rsa(String keyId, String payload) {
+        return new JWSWriter().write(new JWS.Builder()
+                                     .setKeyId(keyId)
+                                     .setPayload(payload)
+                                     .sign(rs256, new PrivateKey(rsaKeyPair.getPrivate()))
+                                     .build());
+    }
+
+    private static void assertStatus(List<Result> results, Status... expected) {
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals("token " + i, expected[i], results.get(i).getStatus());
+        }
+    }
+
+}
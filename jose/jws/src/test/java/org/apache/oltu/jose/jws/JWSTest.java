@@ -26,9 +26,12 @@ import java.security.spec.RSAPublicKeySpec;
 
 import org.apache.oltu.commons.encodedtoken.TokenDecoder;
 import org.apache.oltu.jose.jws.io.JWSReader;
+import org.apache.oltu.jose.jws.io.JWSWriter;
 import org.apache.oltu.jose.jws.signature.SignatureMethod;
 import org.apache.oltu.jose.jws.signature.impl.PublicKey;
+import org.apache.oltu.jose.jws.signature.impl.SignatureMethodHMACImpl;
 import org.apache.oltu.jose.jws.signature.impl.SignatureMethodRSAImpl;
+import org.apache.oltu.jose.jws.signature.impl.SymmetricKeyImpl;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -233,4 +236,64 @@ public class JWSTest {
         Assert.assertTrue(jws.validate(signatureMethod, new PublicKey(rsaPublicKey)));
     }
 
+    @Test
+    public void testValidateReadToken() {
+        SignatureMethodHMACImpl method = new SignatureMethodHMACImpl(JWSConstants.HS512);
+        SymmetricKeyImpl key = new SymmetricKeyImpl("supercalifragilistichespiralidoso1234567890".getBytes());
+
+        String token = new JWSWriter().write(new JWS.Builder()
+                                             .setType("JWT")
+                                             .setPayload("{\"iss\":\"joe\"}")
+                                             .sign(method, key)
+                                             .build());
+        Assert.assertTrue(new JWSReader().read(token).validate(method, key));
+
+        // multi-line serialization, offsets refer to the compacted token
+        String multiLine = token.substring(0, 10) + "\r\n " + token.substring(10, 40) + "\n" + token.substring(40);
+        Assert.assertTrue(new JWSReader().read(multiLine).validate(method, key));
+
+        // the token read from its raw string, without the retained offsets
+        JWS jws = new JWS.Builder(token)
+                  .setAlgorithm(JWSConstants.HS512)
+                  .setPayload("{\"iss\":\"joe\"}")
+                  .setSignature(token.substring(token.lastIndexOf('.') + 1))
+                  .build();
+        Assert.assertTrue(jws.validate(method, key));
+
+        int separator = token.indexOf('.');
+        String tampered = token.substring(0, separator + 1) + "eyJpc3MiOiJib2IifQ" + token.substring(token.lastIndexOf('.'));
+        Assert.assertFalse(new JWSReader().read(tampered).validate(method, key));
+
+        String truncated = token.substring(0, token.length() - 3);
+        Assert.assertFalse(new JWSReader().read(truncated).validate(method, key));
+    }
+
+    @Test
+    public void testSignWithHeaderTemplate() {
+        SignatureMethodHMACImpl method = new SignatureMethodHMACImpl(JWSConstants.HS256);
+        SymmetricKeyImpl key = new SymmetricKeyImpl("supercalifragilistichespiralidoso1234567890".getBytes());
+
+        JWSHeaderTemplate<SymmetricKeyImpl, SymmetricKeyImpl> template = new JWS.Builder()
+                                                                         .setType("JWT")
+                                                                         .setKeyId("key-1")
+                                                                         .buildHeaderTemplate(method, key);
+        Assert.assertEquals(JWSConstants.HS256, template.getHeader().getAlgorithm());
+
+        for (String payload : new String[] { "{\"iss\":\"joe\"}", "{\"sub\":\"caf\u00e9\"}" }) {
+            String expected = new JWSWriter().write(new JWS.Builder()
+                                                    .setType("JWT")
+                                                    .setKeyId("key-1")
+                                                    .setPayload(payload)
+                                                    .sign(method, key)
+                                                    .build());
+            String token = template.sign(payload);
+            Assert.assertEquals(expected, token);
+            Assert.assertTrue(token.startsWith(template.getEncodedHeader() + '.'));
+
+            JWS jws = new JWSReader().read(token);
+            Assert.assertEquals(payload, jws.getPayload());
+            Assert.assertTrue(jws.validate(method, key));
+        }
+    }
+
 }
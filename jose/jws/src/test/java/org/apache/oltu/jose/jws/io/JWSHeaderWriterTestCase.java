@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.jose.jws.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.apache.oltu.commons.json.CustomizableEntityWriter;
+import org.apache.oltu.jose.jws.Header;
+import org.apache.oltu.jose.jws.JWS;
+import org.junit.Test;
+
+public final class JWSHeaderWriterTestCase {
+
+    private static final String EXPECTED = "{\"alg\":\"HS256\",\"typ\":\"JWT\",\"crit\":[\"exp\"]}";
+
+    private final JWSHeaderWriter headerWriter = new JWSHeaderWriter();
+
+    private final Header header = new JWS.Builder()
+                                         .setAlgorithm("HS256")
+                                         .setType("JWT")
+                                         .setCritical(new String[]{ "exp" })
+                                         .setPayload("")
+                                         .build()
+                                         .getHeader();
+
+    @Test
+    public void reusable() {
+        assertEquals(EXPECTED, headerWriter.write(header));
+        assertEquals(EXPECTED, headerWriter.write(header));
+    }
+
+    @Test
+    public void writeToAppendable() {
+        StringBuilder builder = new StringBuilder("header=");
+        headerWriter.write(header, builder);
+        headerWriter.write(header, builder);
+        assertEquals("header=" + EXPECTED + EXPECTED, builder.toString());
+    }
+
+    @Test
+    public void writeToOutputStream() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+
+            @Override
+            public void close() {
+                throw new IllegalStateException("The caller stream must be left open");
+            }
+
+        };
+        headerWriter.write(header, outputStream);
+        outputStream.write('.');
+        assertEquals(EXPECTED + '.', outputStream.toString("UTF-8"));
+    }
+
+    @Test
+    public void toByteArray() throws IOException {
+        assertArrayEquals(EXPECTED.getBytes("UTF-8"), headerWriter.toByteArray(header));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void legacySubclass() {
+        // written against the previous API: overrides handleProperties(CE) and uses the instance set helpers
+        CustomizableEntityWriter<Header> legacyWriter = new CustomizableEntityWriter<Header>() {
+
+            @Override
+            protected void handleProperties(Header header) {
+                set("alg", header.getAlgorithm());
+                set("typ", header.getType());
+                set("crit", header.getCritical());
+            }
+
+        };
+        assertEquals(EXPECTED, legacyWriter.write(header));
+        assertEquals(EXPECTED, legacyWriter.write(header));
+    }
+
+}
@@ -19,6 +19,12 @@ package org.apache.oltu.jose.jws.io;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.oltu.commons.encodedtoken.Base64UrlCodec;
+import org.apache.oltu.commons.json.CustomizableEntityReader;
 import org.apache.oltu.jose.jws.JWS;
 import org.junit.Test;
 
@@ -37,4 +43,35 @@ public final class JWSReaderTestCase {
         assertEquals("dBjftO-_ve-_ve-_vSVP77-9YH3Yre-_ve-_vRbvv70lTWnWv--_vVtYBVhT77-977-9eQ", jws.getSignature());
     }
 
+    @Test
+    public void parseDuplicateHeaderParameters() {
+        JWS jws = reader.read(token("{\"alg\":\"HS256\",\"kid\":\"k1\",\"alg\":\"RS256\"}"));
+
+        assertEquals("RS256", jws.getHeader().getAlgorithm());
+        assertEquals("k1", jws.getHeader().getKeyId());
+
+        // each property is notified once, at its first position, with its last value
+        final List<String> notified = new ArrayList<String>();
+        new CustomizableEntityReader<JWS, JWS.Builder>(new JWS.Builder()) {
+
+            @Override
+            protected <T> boolean handleProperty(String key, T value) {
+                notified.add(key + "=" + value);
+                return true;
+            }
+
+        }.read("{\"a\":1,\"b\":2,\"a\":3}");
+        assertEquals(Arrays.asList("a=3", "b=2"), notified);
+    }
+
+    // rejected by the JSON-P provider, or by the reader when the provider doesn't check what follows
+    @Test(expected = RuntimeException.class)
+    public void parseTrailingContent() {
+        reader.read(token("{\"alg\":\"HS256\"}garbage"));
+    }
+
+    private static String token(String header) {
+        return Base64UrlCodec.encode(header.getBytes()) + ".eyJpc3MiOiJqb2UifQ.c2lnbmF0dXJl";
+    }
+
 }
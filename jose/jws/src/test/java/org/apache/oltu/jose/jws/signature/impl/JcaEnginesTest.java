@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.jose.jws.signature.impl;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.util.Arrays;
+
+import javax.crypto.Mac;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class JcaEnginesTest {
+
+    private final byte[] message = "eyJhbGciOiJIUzI1NiJ9.eyJpc3MiOiJqb2UifQ".getBytes();
+
+    @Test
+    public void testMacReusedPerKey() throws Exception {
+        byte[] key = "0123456789abcdef0123456789abcdef".getBytes();
+        byte[] otherKey = key.clone();
+
+        Mac mac = JcaEngines.getMac("HmacSHA256", key);
+        byte[] first = mac.doFinal(message);
+
+        assertSame(mac, JcaEngines.getMac("HmacSHA256", key));
+        assertArrayEquals(first, JcaEngines.getMac("HmacSHA256", key).doFinal(message));
+
+        // raw secrets are matched by content
+        assertSame(mac, JcaEngines.getMac("HmacSHA256", otherKey));
+
+        assertNotSame(mac, JcaEngines.getMac("HmacSHA384", key));
+    }
+
+    @Test
+    public void testMacKeyOverwrittenInPlace() throws Exception {
+        byte[] key = "0123456789abcdef0123456789abcdef".getBytes();
+        byte[] rotated = "fedcba9876543210fedcba9876543210".getBytes();
+
+        Mac mac = JcaEngines.getMac("HmacSHA256", key);
+        byte[] first = mac.doFinal(message);
+
+        System.arraycopy(rotated, 0, key, 0, key.length);
+        Mac other = JcaEngines.getMac("HmacSHA256", key);
+        assertNotSame(mac, other);
+        assertFalse(Arrays.equals(first, other.doFinal(message)));
+        assertArrayEquals(JcaEngines.getMac("HmacSHA256", rotated).doFinal(message),
+                          JcaEngines.getMac("HmacSHA256", key).doFinal(message));
+    }
+
+    @Test
+    public void testEvict() throws Exception {
+        byte[] key = "0123456789abcdef0123456789abcdef".getBytes();
+
+        Mac mac = JcaEngines.getMac("HmacSHA256", key);
+        JcaEngines.evict(mac);
+        assertNotSame(mac, JcaEngines.getMac("HmacSHA256", key));
+    }
+
+    @Test
+    public void testSignatureReusedPerKey() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(1024);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        Signature signer = JcaEngines.getSigner("SHA256withRSA", keyPair.getPrivate());
+        signer.update(message);
+        byte[] signature = signer.sign();
+        assertSame(signer, JcaEngines.getSigner("SHA256withRSA", keyPair.getPrivate()));
+
+        Signature verifier = JcaEngines.getVerifier("SHA256withRSA", keyPair.getPublic());
+        verifier.update(message);
+        assertTrue(verifier.verify(signature));
+
+        verifier = JcaEngines.getVerifier("SHA256withRSA", keyPair.getPublic());
+        verifier.update("tampered".getBytes());
+        assertFalse(verifier.verify(signature));
+
+        verifier = JcaEngines.getVerifier("SHA256withRSA", keyPair.getPublic());
+        verifier.update(message);
+        assertTrue(verifier.verify(signature));
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.jose.jws.signature.impl;
+
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+
+import org.apache.oltu.commons.encodedtoken.Base64UrlCodec;
+import org.apache.oltu.jose.jws.JWSConstants;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SignatureMethodECDSAImplTest {
+
+    private final String header = "eyJhbGciOiJFUzI1NiJ9";
+
+    private final String payload = "eyJpc3MiOiJqb2UiLA0KICJleHAiOjEzMDA4MTkzODAsDQogImh0dHA6Ly9leGFtcGxlLmNvbS9pc19yb290Ijp0cnVlfQ";
+
+    @Test
+    public void testVerifySpecExample() throws Exception {
+        AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+        parameters.init(new ECGenParameterSpec("secp256r1"));
+        ECParameterSpec spec = parameters.getParameterSpec(ECParameterSpec.class);
+        ECPoint point = new ECPoint(new BigInteger(1, Base64UrlCodec.decode("f83OJ3D2xF1Bg8vub9tLe1gHMzV76e8Tus9uPHvRVEU")),
+                                    new BigInteger(1, Base64UrlCodec.decode("x_FEzRu9m36HLN_tue659LNpXW6pCyStikYjKIWI5a0")));
+        PublicKey key = new PublicKey(KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(point, spec)));
+
+        String signature = "DtEhU3ljbEg8L38VWAfUAqOyKAM6-Xx-F4GawxaepmXFCgfTjDxw5djxLa8ISlSApmWQxfKTUJqPP3-Kg6NU1Q";
+        SignatureMethodECDSAImpl method = new SignatureMethodECDSAImpl(JWSConstants.ES256);
+        assertTrue(method.verify(signature, header, payload, key));
+        assertFalse(method.verify(signature, header, payload + "x", key));
+    }
+
+    @Test
+    public void testCalculateAndVerify() throws Exception {
+        assertRoundTrip(JWSConstants.ES256, "secp256r1", 64);
+        assertRoundTrip(JWSConstants.ES384, "secp384r1", 96);
+        assertRoundTrip(JWSConstants.ES512, "secp521r1", 132);
+    }
+
+    @Test
+    public void testVerifyWrongCurve() throws Exception {
+        KeyPair keyPair = generateKeyPair("secp384r1");
+        SignatureMethodECDSAImpl es384 = new SignatureMethodECDSAImpl(JWSConstants.ES384);
+        String signature = es384.calculate(header, payload, new PrivateKey(keyPair.getPrivate()));
+
+        assertFalse(new SignatureMethodECDSAImpl(JWSConstants.ES256).verify(signature, header, payload, new PublicKey(keyPair.getPublic())));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCalculateWrongCurve() throws Exception {
+        new SignatureMethodECDSAImpl(JWSConstants.ES256).calculate(header, payload, new PrivateKey(generateKeyPair("secp521r1").getPrivate()));
+    }
+
+    @Test
+    public void testTranscoder() {
+        byte[] concatenated = new byte[64];
+        concatenated[31] = 1;          // r = 1, all leading zeros
+        concatenated[32] = (byte) 0x80; // s has the high bit set
+        concatenated[63] = 2;
+
+        byte[] der = ECDSASignatureTranscoder.toDER(concatenated);
+        assertEquals(0x30, der[0]);
+        assertEquals(der.length - 2, der[1]);
+        assertArrayEquals(new byte[] { 0x02, 0x01, 0x01, 0x02, 0x21, 0x00, (byte) 0x80 },
+                          new byte[] { der[2], der[3], der[4], der[5], der[6], der[7], der[8] });
+        assertArrayEquals(concatenated, ECDSASignatureTranscoder.toConcatenated(der, 32));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTranscoderTooLong() {
+        byte[] concatenated = new byte[64];
+        concatenated[0] = 1;
+        concatenated[32] = 1;
+        ECDSASignatureTranscoder.toConcatenated(ECDSASignatureTranscoder.toDER(concatenated), 16);
+    }
+
+    private void assertRoundTrip(String algorithm, String curve, int signatureLength) throws Exception {
+        KeyPair keyPair = generateKeyPair(curve);
+        SignatureMethodECDSAImpl method = new SignatureMethodECDSAImpl(algorithm);
+        PublicKey publicKey = new PublicKey(keyPair.getPublic());
+
+        for (int i = 0; i < 10; i++) {
+            String signature = method.calculate(header, payload + i, new PrivateKey(keyPair.getPrivate()));
+            assertEquals(signatureLength, Base64UrlCodec.decode(signature).length);
+            assertTrue(method.verify(signature, header, payload + i, publicKey));
+            assertFalse(method.verify(signature, header, payload, publicKey));
+        }
+    }
+
+    private static KeyPair generateKeyPair(String curve) throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec(curve));
+        return generator.generateKeyPair();
+    }
+
+}
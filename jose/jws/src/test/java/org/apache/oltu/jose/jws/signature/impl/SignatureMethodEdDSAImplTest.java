@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.jose.jws.signature.impl;
+
+import java.security.KeyFactory;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+
+import org.apache.oltu.commons.encodedtoken.Base64UrlCodec;
+import org.apache.oltu.jose.jws.JWS;
+import org.apache.oltu.jose.jws.JWSConstants;
+import org.apache.oltu.jose.jws.io.JWSReader;
+import org.apache.oltu.jose.jws.io.JWSWriter;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class SignatureMethodEdDSAImplTest {
+
+    // RFC 8037 appendix A.1, A.4
+    private static final byte[] X509_PREFIX = { 0x30, 0x2a, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x70, 0x03, 0x21, 0x00 };
+
+    private static final byte[] PKCS8_PREFIX = { 0x30, 0x2e, 0x02, 0x01, 0x00, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x70, 0x04, 0x22, 0x04, 0x20 };
+
+    private final String header = "eyJhbGciOiJFZERTQSJ9";
+
+    private final String payload = "RXhhbXBsZSBvZiBFZDI1NTE5IHNpZ25pbmc";
+
+    private final String signature = "hgyY0il_MGCjP0JzlnLWG1PPOt7-09PGcvMg3AIbQR6dWbhijcNR4ki4iylGjg5BhVsPt9g7sVvpAr_MuM0KAg";
+
+    private final SignatureMethodEdDSAImpl method = new SignatureMethodEdDSAImpl();
+
+    private PrivateKey privateKey;
+
+    private PublicKey publicKey;
+
+    @Before
+    public void setUp() throws Exception {
+        try {
+            Signature.getInstance("Ed25519");
+        } catch (NoSuchAlgorithmException e) {
+            assumeTrue("Ed25519 requires the JDK EdDSA provider", false);
+        }
+
+        KeyFactory keyFactory = KeyFactory.getInstance("Ed25519");
+        privateKey = new PrivateKey(keyFactory.generatePrivate(new PKCS8EncodedKeySpec(
+                concat(PKCS8_PREFIX, Base64UrlCodec.decode("nWGxne_9WmC6hEr0kuwsxERJxWl7MmkZcDusAxyuf2A")))));
+        publicKey = new PublicKey(keyFactory.generatePublic(new X509EncodedKeySpec(
+                concat(X509_PREFIX, Base64UrlCodec.decode("11qYAYKxCrfVS_7TyWQHOg7hcvPapiMlrwIaaPcHURo")))));
+    }
+
+    @Test
+    public void testCalculate() {
+        assertEquals(signature, method.calculate(header, payload, privateKey));
+    }
+
+    @Test
+    public void testVerify() {
+        assertTrue(method.verify(signature, header, payload, publicKey));
+        assertFalse(method.verify(signature, header, payload + "x", publicKey));
+        assertFalse(method.verify(signature.substring(4), header, payload, publicKey));
+        assertFalse(method.verify(null, header, payload, publicKey));
+    }
+
+    @Test
+    public void testSignAndValidate() {
+        String jws = new JWSWriter().write(new JWS.Builder()
+                                           .setType("JWT")
+                                           .setPayload("{\"iss\":\"joe\"}")
+                                           .sign(method, privateKey)
+                                           .build());
+
+        JWS read = new JWSReader().read(jws);
+        assertEquals(JWSConstants.EdDSA, read.getHeader().getAlgorithm());
+        assertTrue(read.validate(method, publicKey));
+    }
+
+    @Test
+    public void testVerifyWrongKeyType() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(1024);
+        assertFalse(method.verify(signature, header, payload, new PublicKey(generator.generateKeyPair().getPublic())));
+    }
+
+    private static byte[] concat(byte[] prefix, byte[] key) {
+        byte[] encoded = new byte[prefix.length + key.length];
+        System.arraycopy(prefix, 0, encoded, 0, prefix.length);
+        System.arraycopy(key, 0, encoded, prefix.length, key.length);
+        return encoded;
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.jose.jws.signature.impl;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.oltu.commons.encodedtoken.Base64UrlCodec;
+import org.apache.oltu.jose.jws.JWSConstants;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SignatureMethodHMACImplTest {
+
+    private final String header = "eyJhbGciOiJIUzUxMiJ9";
+
+    private final String payload = "eyJpc3MiOiJqb2UiLA0KICJleHAiOjEzMDA4MTkzODB9";
+
+    private final SymmetricKeyImpl key = new SymmetricKeyImpl("a-64-bytes-long-secret-for-the-hs512-algorithm-0123456789abcdefgh".getBytes());
+
+    @Test
+    public void testCalculate() throws Exception {
+        assertEquals(expected("HmacSHA256"), new SignatureMethodHMACImpl(JWSConstants.HS256).calculate(header, payload, key));
+        assertEquals(expected("HmacSHA384"), new SignatureMethodHMACImpl(JWSConstants.HS384).calculate(header, payload, key));
+        assertEquals(expected("HmacSHA512"), new SignatureMethodHMACImpl(JWSConstants.HS512).calculate(header, payload, key));
+    }
+
+    @Test
+    public void testVerify() {
+        SignatureMethodHMACImpl method = new SignatureMethodHMACImpl(JWSConstants.HS512);
+        String signature = method.calculate(header, payload, key);
+
+        assertTrue(method.verify(signature, header, payload, key));
+        assertFalse(method.verify(signature, header, payload + "x", key));
+        assertFalse(method.verify(signature.substring(1), header, payload, key));
+        assertFalse(method.verify("not*base64", header, payload, key));
+        assertFalse(method.verify(null, header, payload, key));
+        assertFalse(new SignatureMethodHMACImpl(JWSConstants.HS256).verify(signature, header, payload, key));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsupportedAlgorithm() {
+        new SignatureMethodHMACImpl(JWSConstants.RS256);
+    }
+
+    private String expected(String macAlgorithm) throws Exception {
+        Mac mac = Mac.getInstance(macAlgorithm);
+        mac.init(new SecretKeySpec(key.getKey(), macAlgorithm));
+        return Base64UrlCodec.encode(mac.doFinal((header + "." + payload).getBytes("US-ASCII")));
+    }
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.as.issuer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
+import org.apache.oltu.oauth2.common.token.OpaqueToken;
+import org.apache.oltu.oauth2.common.token.OpaqueTokenFormat;
+
+/**
+ * Issuer of self-contained opaque access and refresh tokens, carrying the token
+ * type, client id, expiration time, granted scopes and key id authenticated by
+ * an HMAC, see {@link OpaqueTokenFormat}. Resource servers sharing the secret
+ * verify access tokens locally, and reject refresh tokens.
+ *
+ * Authorization codes must be single-use, which a stateless token can't
+ * enforce: they are delegated to a {@link ValueGenerator}, random by default,
+ * and the authorization server keeps track of them as usual.
+ *
+ * Used as an {@link OAuthIssuer}, tokens carry no client id and the default
+ * scopes; the overloads taking a client id and scopes issue tokens for a given
+ * client.
+ *
+ * Instances are immutable and thread-safe.
+ */
+public class OpaqueTokenIssuer implements OAuthIssuer {
+
+    private final OpaqueTokenFormat format;
+
+    private final int keyId;
+
+    private final List<String> scopeNames;
+
+    private final long defaultScopes;
+
+    private final long accessTokenLifetime;
+
+    private final long refreshTokenLifetime;
+
+    private final ValueGenerator valueGenerator;
+
+    protected OpaqueTokenIssuer(Builder builder) {
+        this.format = new OpaqueTokenFormat(Collections.singletonMap(builder.keyId, builder.secret));
+        this.keyId = builder.keyId;
+        this.scopeNames = Collections.unmodifiableList(new ArrayList<String>(builder.scopeNames));
+        this.defaultScopes = OpaqueTokenFormat.toScopeBitmap(scopeNames, builder.defaultScopes);
+        this.accessTokenLifetime = builder.accessTokenLifetime;
+        this.refreshTokenLifetime = builder.refreshTokenLifetime;
+        this.valueGenerator = builder.valueGenerator;
+    }
+
+    public String accessToken() throws OAuthSystemException {
+        return issue(OpaqueToken.Type.ACCESS, "", defaultScopes, accessTokenLifetime);
+    }
+
+    /**
+     * Issues an access token for the given client, granting the given scopes.
+     *
+     * @param clientId the client id, at most 255 bytes once UTF-8 encoded.
+     * @param scopes the granted scopes, taken from the configured scope names,
+     *        the default ones when null.
+     */
+    public String accessToken(String clientId, Collection<String> scopes) throws OAuthSystemException {
+        return issue(OpaqueToken.Type.ACCESS, clientId, toScopeBitmap(scopes), accessTokenLifetime);
+    }
+
+    public String refreshToken() throws OAuthSystemException {
+        return issue(OpaqueToken.Type.REFRESH, "", defaultScopes, refreshTokenLifetime);
+    }
+
+    /**
+     * Issues a refresh token for the given client, granting the given scopes.
+     *
+     * @see #accessToken(String, Collection)
+     */
+    public String refreshToken(String clientId, Collection<String> scopes) throws OAuthSystemException {
+        return issue(OpaqueToken.Type.REFRESH, clientId, toScopeBitmap(scopes), refreshTokenLifetime);
+    }
+
+    public String authorizationCode() throws OAuthSystemException {
+        return valueGenerator.generateValue();
+    }
+
+    public List<String> getScopeNames() {
+        return scopeNames;
+    }
+
+    /**
+     * Returns the current time in milliseconds, the expiration times clock source.
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private long toScopeBitmap(Collection<String> scopes) {
+        return scopes != null ? OpaqueTokenFormat.toScopeBitmap(scopeNames, scopes) : defaultScopes;
+    }
+
+    private String issue(OpaqueToken.Type type, String clientId, long scopes, long lifetime)
+            throws OAuthSystemException {
+        if (clientId == null) {
+            throw new OAuthSystemException("OAuth Token cannot be generated without a client id.");
+        }
+
+        // the nonce only tells apart tokens with identical content, authenticity comes from the HMAC
+        byte[] nonce = new byte[OpaqueTokenFormat.NONCE_LENGTH];
+        ThreadLocalRandom.current().nextBytes(nonce);
+
+        try {
+            long expiresAt = currentTimeMillis() / 1000L + lifetime;
+            return format.write(new OpaqueToken(keyId, type, clientId, expiresAt, scopes), nonce);
+        } catch (IllegalArgumentException e) {
+            throw new OAuthSystemException("OAuth Token cannot be generated.", e);
+        }
+    }
+
+    public static final class Builder {
+
+        private final int keyId;
+
+        private final byte[] secret;
+
+        private List<String> scopeNames = Collections.emptyList();
+
+        private Collection<String> defaultScopes = Collections.emptySet();
+
+        private long accessTokenLifetime = 3600L;
+
+        private long refreshTokenLifetime = 14L * 24L * 3600L;
+
+        private ValueGenerator valueGenerator = new SecureRandomValueGenerator();
+
+        /**
+         * @param keyId the id of the key, in the [0, 255] range, resource servers
+         *        look the secret up by key id.
+         * @param secret the HMAC secret, at least 256 bits long.
+         */
+        public Builder(int keyId, byte[] secret) {
+            this.keyId = keyId;
+            this.secret = secret;
+        }
+
+        /**
+         * Sets the scopes tokens can grant, at most 64; resource servers must
+         * be configured with the same list, in the same order.
+         */
+        public Builder setScopeNames(List<String> scopeNames) {
+            if (scopeNames == null || scopeNames.size() > OpaqueTokenFormat.MAX_SCOPES) {
+                throw new IllegalArgumentException("At most " + OpaqueTokenFormat.MAX_SCOPES + " scopes can be set.");
+            }
+            this.scopeNames = scopeNames;
+            return this;
+        }
+
+        /**
+         * Sets the scopes granted when none is specified.
+         */
+        public Builder setDefaultScopes(Collection<String> defaultScopes) {
+            this.defaultScopes = defaultScopes;
+            return this;
+        }
+
+        /**
+         * Sets the access tokens lifetime in seconds, one hour by default.
+         */
+        public Builder setAccessTokenLifetime(long accessTokenLifetime) {
+            this.accessTokenLifetime = checkLifetime(accessTokenLifetime);
+            return this;
+        }
+
+        /**
+         * Sets the refresh tokens lifetime in seconds, fourteen days by default.
+         */
+        public Builder setRefreshTokenLifetime(long refreshTokenLifetime) {
+            this.refreshTokenLifetime = checkLifetime(refreshTokenLifetime);
+            return this;
+        }
+
+        /**
+         * Sets the generator of the authorization codes, {@link SecureRandomValueGenerator} by default.
+         */
+        public Builder setValueGenerator(ValueGenerator valueGenerator) {
+            if (valueGenerator == null) {
+                throw new IllegalArgumentException("Null value generator not allowed.");
+            }
+            this.valueGenerator = valueGenerator;
+            return this;
+        }
+
+        public OpaqueTokenIssuer build() {
+            return new OpaqueTokenIssuer(this);
+        }
+
+        private static long checkLifetime(long lifetime) {
+            if (lifetime <= 0) {
+                throw new IllegalArgumentException("Token lifetime must be positive.");
+            }
+            return lifetime;
+        }
+
+    }
+
+}
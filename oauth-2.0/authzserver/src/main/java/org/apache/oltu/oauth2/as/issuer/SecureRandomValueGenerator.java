@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.as.issuer;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
+
+/**
+ * Token Generator that emits base64url encoded random values of configurable
+ * entropy.
+ *
+ * Random bytes are drawn from a per-thread DRBG instance (<code>SHA1PRNG</code>
+ * when <code>DRBG</code> is not available, before Java 9), so that concurrent
+ * threads never contend on a shared {@link SecureRandom}. Threads can
+ * optionally prefetch random bytes in bulk and consume them one token at a
+ * time; consumed bytes are wiped from the buffer.
+ */
+public class SecureRandomValueGenerator implements ValueGenerator {
+
+    private static final char[] BASE64URL = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    /**
+     * Default entropy, 256 bits.
+     */
+    private static final int DEFAULT_ENTROPY_BYTES = 32;
+
+    private final int entropyBytes;
+
+    private final ThreadLocal<RandomBytes> randomBytes;
+
+    /**
+     * Creates a generator of 256 bits values, without prefetching.
+     */
+    public SecureRandomValueGenerator() {
+        this(DEFAULT_ENTROPY_BYTES);
+    }
+
+    /**
+     * Creates a generator of values holding the given entropy, without prefetching.
+     *
+     * @param entropyBytes the number of random bytes per value.
+     */
+    public SecureRandomValueGenerator(int entropyBytes) {
+        this(entropyBytes, entropyBytes);
+    }
+
+    /**
+     * Creates a generator of values holding the given entropy, each thread
+     * drawing the given number of random bytes at once.
+     *
+     * @param entropyBytes the number of random bytes per value, at least 16.
+     * @param prefetchBytes the number of random bytes drawn at once, rounded
+     *        down to a multiple of <code>entropyBytes</code>.
+     */
+    public SecureRandomValueGenerator(int entropyBytes, int prefetchBytes) {
+        if (entropyBytes < 16) {
+            throw new IllegalArgumentException("Generated values must hold at least 128 bits of entropy.");
+        }
+        if (prefetchBytes < entropyBytes) {
+            throw new IllegalArgumentException("Prefetched bytes must be at least " + entropyBytes);
+        }
+        this.entropyBytes = entropyBytes;
+
+        final int bufferSize = prefetchBytes - prefetchBytes % entropyBytes;
+        this.randomBytes = new ThreadLocal<RandomBytes>() {
+
+            @Override
+            protected RandomBytes initialValue() {
+                return new RandomBytes(newSecureRandom(), bufferSize);
+            }
+
+        };
+    }
+
+    @Override
+    public String generateValue() throws OAuthSystemException {
+        RandomBytes bytes = randomBytes.get();
+        int offset = bytes.next(entropyBytes);
+
+        char[] value = new char[(entropyBytes * 4 + 2) / 3];
+        encode(bytes.buffer, offset, entropyBytes, value);
+        Arrays.fill(bytes.buffer, offset, offset + entropyBytes, (byte) 0);
+
+        return new String(value);
+    }
+
+    /**
+     * Values are random, the parameter is ignored.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public String generateValue(String param) throws OAuthSystemException {
+        return generateValue();
+    }
+
+    // ---------- Private methods ---------------------------------------------
+
+    private static SecureRandom newSecureRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            try {
+                return SecureRandom.getInstance("SHA1PRNG");
+            } catch (NoSuchAlgorithmException unavailable) {
+                return new SecureRandom();
+            }
+        }
+    }
+
+    /**
+     * Encodes the bytes range to base64url, without padding.
+     */
+    private static void encode(byte[] src, int offset, int length, char[] dst) {
+        int end = offset + length;
+        int i = offset;
+        int j = 0;
+        for (; i + 2 < end; i += 3) {
+            int bits = (src[i] & 0xFF) << 16 | (src[i + 1] & 0xFF) << 8 | (src[i + 2] & 0xFF);
+            dst[j++] = BASE64URL[bits >>> 18];
+            dst[j++] = BASE64URL[(bits >>> 12) & 0x3F];
+            dst[j++] = BASE64URL[(bits >>> 6) & 0x3F];
+            dst[j++] = BASE64URL[bits & 0x3F];
+        }
+        int remaining = end - i;
+        if (remaining > 0) {
+            int bits = (src[i] & 0xFF) << 10;
+            if (remaining == 2) {
+                bits |= (src[i + 1] & 0xFF) << 2;
+            }
+            dst[j++] = BASE64URL[bits >>> 12];
+            dst[j++] = BASE64URL[(bits >>> 6) & 0x3F];
+            if (remaining == 2) {
+                dst[j] = BASE64URL[bits & 0x3F];
+            }
+        }
+    }
+
+    /**
+     * Random bytes owned by a single thread.
+     */
+    private static final class RandomBytes {
+
+        private final SecureRandom random;
+
+        private final byte[] buffer;
+
+        private int position;
+
+        RandomBytes(SecureRandom random, int size) {
+            this.random = random;
+            this.buffer = new byte[size];
+            this.position = size;
+        }
+
+        /**
+         * Returns the offset of the next <code>length</code> unused random bytes.
+         */
+        int next(int length) {
+            if (position + length > buffer.length) {
+                random.nextBytes(buffer);
+                position = 0;
+            }
+            int offset = position;
+            position += length;
+            return offset;
+        }
+
+    }
+
+}
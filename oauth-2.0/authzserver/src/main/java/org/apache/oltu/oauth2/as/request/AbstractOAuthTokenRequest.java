@@ -39,11 +39,11 @@ public abstract class AbstractOAuthTokenRequest extends OAuthRequest {
     if (OAuthUtils.isEmpty(requestTypeValue)) {
       throw OAuthUtils.handleOAuthProblemException("Missing grant_type parameter value");
     }
-    final Class<? extends OAuthValidator<HttpServletRequest>> clazz = validators.get(requestTypeValue);
-    if (clazz == null) {
+    final OAuthValidator<HttpServletRequest> validator = getValidator(requestTypeValue);
+    if (validator == null) {
       throw OAuthUtils.handleOAuthProblemException("Invalid grant_type parameter value");
     }
-    return OAuthUtils.instantiateClass(clazz);
+    return validator;
   }
 
   public String getPassword() {
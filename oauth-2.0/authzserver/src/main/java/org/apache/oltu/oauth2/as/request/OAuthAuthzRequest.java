@@ -25,6 +25,7 @@ import javax.servlet.http.HttpServletRequest;
 
 import org.apache.oltu.oauth2.as.validator.CodeValidator;
 import org.apache.oltu.oauth2.as.validator.TokenValidator;
+import org.apache.oltu.oauth2.as.validator.ValidatorRegistry;
 import org.apache.oltu.oauth2.common.OAuth;
 import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
 import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
@@ -39,25 +40,34 @@ import org.apache.oltu.oauth2.common.validators.OAuthValidator;
  */
 public class OAuthAuthzRequest extends OAuthRequest {
 
+    private static final ValidatorRegistry VALIDATORS = new ValidatorRegistry.Builder()
+        //end user authorization validators
+        .register(ResponseType.CODE.toString(), new CodeValidator())
+        .register(ResponseType.TOKEN.toString(), new TokenValidator())
+        .registerProviders(OAuthAuthzRequest.class)
+        .build();
+
     public OAuthAuthzRequest(HttpServletRequest request) throws OAuthSystemException, OAuthProblemException {
         super(request);
     }
 
     @Override
     protected OAuthValidator<HttpServletRequest> initValidator() throws OAuthProblemException, OAuthSystemException {
-        //end user authorization validators
-        validators.put(ResponseType.CODE.toString(), CodeValidator.class);
-        validators.put(ResponseType.TOKEN.toString(), TokenValidator.class);
         final String requestTypeValue = getParam(OAuth.OAUTH_RESPONSE_TYPE);
         if (OAuthUtils.isEmpty(requestTypeValue)) {
             throw OAuthUtils.handleOAuthProblemException("Missing response_type parameter value");
         }
-        final Class<? extends OAuthValidator<HttpServletRequest>> clazz = validators.get(requestTypeValue);
-        if (clazz == null) {
+        final OAuthValidator<HttpServletRequest> validator = getValidator(requestTypeValue);
+        if (validator == null) {
             throw OAuthUtils.handleOAuthProblemException("Invalid response_type parameter value");
         }
 
-        return OAuthUtils.instantiateClass(clazz);
+        return validator;
+    }
+
+    @Override
+    protected ValidatorRegistry getValidatorRegistry() {
+        return VALIDATORS;
     }
 
     public String getState() {
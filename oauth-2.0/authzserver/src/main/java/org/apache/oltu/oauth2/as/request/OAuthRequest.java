@@ -27,7 +27,9 @@ import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
 
+import org.apache.oltu.oauth2.as.validator.ValidatorRegistry;
 import org.apache.oltu.oauth2.common.OAuth;
+import org.apache.oltu.oauth2.common.domain.credentials.ClientCredentials;
 import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
 import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
 import org.apache.oltu.oauth2.common.utils.OAuthUtils;
@@ -44,6 +46,15 @@ public abstract class OAuthRequest {
 
     protected HttpServletRequest request;
     protected OAuthValidator<HttpServletRequest> validator;
+
+    private ClientCredentials clientCredentials;
+
+    private boolean clientCredentialsParsed;
+
+    /**
+     * Validator classes registered per request, instantiated on every lookup. Prefer sharing validator
+     * instances through {@link #getValidatorRegistry()}.
+     */
     protected Map<String, Class<? extends OAuthValidator<HttpServletRequest>>> validators =
         new HashMap<String, Class<? extends OAuthValidator<HttpServletRequest>>>();
 
@@ -82,14 +93,51 @@ public abstract class OAuthRequest {
     protected abstract OAuthValidator<HttpServletRequest> initValidator() throws OAuthProblemException,
         OAuthSystemException;
 
+    /**
+     * Returns the shared validators of this endpoint, keyed by request type. The default has none.
+     */
+    protected ValidatorRegistry getValidatorRegistry() {
+        return null;
+    }
+
+    /**
+     * Looks up the validator for the given request type: classes put in {@link #validators} take precedence
+     * over the shared {@link #getValidatorRegistry() registry}.
+     *
+     * @return the validator, <code>null</code> if the request type is not supported
+     */
+    protected OAuthValidator<HttpServletRequest> getValidator(String requestType) throws OAuthSystemException {
+        final Class<? extends OAuthValidator<HttpServletRequest>> clazz = validators.get(requestType);
+        if (clazz != null) {
+            return OAuthUtils.instantiateClass(clazz);
+        }
+        final ValidatorRegistry registry = getValidatorRegistry();
+        return registry == null ? null : registry.getValidator(requestType);
+    }
+
     public String getParam(String name) {
         return request.getParameter(name);
     }
 
+    /**
+     * Returns the client credentials sent with HTTP Basic authentication. The <code>Authorization</code> header
+     * is parsed on first use only.
+     *
+     * @return the credentials, <code>null</code> if the request has no valid Basic authorization header
+     */
+    public ClientCredentials getClientCredentials() {
+        if (!clientCredentialsParsed) {
+            clientCredentials = ClientCredentials.fromBasicAuthorization(
+                request.getHeader(OAuth.HeaderType.AUTHORIZATION));
+            clientCredentialsParsed = true;
+        }
+        return clientCredentials;
+    }
+
     public String getClientId() {
-        String[] creds = OAuthUtils.decodeClientAuthenticationHeader(request.getHeader(OAuth.HeaderType.AUTHORIZATION));
+        ClientCredentials creds = getClientCredentials();
         if (creds != null) {
-            return creds[0];
+            return creds.getClientId();
         }
         return getParam(OAuth.OAUTH_CLIENT_ID);
     }
@@ -99,9 +147,9 @@ public abstract class OAuthRequest {
     }
 
     public String getClientSecret() {
-        String[] creds = OAuthUtils.decodeClientAuthenticationHeader(request.getHeader(OAuth.HeaderType.AUTHORIZATION));
+        ClientCredentials creds = getClientCredentials();
         if (creds != null) {
-            return creds[1];
+            return creds.getClientSecret();
         }
         return getParam(OAuth.OAUTH_CLIENT_SECRET);
     }
@@ -111,7 +159,7 @@ public abstract class OAuthRequest {
      * @return
      */
     public boolean isClientAuthHeaderUsed() {
-        return OAuthUtils.decodeClientAuthenticationHeader(request.getHeader(OAuth.HeaderType.AUTHORIZATION)) != null;
+        return getClientCredentials() != null;
     }
 
     public Set<String> getScopes() {
@@ -27,10 +27,10 @@ import org.apache.oltu.oauth2.as.validator.AuthorizationCodeValidator;
 import org.apache.oltu.oauth2.as.validator.ClientCredentialValidator;
 import org.apache.oltu.oauth2.as.validator.PasswordValidator;
 import org.apache.oltu.oauth2.as.validator.RefreshTokenValidator;
+import org.apache.oltu.oauth2.as.validator.ValidatorRegistry;
 import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
 import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
 import org.apache.oltu.oauth2.common.message.types.GrantType;
-import org.apache.oltu.oauth2.common.validators.OAuthValidator;
 
 
 /**
@@ -42,6 +42,14 @@ import org.apache.oltu.oauth2.common.validators.OAuthValidator;
  */
 public class OAuthTokenRequest extends AbstractOAuthTokenRequest {
 
+    private static final ValidatorRegistry VALIDATORS = new ValidatorRegistry.Builder()
+        .register(GrantType.PASSWORD.toString(), new PasswordValidator())
+        .register(GrantType.CLIENT_CREDENTIALS.toString(), new ClientCredentialValidator())
+        .register(GrantType.AUTHORIZATION_CODE.toString(), new AuthorizationCodeValidator())
+        .register(GrantType.REFRESH_TOKEN.toString(), new RefreshTokenValidator())
+        .registerProviders(OAuthTokenRequest.class)
+        .build();
+
     /**
      * Create an OAuth Token request from a given HttpSerlvetRequest
      *
@@ -54,11 +62,7 @@ public class OAuthTokenRequest extends AbstractOAuthTokenRequest {
     }
 
     @Override
-    protected OAuthValidator<HttpServletRequest> initValidator() throws OAuthProblemException, OAuthSystemException {
-        validators.put(GrantType.PASSWORD.toString(), PasswordValidator.class);
-        validators.put(GrantType.CLIENT_CREDENTIALS.toString(), ClientCredentialValidator.class);
-        validators.put(GrantType.AUTHORIZATION_CODE.toString(), AuthorizationCodeValidator.class);
-        validators.put(GrantType.REFRESH_TOKEN.toString(), RefreshTokenValidator.class);
-        return super.initValidator();
+    protected ValidatorRegistry getValidatorRegistry() {
+        return VALIDATORS;
     }
 }
@@ -23,12 +23,12 @@ import org.apache.oltu.oauth2.as.validator.PasswordValidator;
 import org.apache.oltu.oauth2.as.validator.UnauthenticatedAuthorizationCodeValidator;
 import org.apache.oltu.oauth2.as.validator.UnauthenticatedPasswordValidator;
 import org.apache.oltu.oauth2.as.validator.UnauthenticatedRefreshTokenValidator;
+import org.apache.oltu.oauth2.as.validator.ValidatorRegistry;
 import org.apache.oltu.oauth2.common.OAuth;
 import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
 import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
 import org.apache.oltu.oauth2.common.message.types.GrantType;
 import org.apache.oltu.oauth2.common.utils.OAuthUtils;
-import org.apache.oltu.oauth2.common.validators.OAuthValidator;
 
 /**
  * The Unauthenticated OAuth Authorization Server class that validates whether a given HttpServletRequest is a valid
@@ -42,16 +42,20 @@ import org.apache.oltu.oauth2.common.validators.OAuthValidator;
  */
 public class OAuthUnauthenticatedTokenRequest extends AbstractOAuthTokenRequest {
 
+    private static final ValidatorRegistry VALIDATORS = new ValidatorRegistry.Builder()
+        .register(GrantType.PASSWORD.toString(), new UnauthenticatedPasswordValidator())
+        .register(GrantType.AUTHORIZATION_CODE.toString(), new UnauthenticatedAuthorizationCodeValidator())
+        .register(GrantType.REFRESH_TOKEN.toString(), new UnauthenticatedRefreshTokenValidator())
+        .registerProviders(OAuthUnauthenticatedTokenRequest.class)
+        .build();
+
     public OAuthUnauthenticatedTokenRequest(HttpServletRequest request) throws OAuthSystemException,
             OAuthProblemException {
         super(request);
     }
 
     @Override
-    protected OAuthValidator<HttpServletRequest> initValidator() throws OAuthProblemException, OAuthSystemException {
-        validators.put(GrantType.PASSWORD.toString(), UnauthenticatedPasswordValidator.class);
-        validators.put(GrantType.AUTHORIZATION_CODE.toString(), UnauthenticatedAuthorizationCodeValidator.class);
-        validators.put(GrantType.REFRESH_TOKEN.toString(), UnauthenticatedRefreshTokenValidator.class);
-        return super.initValidator();
+    protected ValidatorRegistry getValidatorRegistry() {
+        return VALIDATORS;
     }
 }
@@ -23,9 +23,14 @@ package org.apache.oltu.oauth2.as.response;
 
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.apache.oltu.oauth2.common.OAuth;
+import org.apache.oltu.oauth2.common.error.OAuthError;
+import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
+import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
 import org.apache.oltu.oauth2.common.message.OAuthResponse;
+import org.apache.oltu.oauth2.common.message.PreparedErrorResponse;
 
 /**
  *
@@ -34,10 +39,49 @@ import org.apache.oltu.oauth2.common.message.OAuthResponse;
  */
 public class OAuthASResponse extends OAuthResponse {
 
+    /*
+     * Token endpoint errors without description, serialized once.
+     */
+
+    public static final PreparedErrorResponse INVALID_REQUEST =
+        prepareError(OAuthError.TokenResponse.INVALID_REQUEST);
+
+    public static final PreparedErrorResponse INVALID_CLIENT =
+        prepareError(OAuthError.TokenResponse.INVALID_CLIENT);
+
+    public static final PreparedErrorResponse INVALID_GRANT =
+        prepareError(OAuthError.TokenResponse.INVALID_GRANT);
+
+    public static final PreparedErrorResponse UNAUTHORIZED_CLIENT =
+        prepareError(OAuthError.TokenResponse.UNAUTHORIZED_CLIENT);
+
+    public static final PreparedErrorResponse UNSUPPORTED_GRANT_TYPE =
+        prepareError(OAuthError.TokenResponse.UNSUPPORTED_GRANT_TYPE);
+
     protected OAuthASResponse(String uri, int responseStatus) {
         super(uri, responseStatus);
     }
 
+    /**
+     * Builds the JSON body of an error response once, to be kept and sent for every request rejected with the
+     * same problem.
+     *
+     * @param responseCode the HTTP status of the response
+     * @param error        the problem, its error code, description, uri and state are sent
+     */
+    public static PreparedErrorResponse prepareError(int responseCode, OAuthProblemException error)
+        throws OAuthSystemException {
+        return PreparedErrorResponse.of(errorResponse(responseCode).error(error).buildJSONMessage());
+    }
+
+    private static PreparedErrorResponse prepareError(String error) {
+        try {
+            return prepareError(HttpServletResponse.SC_BAD_REQUEST, OAuthProblemException.shared(error, null));
+        } catch (OAuthSystemException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     public static OAuthAuthorizationResponseBuilder authorizationResponse(HttpServletRequest request,int code) {
         return new OAuthAuthorizationResponseBuilder(request,code);
     }
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.as.validator;
+
+import org.apache.oltu.oauth2.as.request.OAuthRequest;
+
+/**
+ * Service provider contributing validators to the {@link ValidatorRegistry} of the built-in endpoints.
+ * <p/>
+ * Implementations are discovered with the {@link java.util.ServiceLoader}, by listing them in
+ * <code>META-INF/services/org.apache.oltu.oauth2.as.validator.OAuthValidatorProvider</code>. Each endpoint
+ * builds its registry once, when its request class is initialized.
+ */
+public interface OAuthValidatorProvider {
+
+    /**
+     * Registers validators for the endpoint handled by the given request class.
+     *
+     * @param requestClass the request class the registry is built for, e.g.
+     *                     {@link org.apache.oltu.oauth2.as.request.OAuthTokenRequest}
+     * @param registry     the registry under construction
+     */
+    void registerValidators(Class<? extends OAuthRequest> requestClass, ValidatorRegistry.Builder registry);
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.as.validator;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.oltu.oauth2.as.request.OAuthRequest;
+import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
+import org.apache.oltu.oauth2.common.utils.OAuthUtils;
+import org.apache.oltu.oauth2.common.validators.OAuthValidator;
+
+/**
+ * Immutable mapping of <code>grant_type</code>/<code>response_type</code> values to validator instances.
+ * <p/>
+ * A registry is built once per endpoint and shared by all requests, so registered validators must be
+ * thread-safe: they must not keep any per-request state. Besides the programmatic {@link Builder}, validators
+ * can be contributed by {@link OAuthValidatorProvider} services, see {@link Builder#registerProviders(Class)}.
+ */
+public final class ValidatorRegistry {
+
+    private final Map<String, OAuthValidator<HttpServletRequest>> validators;
+
+    private ValidatorRegistry(Map<String, OAuthValidator<HttpServletRequest>> validators) {
+        this.validators = validators;
+    }
+
+    /**
+     * Returns the validator registered for the given request type.
+     *
+     * @param type the <code>grant_type</code> or <code>response_type</code> value
+     * @return the registered validator, <code>null</code> if the type is not supported
+     */
+    public OAuthValidator<HttpServletRequest> getValidator(String type) {
+        return validators.get(type);
+    }
+
+    /**
+     * @return the request types this registry holds a validator for
+     */
+    public Set<String> getTypes() {
+        return validators.keySet();
+    }
+
+    public static final class Builder {
+
+        private final Map<String, OAuthValidator<HttpServletRequest>> validators =
+            new HashMap<String, OAuthValidator<HttpServletRequest>>();
+
+        public Builder() {
+        }
+
+        /**
+         * Starts from the validators of an existing registry, to extend or override the defaults of an endpoint.
+         */
+        public Builder(ValidatorRegistry registry) {
+            validators.putAll(registry.validators);
+        }
+
+        /**
+         * Registers a shared validator instance for the given request type, replacing any previous one.
+         */
+        public Builder register(String type, OAuthValidator<HttpServletRequest> validator) {
+            if (OAuthUtils.isEmpty(type)) {
+                throw new IllegalArgumentException("Request type must not be empty");
+            }
+            if (validator == null) {
+                throw new IllegalArgumentException("Validator for '" + type + "' must not be null");
+            }
+            validators.put(type, validator);
+            return this;
+        }
+
+        /**
+         * Instantiates the given validator class once and registers the instance for the given request type.
+         */
+        public Builder register(String type, Class<? extends OAuthValidator<HttpServletRequest>> validatorClass) {
+            try {
+                return register(type, OAuthUtils.instantiateClass(validatorClass));
+            } catch (OAuthSystemException e) {
+                throw new IllegalArgumentException("Cannot instantiate validator " + validatorClass.getName(), e);
+            }
+        }
+
+        /**
+         * Lets every {@link OAuthValidatorProvider} found through the {@link ServiceLoader} register its
+         * validators for the given request class. Providers are applied after the validators already
+         * registered, so they can override the defaults.
+         */
+        public Builder registerProviders(Class<? extends OAuthRequest> requestClass) {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            if (classLoader == null) {
+                classLoader = requestClass.getClassLoader();
+            }
+            for (OAuthValidatorProvider provider : ServiceLoader.load(OAuthValidatorProvider.class, classLoader)) {
+                provider.registerValidators(requestClass, this);
+            }
+            return this;
+        }
+
+        public ValidatorRegistry build() {
+            return new ValidatorRegistry(Collections.unmodifiableMap(
+                new HashMap<String, OAuthValidator<HttpServletRequest>>(validators)));
+        }
+
+    }
+
+}
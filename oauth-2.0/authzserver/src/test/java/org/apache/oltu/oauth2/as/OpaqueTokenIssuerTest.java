@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.as;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.oltu.oauth2.as.issuer.OpaqueTokenIssuer;
+import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
+import org.apache.oltu.oauth2.common.token.OpaqueToken;
+import org.apache.oltu.oauth2.common.token.OpaqueTokenFormat;
+import org.junit.Test;
+
+public class OpaqueTokenIssuerTest {
+
+    private static final byte[] SECRET = "01234567890123456789012345678901".getBytes();
+
+    private final OpaqueTokenFormat format = new OpaqueTokenFormat(Collections.singletonMap(3, SECRET));
+
+    private final OpaqueTokenIssuer issuer = new OpaqueTokenIssuer(new OpaqueTokenIssuer.Builder(3, SECRET)
+                                                                   .setScopeNames(Arrays.asList("read", "write"))
+                                                                   .setDefaultScopes(Arrays.asList("read"))
+                                                                   .setAccessTokenLifetime(600)
+                                                                   .setRefreshTokenLifetime(86400)) {
+
+        @Override
+        protected long currentTimeMillis() {
+            return 1500000000000L;
+        }
+
+    };
+
+    @Test
+    public void testAccessToken() throws Exception {
+        OpaqueToken token = format.read(issuer.accessToken("client", Arrays.asList("read", "write")));
+        assertEquals(3, token.getKeyId());
+        assertEquals(OpaqueToken.Type.ACCESS, token.getType());
+        assertEquals("client", token.getClientId());
+        assertEquals(1500000600L, token.getExpiresAt());
+        assertEquals(3L, token.getScopes());
+
+        assertEquals(1L, format.read(issuer.accessToken("client", null)).getScopes());
+        assertFalse(issuer.accessToken("client", null).equals(issuer.accessToken("client", null)));
+    }
+
+    @Test
+    public void testOAuthIssuer() throws Exception {
+        OpaqueToken token = format.read(issuer.accessToken());
+        assertEquals(OpaqueToken.Type.ACCESS, token.getType());
+        assertEquals("", token.getClientId());
+        assertEquals(1L, token.getScopes());
+
+        token = format.read(issuer.refreshToken());
+        assertEquals(OpaqueToken.Type.REFRESH, token.getType());
+        assertEquals(1500086400L, token.getExpiresAt());
+
+        // codes are random, single-use values
+        assertNull(format.read(issuer.authorizationCode()));
+        assertFalse(issuer.authorizationCode().equals(issuer.authorizationCode()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownScope() throws OAuthSystemException {
+        issuer.accessToken("client", Arrays.asList("admin"));
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.as;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.oltu.oauth2.as.issuer.SecureRandomValueGenerator;
+import org.apache.oltu.oauth2.as.issuer.ValueGenerator;
+import org.junit.Test;
+
+public class SecureRandomValueGeneratorTest {
+
+    @Test
+    public void testDefaultEntropy() throws Exception {
+        String value = new SecureRandomValueGenerator().generateValue();
+        assertEquals(43, value.length());
+        assertEquals(32, Base64.getUrlDecoder().decode(value).length);
+    }
+
+    @Test
+    public void testConfigurableEntropy() throws Exception {
+        for (int entropyBytes = 16; entropyBytes < 24; entropyBytes++) {
+            String value = new SecureRandomValueGenerator(entropyBytes).generateValue();
+            assertTrue(value.matches("[A-Za-z0-9_-]+"));
+            assertEquals(entropyBytes, Base64.getUrlDecoder().decode(value).length);
+        }
+    }
+
+    @Test
+    public void testUniqueValuesWithPrefetch() throws Exception {
+        ValueGenerator generator = new SecureRandomValueGenerator(16, 1000);
+        Set<String> values = new HashSet<String>();
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(values.add(generator.generateValue()));
+            assertEquals(22, generator.generateValue("ignored").length());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMinimumEntropy() {
+        new SecureRandomValueGenerator(8);
+    }
+
+}
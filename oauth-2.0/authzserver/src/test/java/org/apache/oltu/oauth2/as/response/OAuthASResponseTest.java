@@ -32,6 +32,7 @@ import org.apache.oltu.oauth2.common.OAuth;
 import org.apache.oltu.oauth2.common.error.OAuthError;
 import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
 import org.apache.oltu.oauth2.common.message.OAuthResponse;
+import org.apache.oltu.oauth2.common.message.PreparedErrorResponse;
 import org.junit.Test;
 
 /**
@@ -175,4 +176,18 @@ public class OAuthASResponseTest {
         assertEquals("Bearer code=\"oauth_code\",state=\"state_ok\"", header);
     }
 
+    @Test
+    public void testPreparedErrorResponse() throws Exception {
+        OAuthProblemException ex = OAuthProblemException
+            .shared(OAuthError.TokenResponse.INVALID_GRANT, "invalid username or password");
+
+        PreparedErrorResponse prepared = OAuthASResponse.prepareError(400, ex);
+
+        assertEquals(400, prepared.getResponseStatus());
+        assertEquals("{\"error_description\":\"invalid username or password\",\"error\":\"invalid_grant\"}",
+            prepared.getBody());
+        assertEquals("{\"error\":\"invalid_client\"}", OAuthASResponse.INVALID_CLIENT.getBody());
+        assertEquals(400, OAuthASResponse.INVALID_CLIENT.toResponse().getResponseStatus());
+    }
+
 }
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.as.validator;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.oltu.oauth2.as.request.OAuthAuthzRequest;
+import org.apache.oltu.oauth2.as.request.OAuthRequest;
+import org.apache.oltu.oauth2.as.request.OAuthTokenRequest;
+import org.apache.oltu.oauth2.common.message.types.GrantType;
+import org.apache.oltu.oauth2.common.validators.AbstractValidator;
+import org.apache.oltu.oauth2.common.validators.OAuthValidator;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ValidatorRegistryTest {
+
+    private static final String TEST_GRANT_TYPE = "urn:oltu:test:grant";
+
+    private static final OAuthValidator<HttpServletRequest> TEST_VALIDATOR = new TestValidator();
+
+    @Test
+    public void testRegisteredInstancesAreShared() {
+        PasswordValidator password = new PasswordValidator();
+        ValidatorRegistry registry = new ValidatorRegistry.Builder()
+            .register(GrantType.PASSWORD.toString(), password)
+            .register(GrantType.REFRESH_TOKEN.toString(), RefreshTokenValidator.class)
+            .build();
+
+        assertSame(password, registry.getValidator(GrantType.PASSWORD.toString()));
+        OAuthValidator<HttpServletRequest> refresh = registry.getValidator(GrantType.REFRESH_TOKEN.toString());
+        assertTrue(refresh instanceof RefreshTokenValidator);
+        assertSame(refresh, registry.getValidator(GrantType.REFRESH_TOKEN.toString()));
+        assertNull(registry.getValidator(GrantType.CLIENT_CREDENTIALS.toString()));
+        assertEquals(2, registry.getTypes().size());
+    }
+
+    @Test
+    public void testBuilderDoesNotAffectBuiltRegistry() {
+        ValidatorRegistry.Builder builder = new ValidatorRegistry.Builder()
+            .register(GrantType.PASSWORD.toString(), new PasswordValidator());
+        ValidatorRegistry registry = builder.build();
+
+        builder.register(GrantType.REFRESH_TOKEN.toString(), new RefreshTokenValidator());
+
+        assertNull(registry.getValidator(GrantType.REFRESH_TOKEN.toString()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testTypesAreUnmodifiable() {
+        new ValidatorRegistry.Builder().build().getTypes().add(TEST_GRANT_TYPE);
+    }
+
+    @Test
+    public void testExtendExistingRegistry() {
+        ValidatorRegistry defaults = new ValidatorRegistry.Builder()
+            .register(GrantType.PASSWORD.toString(), new PasswordValidator())
+            .register(GrantType.REFRESH_TOKEN.toString(), new RefreshTokenValidator())
+            .build();
+        UnauthenticatedPasswordValidator password = new UnauthenticatedPasswordValidator();
+
+        ValidatorRegistry registry = new ValidatorRegistry.Builder(defaults)
+            .register(GrantType.PASSWORD.toString(), password)
+            .build();
+
+        assertSame(password, registry.getValidator(GrantType.PASSWORD.toString()));
+        assertSame(defaults.getValidator(GrantType.REFRESH_TOKEN.toString()),
+            registry.getValidator(GrantType.REFRESH_TOKEN.toString()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectNullValidator() {
+        new ValidatorRegistry.Builder().register(TEST_GRANT_TYPE, (OAuthValidator<HttpServletRequest>) null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectEmptyType() {
+        new ValidatorRegistry.Builder().register("", new PasswordValidator());
+    }
+
+    @Test
+    public void testProvidersAreLoadedPerRequestClass() {
+        ValidatorRegistry token = new ValidatorRegistry.Builder()
+            .registerProviders(OAuthTokenRequest.class)
+            .build();
+        ValidatorRegistry authz = new ValidatorRegistry.Builder()
+            .registerProviders(OAuthAuthzRequest.class)
+            .build();
+
+        assertSame(TEST_VALIDATOR, token.getValidator(TEST_GRANT_TYPE));
+        assertNull(authz.getValidator(TEST_GRANT_TYPE));
+    }
+
+    public static final class TestValidatorProvider implements OAuthValidatorProvider {
+
+        @Override
+        public void registerValidators(Class<? extends OAuthRequest> requestClass,
+                                       ValidatorRegistry.Builder registry) {
+            if (requestClass == OAuthTokenRequest.class) {
+                registry.register(TEST_GRANT_TYPE, TEST_VALIDATOR);
+            }
+        }
+
+    }
+
+    private static final class TestValidator extends AbstractValidator<HttpServletRequest> {
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.common.domain.credentials;
+
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Client id and secret sent with HTTP Basic authentication, see section 2.3.1 of
+ * <a href="http://tools.ietf.org/html/rfc6749#section-2.3.1">RFC 6749</a>.
+ */
+public final class ClientCredentials {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String BASIC = "basic";
+
+    private static final byte[] BASE64_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(BASE64_VALUES, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_VALUES[alphabet.charAt(i)] = (byte) i;
+        }
+        // the URL safe alphabet is tolerated, as it always was
+        BASE64_VALUES['-'] = 62;
+        BASE64_VALUES['_'] = 63;
+    }
+
+    private final String clientId;
+
+    private final String clientSecret;
+
+    public ClientCredentials(String clientId, String clientSecret) {
+        this.clientId = clientId;
+        this.clientSecret = clientSecret;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public String getClientSecret() {
+        return clientSecret;
+    }
+
+    /**
+     * Parses an <code>Authorization: Basic</code> header value.
+     * <p/>
+     * The credentials are base64 decoded straight from the header and read as UTF-8; the client id ends at the
+     * first colon.
+     *
+     * @param authorization the <code>Authorization</code> header value, may be <code>null</code>
+     * @return the credentials, <code>null</code> if the header is not a Basic one or the client id or the
+     *         secret is missing
+     */
+    public static ClientCredentials fromBasicAuthorization(String authorization) {
+        if (authorization == null
+            || authorization.length() <= BASIC.length() + 1
+            || authorization.charAt(BASIC.length()) != ' '
+            || !authorization.regionMatches(true, 0, BASIC, 0, BASIC.length())) {
+            return null;
+        }
+
+        int start = BASIC.length() + 1;
+        int end = authorization.length();
+        while (end > start && authorization.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (end == start) {
+            return null;
+        }
+
+        byte[] decoded = new byte[(end - start) * 3 / 4];
+        int length = 0;
+        int bits = 0;
+        int bitCount = 0;
+        for (int i = start; i < end; i++) {
+            char c = authorization.charAt(i);
+            if (c == ' ') {
+                // a single space separates the scheme from the credentials
+                return null;
+            }
+            if (c == '=') {
+                break;
+            }
+            int value = c < BASE64_VALUES.length ? BASE64_VALUES[c] : -1;
+            if (value < 0) {
+                continue;
+            }
+            bits = (bits << 6) | value;
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                decoded[length++] = (byte) (bits >> bitCount);
+            }
+        }
+
+        // the colon can't be part of a multi-byte UTF-8 sequence
+        int colon = 0;
+        while (colon < length && decoded[colon] != ':') {
+            colon++;
+        }
+        if (colon == 0 || colon >= length - 1) {
+            return null;
+        }
+        return new ClientCredentials(new String(decoded, 0, colon, UTF_8),
+                                     new String(decoded, colon + 1, length - colon - 1, UTF_8));
+    }
+
+}
@@ -21,6 +21,7 @@
 
 package org.apache.oltu.oauth2.common.exception;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -42,7 +43,12 @@ public class OAuthProblemException extends Exception {
 
     private int responseStatus;
 
-    private Map<String, String> parameters = new HashMap<String, String>();
+    /**
+     * Created on the first parameter set, most problems don't have any.
+     */
+    private Map<String, String> parameters;
+
+    private final boolean shared;
 
     protected OAuthProblemException(String error) {
         this(error, "");
@@ -52,6 +58,19 @@ public class OAuthProblemException extends Exception {
         super(error + " " + description);
         this.description = description;
         this.error = error;
+        this.shared = false;
+    }
+
+    /**
+     * Creates a problem without stack trace, nor suppressed exceptions.
+     *
+     * @param shared <code>true</code> for an immutable problem, which can be thrown again and again
+     */
+    protected OAuthProblemException(String error, String description, boolean shared) {
+        super(null, null, false, false);
+        this.description = description;
+        this.error = error;
+        this.shared = shared;
     }
 
 
@@ -63,32 +82,70 @@ public class OAuthProblemException extends Exception {
         return new OAuthProblemException(error, description);
     }
 
+    /**
+     * Creates a problem without filling in its stack trace, for the problems reported on every rejected
+     * request, where the stack trace is never looked at and costs more than the rest of the response.
+     */
+    public static OAuthProblemException stackless(String error, String description) {
+        return new OAuthProblemException(error, description, false);
+    }
+
+    /**
+     * Creates an immutable problem without stack trace, meant to be kept in a constant and thrown each time
+     * the same problem happens. Its setters throw an {@link IllegalStateException}.
+     */
+    public static OAuthProblemException shared(String error, String description) {
+        return new OAuthProblemException(error, description, true);
+    }
+
+    /**
+     * @return <code>true</code> if this problem is immutable and may be thrown by several requests at once
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    private void checkNotShared() {
+        if (shared) {
+            throw new IllegalStateException("Shared OAuth problem can't be modified: " + getMessage());
+        }
+    }
+
     public OAuthProblemException description(String description) {
+        checkNotShared();
         this.description = description;
         return this;
     }
 
     public OAuthProblemException uri(String uri) {
+        checkNotShared();
         this.uri = uri;
         return this;
     }
 
     public OAuthProblemException state(String state) {
+        checkNotShared();
         this.state = state;
         return this;
     }
 
     public OAuthProblemException scope(String scope) {
+        checkNotShared();
         this.scope = scope;
         return this;
     }
 
     public OAuthProblemException responseStatus(int responseStatus) {
+        checkNotShared();
         this.responseStatus = responseStatus;
         return this;
     }
 
     public OAuthProblemException setParameter(String name, String value) {
+        checkNotShared();
+        if (parameters == null) {
+            parameters = new HashMap<String, String>();
+        }
         parameters.put(name, value);
         return this;
     }
@@ -118,10 +175,16 @@ public class OAuthProblemException extends Exception {
     }
 
     public String get(String name) {
-        return parameters.get(name);
+        return parameters != null ? parameters.get(name) : null;
     }
 
     public Map<String, String> getParameters() {
+        if (parameters == null) {
+            if (shared) {
+                return Collections.emptyMap();
+            }
+            parameters = new HashMap<String, String>();
+        }
         return parameters;
     }
 
@@ -130,6 +193,7 @@ public class OAuthProblemException extends Exception {
     }
 
     public void setRedirectUri(String redirectUri) {
+        checkNotShared();
         this.redirectUri = redirectUri;
     }
 
@@ -171,7 +235,7 @@ public class OAuthProblemException extends Exception {
                 ", scope='" + scope + '\'' +
                 ", redirectUri='" + redirectUri + '\'' +
                 ", responseStatus=" + responseStatus +
-                ", parameters=" + parameters +
+                ", parameters=" + (parameters != null ? parameters : Collections.emptyMap()) +
                 '}';
     }
 }
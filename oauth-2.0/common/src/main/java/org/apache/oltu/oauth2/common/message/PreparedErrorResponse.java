@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oltu.oauth2.common.message;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An error response serialized once and reused for every request rejected with the same error.
+ * <p/>
+ * The status, headers and body are plain immutable values: they can be written directly to the servlet
+ * response, or copied into a new {@link OAuthResponse} with {@link #toResponse()}, without building the
+ * response parameters, the <code>WWW-Authenticate</code> header or the JSON body again.
+ */
+public final class PreparedErrorResponse {
+
+    private final int responseStatus;
+
+    private final Map<String, String> headers;
+
+    private final String body;
+
+    private PreparedErrorResponse(int responseStatus, Map<String, String> headers, String body) {
+        this.responseStatus = responseStatus;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    /**
+     * Takes a snapshot of a built response, later changes of the response are not seen.
+     */
+    public static PreparedErrorResponse of(OAuthResponse response) {
+        if (response == null) {
+            throw new IllegalArgumentException("Response is required");
+        }
+        Map<String, String> headers = new HashMap<String, String>(response.getHeaders());
+        return new PreparedErrorResponse(response.getResponseStatus(), Collections.unmodifiableMap(headers),
+                                         response.getBody());
+    }
+
+    public int getResponseStatus() {
+        return responseStatus;
+    }
+
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * @return a new response with the same status, headers and body, that callers may modify
+     */
+    public OAuthResponse toResponse() {
+        OAuthResponse response = new OAuthResponse(null, responseStatus);
+        response.getHeaders().putAll(headers);
+        response.setBody(body);
+        return response;
+    }
+
+}
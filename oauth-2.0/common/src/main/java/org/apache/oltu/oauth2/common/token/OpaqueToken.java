@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.common.token;
+
+/**
+ * The information carried by a self-contained opaque token, see {@link OpaqueTokenFormat}.
+ */
+public final class OpaqueToken {
+
+    /**
+     * What a token can be used for, only access tokens are accepted by resource servers.
+     */
+    public enum Type {
+
+        ACCESS(1),
+
+        REFRESH(2),
+
+        /**
+         * A stateless code can be replayed until it expires: the authorization
+         * server must record the redeemed ones and reject their reuse.
+         */
+        CODE(3);
+
+        private final int code;
+
+        Type(int code) {
+            this.code = code;
+        }
+
+        /**
+         * Returns the byte identifying the type in the binary format.
+         */
+        public int getCode() {
+            return code;
+        }
+
+        /**
+         * Returns the type identified by the given byte, null if unknown.
+         */
+        public static Type fromCode(int code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            return null;
+        }
+
+    }
+
+    private final int keyId;
+
+    private final Type type;
+
+    private final String clientId;
+
+    private final long expiresAt;
+
+    private final long scopes;
+
+    /**
+     * @param keyId the id of the key the token is authenticated with, in the [0, 255] range.
+     * @param type what the token can be used for.
+     * @param clientId the client id, at most 255 bytes once UTF-8 encoded.
+     * @param expiresAt the expiration time, in seconds since the epoch.
+     * @param scopes the granted scopes bitmap, see {@link OpaqueTokenFormat#toScopeBitmap}.
+     */
+    public OpaqueToken(int keyId, Type type, String clientId, long expiresAt, long scopes) {
+        if (keyId < 0 || keyId > OpaqueTokenFormat.MAX_KEY_ID) {
+            throw new IllegalArgumentException("Key id must be in the [0, " + OpaqueTokenFormat.MAX_KEY_ID + "] range.");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Null token type not allowed.");
+        }
+        if (clientId == null) {
+            throw new IllegalArgumentException("Null client id not allowed.");
+        }
+        if (expiresAt < 0 || expiresAt > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException("Expiration time out of range: " + expiresAt);
+        }
+        this.keyId = keyId;
+        this.type = type;
+        this.clientId = clientId;
+        this.expiresAt = expiresAt;
+        this.scopes = scopes;
+    }
+
+    public int getKeyId() {
+        return keyId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    /**
+     * Returns the expiration time, in seconds since the epoch.
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Returns the granted scopes bitmap.
+     */
+    public long getScopes() {
+        return scopes;
+    }
+
+    @Override
+    public String toString() {
+        return "OpaqueToken [keyId=" + keyId
+               + ", type=" + type
+               + ", clientId=" + clientId
+               + ", expiresAt=" + expiresAt
+               + ", scopes=" + Long.toHexString(scopes) + "]";
+    }
+
+}
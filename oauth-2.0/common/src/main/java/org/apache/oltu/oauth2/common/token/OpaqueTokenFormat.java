@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.common.token;
+
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Reads and writes self-contained opaque tokens: a compact binary structure
+ * authenticated with <code>HMAC-SHA256</code> and base64url encoded, which
+ * resource servers can check locally, without any lookup nor JSON parsing.
+ *
+ * The binary layout, multi-byte values are big-endian:
+ * <pre>
+ * offset  length  field
+ *      0       1  version, 2
+ *      1       1  key id
+ *      2       1  token type, see {@link OpaqueToken.Type#getCode()}
+ *      3       4  expiration time, unsigned seconds since the epoch
+ *      7       8  scopes bitmap
+ *     15       8  nonce
+ *     23       1  client id length, n
+ *     24       n  client id, UTF-8
+ *   24+n      16  HMAC-SHA256 of the previous bytes, truncated to 128 bits
+ * </pre>
+ *
+ * The token type is authenticated with the rest of the token, so that a
+ * refresh token or an authorization code can't be presented as an access
+ * token; version 1 tokens, which had none, are rejected.
+ *
+ * Instances are immutable and thread-safe. Each thread keeps a small LRU set
+ * of initialized {@link Mac}s, shared by all the instances and matched by
+ * secret content, so that rebuilding a format, e.g. on key rotation, neither
+ * reinitializes nor leaks per-thread engines.
+ */
+public final class OpaqueTokenFormat {
+
+    public static final int MAX_KEY_ID = 255;
+
+    /**
+     * The number of scopes a bitmap can hold.
+     */
+    public static final int MAX_SCOPES = 64;
+
+    public static final int NONCE_LENGTH = 8;
+
+    private static final int VERSION = 2;
+
+    private static final int HEADER_LENGTH = 24;
+
+    private static final int MAC_LENGTH = 16;
+
+    private static final int MAX_CLIENT_ID_LENGTH = 255;
+
+    private static final int MIN_SECRET_LENGTH = 32;
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /**
+     * The shortest and longest encoded tokens.
+     */
+    private static final int MIN_ENCODED_LENGTH = encodedLength(HEADER_LENGTH + MAC_LENGTH);
+
+    private static final int MAX_ENCODED_LENGTH = encodedLength(HEADER_LENGTH + MAX_CLIENT_ID_LENGTH + MAC_LENGTH);
+
+    /**
+     * Upper bound of cached engines per thread, keeps the footprint small
+     * when keys are rotated.
+     */
+    private static final int MAX_MACS_PER_THREAD = 16;
+
+    /**
+     * Per-thread engines keyed by secret, {@link SecretKeySpec} compares key contents.
+     */
+    private static final ThreadLocal<Map<SecretKeySpec, Mac>> MACS = new ThreadLocal<Map<SecretKeySpec, Mac>>() {
+
+        @Override
+        protected Map<SecretKeySpec, Mac> initialValue() {
+            return new LinkedHashMap<SecretKeySpec, Mac>(MAX_MACS_PER_THREAD, 0.75f, true) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<SecretKeySpec, Mac> eldest) {
+                    return size() > MAX_MACS_PER_THREAD;
+                }
+
+            };
+        }
+
+    };
+
+    private final SecretKeySpec[] keys = new SecretKeySpec[MAX_KEY_ID + 1];
+
+    /**
+     * @param secrets the HMAC secrets, at least 256 bits long, indexed by key id.
+     */
+    public OpaqueTokenFormat(Map<Integer, byte[]> secrets) {
+        if (secrets == null || secrets.isEmpty()) {
+            throw new IllegalArgumentException("At least one secret is required.");
+        }
+        for (Entry<Integer, byte[]> secret : secrets.entrySet()) {
+            Integer keyId = secret.getKey();
+            if (keyId == null || keyId < 0 || keyId > MAX_KEY_ID) {
+                throw new IllegalArgumentException("Key id must be in the [0, " + MAX_KEY_ID + "] range.");
+            }
+            if (secret.getValue() == null || secret.getValue().length < MIN_SECRET_LENGTH) {
+                throw new IllegalArgumentException("Secret of key " + keyId + " must be at least 256 bits long.");
+            }
+            keys[keyId] = new SecretKeySpec(secret.getValue(), MAC_ALGORITHM);
+        }
+    }
+
+    /**
+     * Serializes and authenticates the given token.
+     *
+     * @param token the token, its key id must have a secret.
+     * @param nonce {@link #NONCE_LENGTH} bytes distinguishing tokens issued
+     *        with identical content.
+     * @return the base64url encoded token.
+     */
+    public String write(OpaqueToken token, byte[] nonce) {
+        if (token == null) {
+            throw new IllegalArgumentException("Null token not allowed.");
+        }
+        if (nonce == null || nonce.length != NONCE_LENGTH) {
+            throw new IllegalArgumentException("Nonce must be " + NONCE_LENGTH + " bytes long.");
+        }
+        Mac mac = getMac(token.getKeyId());
+        if (mac == null) {
+            throw new IllegalArgumentException("No secret configured for key " + token.getKeyId());
+        }
+
+        byte[] clientId = token.getClientId().getBytes(UTF_8);
+        if (clientId.length > MAX_CLIENT_ID_LENGTH) {
+            throw new IllegalArgumentException("Client id must be at most " + MAX_CLIENT_ID_LENGTH + " bytes long.");
+        }
+
+        byte[] bytes = new byte[HEADER_LENGTH + clientId.length + MAC_LENGTH];
+        bytes[0] = VERSION;
+        bytes[1] = (byte) token.getKeyId();
+        bytes[2] = (byte) token.getType().getCode();
+        putInt(bytes, 3, (int) token.getExpiresAt());
+        putInt(bytes, 7, (int) (token.getScopes() >>> 32));
+        putInt(bytes, 11, (int) token.getScopes());
+        System.arraycopy(nonce, 0, bytes, 15, NONCE_LENGTH);
+        bytes[23] = (byte) clientId.length;
+        System.arraycopy(clientId, 0, bytes, HEADER_LENGTH, clientId.length);
+
+        int length = HEADER_LENGTH + clientId.length;
+        mac.update(bytes, 0, length);
+        System.arraycopy(mac.doFinal(), 0, bytes, length, MAC_LENGTH);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Parses the given token and checks its authenticity; the expiration time
+     * is not verified.
+     *
+     * @param token the base64url encoded token.
+     * @return the token content, whatever its type, null if the token is
+     *         malformed, authenticated with an unknown key or its MAC doesn't
+     *         match.
+     */
+    public OpaqueToken read(String token) {
+        if (token == null || token.length() < MIN_ENCODED_LENGTH || token.length() > MAX_ENCODED_LENGTH) {
+            return null;
+        }
+
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        if (bytes.length < HEADER_LENGTH + MAC_LENGTH || bytes[0] != VERSION) {
+            return null;
+        }
+        int clientIdLength = bytes[23] & 0xFF;
+        int length = HEADER_LENGTH + clientIdLength;
+        if (bytes.length != length + MAC_LENGTH) {
+            return null;
+        }
+
+        int keyId = bytes[1] & 0xFF;
+        Mac mac = getMac(keyId);
+        if (mac == null) {
+            return null;
+        }
+        mac.update(bytes, 0, length);
+        byte[] expected = mac.doFinal();
+
+        // constant time comparison of the truncated MAC
+        int difference = 0;
+        for (int i = 0; i < MAC_LENGTH; i++) {
+            difference |= expected[i] ^ bytes[length + i];
+        }
+        if (difference != 0) {
+            return null;
+        }
+
+        OpaqueToken.Type type = OpaqueToken.Type.fromCode(bytes[2] & 0xFF);
+        if (type == null) {
+            return null;
+        }
+        long expiresAt = getInt(bytes, 3) & 0xFFFFFFFFL;
+        long scopes = ((long) getInt(bytes, 7) << 32) | (getInt(bytes, 11) & 0xFFFFFFFFL);
+        return new OpaqueToken(keyId,
+                               type,
+                               new String(bytes, HEADER_LENGTH, clientIdLength, UTF_8),
+                               expiresAt,
+                               scopes);
+    }
+
+    /**
+     * Maps scope names to a bitmap, the bit of each scope being its position
+     * in the shared list of scope names.
+     *
+     * @throws IllegalArgumentException if a scope is not in the list.
+     */
+    public static long toScopeBitmap(List<String> scopeNames, Collection<String> scopes) {
+        if (scopeNames.size() > MAX_SCOPES) {
+            throw new IllegalArgumentException("At most " + MAX_SCOPES + " scopes can be mapped.");
+        }
+        long bitmap = 0;
+        if (scopes != null) {
+            for (String scope : scopes) {
+                int bit = scopeNames.indexOf(scope);
+                if (bit == -1) {
+                    throw new IllegalArgumentException("Unknown scope: " + scope);
+                }
+                bitmap |= 1L << bit;
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * Maps a bitmap back to the scope names, bits with no scope are ignored.
+     */
+    public static Set<String> toScopes(List<String> scopeNames, long bitmap) {
+        if (bitmap == 0) {
+            return Collections.emptySet();
+        }
+        Set<String> scopes = new LinkedHashSet<String>();
+        for (int bit = 0; bit < scopeNames.size() && bit < MAX_SCOPES; bit++) {
+            if ((bitmap & (1L << bit)) != 0) {
+                scopes.add(scopeNames.get(bit));
+            }
+        }
+        return scopes;
+    }
+
+    // ---------- Private methods ---------------------------------------------
+
+    private Mac getMac(int keyId) {
+        SecretKeySpec key = keys[keyId];
+        if (key == null) {
+            return null;
+        }
+
+        Map<SecretKeySpec, Mac> threadMacs = MACS.get();
+        Mac mac = threadMacs.get(key);
+        if (mac == null) {
+            try {
+                mac = Mac.getInstance(MAC_ALGORITHM);
+                mac.init(key);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(MAC_ALGORITHM + " not available", e);
+            }
+            threadMacs.put(key, mac);
+        }
+        return mac;
+    }
+
+    private static int encodedLength(int length) {
+        return (length * 4 + 2) / 3;
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static int getInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 24
+               | (bytes[offset + 1] & 0xFF) << 16
+               | (bytes[offset + 2] & 0xFF) << 8
+               | (bytes[offset + 3] & 0xFF);
+    }
+
+}
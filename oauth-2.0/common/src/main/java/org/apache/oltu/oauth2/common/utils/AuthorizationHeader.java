@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.common.utils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.oltu.oauth2.common.OAuth;
+
+/**
+ * Immutable parsed view of an <code>Authorization</code> (or <code>WWW-Authenticate</code>) header value:
+ * the authentication scheme, the credentials following it and the <code>name="value"</code> parameters found
+ * in the credentials.
+ * <p/>
+ * The header is tokenized by hand, following the same grammar as the regular expressions it replaces, so
+ * {@link OAuthUtils#getAuthzMethod(String)}, {@link OAuthUtils#getAuthHeaderField(String)} and
+ * {@link OAuthUtils#decodeOAuthHeader(String)} keep their behaviour. Use {@link #of(HttpServletRequest)} to
+ * share a single parse between the validators and the token extractors handling the same request.
+ */
+public final class AuthorizationHeader {
+
+    /**
+     * Name of the request attribute the parsed <code>Authorization</code> header is cached under.
+     */
+    public static final String REQUEST_ATTRIBUTE = AuthorizationHeader.class.getName();
+
+    private final String value;
+
+    private final String scheme;
+
+    private final String credentials;
+
+    private final Map<String, String> parameters;
+
+    private AuthorizationHeader(String value, String scheme, String credentials, Map<String, String> parameters) {
+        this.value = value;
+        this.scheme = scheme;
+        this.credentials = credentials;
+        this.parameters = parameters;
+    }
+
+    /**
+     * Returns the parsed <code>Authorization</code> header of the given request, parsing it on first use and
+     * caching it as the {@link #REQUEST_ATTRIBUTE} request attribute.
+     *
+     * @return the parsed header, <code>null</code> if the request has no or an empty <code>Authorization</code>
+     *         header
+     */
+    public static AuthorizationHeader of(HttpServletRequest request) {
+        String header = request.getHeader(OAuth.HeaderType.AUTHORIZATION);
+        if (OAuthUtils.isEmpty(header)) {
+            return null;
+        }
+        Object cached = request.getAttribute(REQUEST_ATTRIBUTE);
+        if (cached instanceof AuthorizationHeader && header.equals(((AuthorizationHeader) cached).value)) {
+            return (AuthorizationHeader) cached;
+        }
+        AuthorizationHeader parsed = parse(header);
+        request.setAttribute(REQUEST_ATTRIBUTE, parsed);
+        return parsed;
+    }
+
+    /**
+     * Parses a header value. When the value is not a scheme followed by white space and credentials, the
+     * returned view has neither a scheme nor credentials.
+     *
+     * @param header the header value, may not be <code>null</code>
+     */
+    public static AuthorizationHeader parse(String header) {
+        final int length = header.length();
+
+        int schemeStart = 0;
+        while (schemeStart < length && isWhitespace(header.charAt(schemeStart))) {
+            schemeStart++;
+        }
+        int schemeEnd = schemeStart;
+        while (schemeEnd < length && isWordChar(header.charAt(schemeEnd))) {
+            schemeEnd++;
+        }
+
+        int credentialsStart;
+        if (schemeEnd < length && isWhitespace(header.charAt(schemeEnd))) {
+            credentialsStart = schemeEnd;
+            while (credentialsStart < length && isWhitespace(header.charAt(credentialsStart))) {
+                credentialsStart++;
+            }
+        } else if (schemeStart > 0) {
+            // the leading white space separates an empty scheme from the credentials
+            schemeEnd = schemeStart;
+            credentialsStart = schemeStart;
+        } else {
+            return new AuthorizationHeader(header, null, null, Collections.<String, String>emptyMap());
+        }
+
+        for (int i = credentialsStart; i < length; i++) {
+            if (isLineTerminator(header.charAt(i))) {
+                return new AuthorizationHeader(header, null, null, Collections.<String, String>emptyMap());
+            }
+        }
+
+        String credentials = header.substring(credentialsStart);
+        return new AuthorizationHeader(header,
+                                       header.substring(schemeStart, schemeEnd),
+                                       credentials,
+                                       parseParameters(credentials));
+    }
+
+    /**
+     * @return the authentication scheme, <code>null</code> if the header could not be parsed
+     */
+    public String getScheme() {
+        return scheme;
+    }
+
+    /**
+     * @return whether the authentication scheme is the given one, ignoring case
+     */
+    public boolean isScheme(String scheme) {
+        return scheme.equalsIgnoreCase(this.scheme);
+    }
+
+    /**
+     * @return everything following the scheme, <code>null</code> if the header could not be parsed
+     */
+    public String getCredentials() {
+        return credentials;
+    }
+
+    /**
+     * @return the percent-decoded value of the given <code>name="value"</code> parameter, <code>null</code> if
+     *         absent
+     */
+    public String getParameter(String name) {
+        return parameters.get(name);
+    }
+
+    /**
+     * @return the percent-decoded <code>name="value"</code> parameters, as an unmodifiable map
+     */
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Comma separated <code>name="value"</code> pairs, names can't contain white space and values can't contain
+     * quotes; other parts of the credentials, like a bearer token, are skipped.
+     */
+    private static Map<String, String> parseParameters(String credentials) {
+        if (credentials.indexOf('"') < 0) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, String> parameters = new HashMap<String, String>();
+        final int length = credentials.length();
+        int start = 0;
+        while (start <= length) {
+            int comma = credentials.indexOf(',', start);
+            int end = comma < 0 ? length : comma;
+
+            // white space around the commas is not part of the pairs
+            int pairEnd = end;
+            if (comma >= 0) {
+                while (pairEnd > start && isWhitespace(credentials.charAt(pairEnd - 1))) {
+                    pairEnd--;
+                }
+            }
+            parseParameter(credentials, start, pairEnd, parameters);
+
+            if (comma < 0) {
+                break;
+            }
+            start = comma + 1;
+            while (start < length && isWhitespace(credentials.charAt(start))) {
+                start++;
+            }
+        }
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    private static void parseParameter(String credentials, int start, int end, Map<String, String> parameters) {
+        if (end - start < 2 || credentials.charAt(end - 1) != '"') {
+            return;
+        }
+        int valueStart = credentials.lastIndexOf('"', end - 2) + 1;
+        if (valueStart <= start) {
+            return;
+        }
+        int i = valueStart - 1;
+        while (i > start && isWhitespace(credentials.charAt(i - 1))) {
+            i--;
+        }
+        if (i == start || credentials.charAt(i - 1) != '=') {
+            return;
+        }
+        int nameEnd = i - 1;
+        while (nameEnd > start && isWhitespace(credentials.charAt(nameEnd - 1))) {
+            nameEnd--;
+        }
+        for (int j = start; j < nameEnd; j++) {
+            if (isWhitespace(credentials.charAt(j))) {
+                return;
+            }
+        }
+        parameters.put(OAuthUtils.decodePercent(credentials.substring(start, nameEnd)),
+                       OAuthUtils.decodePercent(credentials.substring(valueStart, end - 1)));
+    }
+
+    // \s in java.util.regex
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    // \w in java.util.regex
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    // characters not matched by . in java.util.regex
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+}
@@ -33,7 +33,6 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonNumber;
 import javax.json.JsonObject;
@@ -42,7 +41,8 @@ import javax.json.JsonString;
 import javax.json.JsonStructure;
 import javax.json.JsonValue;
 import javax.json.stream.JsonGenerator;
-import javax.json.stream.JsonGeneratorFactory;
+
+import org.apache.oltu.commons.json.JsonProviders;
 
 /**
  *
@@ -51,11 +51,9 @@ import javax.json.stream.JsonGeneratorFactory;
  */
 public final class JSONUtils {
 
-    private static final JsonGeneratorFactory GENERATOR_FACTORY = Json.createGeneratorFactory(null);
-
     public static String buildJSON(Map<String, Object> params) {
         final StringWriter stringWriter = new StringWriter();
-        final JsonGenerator generator = GENERATOR_FACTORY.createGenerator(stringWriter);
+        final JsonGenerator generator = JsonProviders.getGeneratorFactory().createGenerator(stringWriter);
 
         generator.writeStartObject();
 
@@ -130,7 +128,7 @@ public final class JSONUtils {
         final Map<String, Object> params = new HashMap<String, Object>();
 
         StringReader reader = new StringReader(jsonBody);
-        JsonReader jsonReader = Json.createReader(reader);
+        JsonReader jsonReader = JsonProviders.getReaderFactory().createReader(reader);
         JsonStructure structure = jsonReader.read();
 
         if (structure == null || structure instanceof JsonArray) {
@@ -37,13 +37,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import javax.servlet.http.HttpServletRequest;
 
-import org.apache.commons.codec.binary.Base64;
 import org.apache.oltu.oauth2.common.OAuth;
+import org.apache.oltu.oauth2.common.domain.credentials.ClientCredentials;
 import org.apache.oltu.oauth2.common.error.OAuthError;
 import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
 import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
@@ -66,8 +64,6 @@ public final class OAuthUtils {
 
     public static final String AUTH_SCHEME = OAuth.OAUTH_HEADER_NAME;
 
-    private static final Pattern OAUTH_HEADER = Pattern.compile("\\s*(\\w*)\\s+(.*)");
-    private static final Pattern NVP = Pattern.compile("(\\S*)\\s*\\=\\s*\"([^\"]*)\"");
 
     public static final String MULTIPART = "multipart/";
 
@@ -158,14 +154,14 @@ public final class OAuthUtils {
     }
 
     /**
-     * Creates invalid_request exception with given message
+     * Creates invalid_request exception with given message, without stack trace since it is raised by every
+     * rejected request; unlike a shared problem it can still be customized by the caller.
      *
      * @param message error message
      * @return OAuthException
      */
     public static OAuthProblemException handleOAuthProblemException(String message) {
-        return OAuthProblemException.error(OAuthError.TokenResponse.INVALID_REQUEST)
-            .description(message);
+        return OAuthProblemException.stackless(OAuthError.TokenResponse.INVALID_REQUEST, message);
     }
 
     /**
@@ -176,7 +172,7 @@ public final class OAuthUtils {
      */
 
     public static OAuthProblemException handleMissingParameters(Set<String> missingParams) {
-        StringBuffer sb = new StringBuffer("Missing parameters: ");
+        StringBuilder sb = new StringBuilder("Missing parameters: ");
         if (!OAuthUtils.isEmpty(missingParams)) {
             for (String missingParam : missingParams) {
                 sb.append(missingParam).append(" ");
@@ -193,7 +189,7 @@ public final class OAuthUtils {
 
     public static OAuthProblemException handleNotAllowedParametersOAuthException(
         List<String> notAllowedParams) {
-        StringBuffer sb = new StringBuffer("Not allowed parameters: ");
+        StringBuilder sb = new StringBuilder("Not allowed parameters: ");
         if (notAllowedParams != null) {
             for (String notAllowed : notAllowedParams) {
                 sb.append(notAllowed).append(" ");
@@ -307,11 +303,9 @@ public final class OAuthUtils {
     public static String getAuthHeaderField(String authHeader) {
 
         if (authHeader != null) {
-            Matcher m = OAUTH_HEADER.matcher(authHeader);
-            if (m.matches()) {
-                if (AUTH_SCHEME.equalsIgnoreCase(m.group(1))) {
-                    return m.group(2);
-                }
+            AuthorizationHeader header = AuthorizationHeader.parse(authHeader);
+            if (header.isScheme(AUTH_SCHEME)) {
+                return header.getCredentials();
             }
         }
         return null;
@@ -320,18 +314,9 @@ public final class OAuthUtils {
     public static Map<String, String> decodeOAuthHeader(String header) {
         Map<String, String> headerValues = new HashMap<String, String>();
         if (header != null) {
-            Matcher m = OAUTH_HEADER.matcher(header);
-            if (m.matches()) {
-                if (AUTH_SCHEME.equalsIgnoreCase(m.group(1))) {
-                    for (String nvp : m.group(2).split("\\s*,\\s*")) {
-                        m = NVP.matcher(nvp);
-                        if (m.matches()) {
-                            String name = decodePercent(m.group(1));
-                            String value = decodePercent(m.group(2));
-                            headerValues.put(name, value);
-                        }
-                    }
-                }
+            AuthorizationHeader parsed = AuthorizationHeader.parse(header);
+            if (parsed.isScheme(AUTH_SCHEME)) {
+                headerValues.putAll(parsed.getParameters());
             }
         }
         return headerValues;
@@ -347,31 +332,11 @@ public final class OAuthUtils {
      * @return a {@link String[]} if the header could be decoded into a non null username and password or null.
      */
     public static String[] decodeClientAuthenticationHeader(String authenticationHeader) {
-        if (isEmpty(authenticationHeader)) {
-            return null;
-        }
-        String[] tokens = authenticationHeader.split(" ");
-        if (tokens.length != 2) {
+        ClientCredentials credentials = ClientCredentials.fromBasicAuthorization(authenticationHeader);
+        if (credentials == null) {
             return null;
         }
-        String authType = tokens[0];
-        if (!"basic".equalsIgnoreCase(authType)) {
-            return null;
-        }
-        String encodedCreds = tokens[1];
-        return decodeBase64EncodedCredentials(encodedCreds);
-    }
-
-    private static String[] decodeBase64EncodedCredentials(String encodedCreds) {
-        String decodedCreds = new String(Base64.decodeBase64(encodedCreds));
-        String[] creds = decodedCreds.split(":", 2);
-        if (creds.length != 2) {
-          return null;
-        }
-        if (!OAuthUtils.isEmpty(creds[0]) && !OAuthUtils.isEmpty(creds[1])) {
-          return creds;
-        }
-        return null;
+        return new String[] {credentials.getClientId(), credentials.getClientSecret()};
     }
 
     /**
@@ -444,11 +409,7 @@ public final class OAuthUtils {
 
     public static String getAuthzMethod(String header) {
         if (header != null) {
-            Matcher m = OAUTH_HEADER.matcher(header);
-            if (m.matches()) {
-                return m.group(1);
-
-            }
+            return AuthorizationHeader.parse(header).getScheme();
         }
         return null;
     }
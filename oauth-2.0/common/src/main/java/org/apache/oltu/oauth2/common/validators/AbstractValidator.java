@@ -21,7 +21,9 @@
 
 package org.apache.oltu.oauth2.common.validators;
 
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -30,6 +32,7 @@ import java.util.Set;
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.oltu.oauth2.common.OAuth;
+import org.apache.oltu.oauth2.common.domain.credentials.ClientCredentials;
 import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
 import org.apache.oltu.oauth2.common.utils.OAuthUtils;
 
@@ -40,11 +43,18 @@ import org.apache.oltu.oauth2.common.utils.OAuthUtils;
  */
 public abstract class AbstractValidator<T extends HttpServletRequest> implements OAuthValidator<T> {
 
+    /*
+     * The parameter constraints are compiled into a ValidationPlan on first use, along with a copy of them:
+     * the plan is compiled again whenever they no longer match that copy, so subclasses changing them after
+     * the constructor, for example depending on the request, are still taken into account.
+     */
     protected List<String> requiredParams = new ArrayList<String>();
     protected Map<String, String[]> optionalParams = new HashMap<String, String[]>();
     protected List<String> notAllowedParams = new ArrayList<String>();
     protected boolean enforceClientAuthentication;
 
+    private volatile CompiledPlan compiledPlan;
+
     @Override
     public void validateMethod(T request) throws OAuthProblemException {
         if (!request.getMethod().equals(OAuth.HttpMethod.POST)) {
@@ -63,6 +73,12 @@ public abstract class AbstractValidator<T extends HttpServletRequest> implements
 
     @Override
     public void validateRequiredParameters(T request) throws OAuthProblemException {
+        final ValidationPlan plan = getValidationPlan();
+        if (plan != null) {
+            plan.validateRequiredParameters(request, 0L);
+            return;
+        }
+
         final Set<String> missingParameters = new HashSet<String>();
         for (String requiredParam : requiredParams) {
             String val = request.getParameter(requiredParam);
@@ -77,6 +93,12 @@ public abstract class AbstractValidator<T extends HttpServletRequest> implements
 
     @Override
     public void validateOptionalParameters(T request) throws OAuthProblemException {
+        final ValidationPlan plan = getValidationPlan();
+        if (plan != null) {
+            plan.validateOptionalParameters(request, 0L);
+            return;
+        }
+
         final Set<String> missingParameters = new HashSet<String>();
 
         for (Map.Entry<String, String[]> requiredParam : optionalParams.entrySet()) {
@@ -102,6 +124,12 @@ public abstract class AbstractValidator<T extends HttpServletRequest> implements
 
     @Override
     public void validateNotAllowedParameters(T request) throws OAuthProblemException {
+        final ValidationPlan plan = getValidationPlan();
+        if (plan != null) {
+            plan.validateNotAllowedParameters(request, 0L);
+            return;
+        }
+
         List<String> notAllowedParameters = new ArrayList<String>();
         for (String requiredParam : notAllowedParams) {
             String val = request.getParameter(requiredParam);
@@ -117,22 +145,25 @@ public abstract class AbstractValidator<T extends HttpServletRequest> implements
     @Override
     public void validateClientAuthenticationCredentials(T request) throws OAuthProblemException {
         if (enforceClientAuthentication) {
-            Set<String> missingParameters = new HashSet<String>();
+            Set<String> missingParameters = null;
             String clientAuthHeader = request.getHeader(OAuth.HeaderType.AUTHORIZATION);
-            String[] clientCreds = OAuthUtils.decodeClientAuthenticationHeader(clientAuthHeader);
 
             // Only fallback to params if the auth header is not correct. Don't allow a mix of auth header vs params
-            if (clientCreds == null || OAuthUtils.isEmpty(clientCreds[0]) || OAuthUtils.isEmpty(clientCreds[1])) {
+            if (ClientCredentials.fromBasicAuthorization(clientAuthHeader) == null) {
 
                 if (OAuthUtils.isEmpty(request.getParameter(OAuth.OAUTH_CLIENT_ID))) {
+                    missingParameters = new HashSet<String>();
                     missingParameters.add(OAuth.OAUTH_CLIENT_ID);
                 }
                 if (OAuthUtils.isEmpty(request.getParameter(OAuth.OAUTH_CLIENT_SECRET))) {
+                    if (missingParameters == null) {
+                        missingParameters = new HashSet<String>();
+                    }
                     missingParameters.add(OAuth.OAUTH_CLIENT_SECRET);
                 }
             }
 
-            if (!missingParameters.isEmpty()) {
+            if (missingParameters != null) {
                 throw OAuthUtils.handleMissingParameters(missingParameters);
             }
         }
@@ -142,9 +173,96 @@ public abstract class AbstractValidator<T extends HttpServletRequest> implements
     public void performAllValidations(T request) throws OAuthProblemException {
         this.validateContentType(request);
         this.validateMethod(request);
-        this.validateRequiredParameters(request);
-        this.validateOptionalParameters(request);
-        this.validateNotAllowedParameters(request);
+        final CompiledPlan compiled = getCompiledPlan();
+        if (compiled.plan != null && compiled.singlePass) {
+            compiled.plan.validate(request);
+        } else {
+            this.validateRequiredParameters(request);
+            this.validateOptionalParameters(request);
+            this.validateNotAllowedParameters(request);
+        }
         this.validateClientAuthenticationCredentials(request);
     }
+
+    private ValidationPlan getValidationPlan() {
+        return getCompiledPlan().plan;
+    }
+
+    private CompiledPlan getCompiledPlan() {
+        CompiledPlan compiled = compiledPlan;
+        if (compiled == null || !compiled.matches(requiredParams, optionalParams, notAllowedParams)) {
+            // racing threads compile equivalent plans, any of them can be kept
+            compiled = new CompiledPlan(requiredParams, optionalParams, notAllowedParams, compiled != null
+                ? compiled.singlePass
+                // parameters are checked in a single pass only if subclasses do not customize these checks
+                : !overrides("validateRequiredParameters")
+                    && !overrides("validateOptionalParameters")
+                    && !overrides("validateNotAllowedParameters"));
+            compiledPlan = compiled;
+        }
+        return compiled;
+    }
+
+    private boolean overrides(String methodName) {
+        for (Class<?> type = getClass(); type != AbstractValidator.class; type = type.getSuperclass()) {
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.getName().equals(methodName) && method.getParameterTypes().length == 1) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A validation plan along with a copy of the constraints it was compiled from.
+     */
+    private static final class CompiledPlan {
+
+        private final List<String> requiredParams;
+
+        private final Map<String, String[]> optionalParams;
+
+        private final List<String> notAllowedParams;
+
+        private final ValidationPlan plan;
+
+        private final boolean singlePass;
+
+        CompiledPlan(List<String> requiredParams,
+                     Map<String, String[]> optionalParams,
+                     List<String> notAllowedParams,
+                     boolean singlePass) {
+            this.requiredParams = new ArrayList<String>(requiredParams);
+            this.optionalParams = new HashMap<String, String[]>();
+            for (Map.Entry<String, String[]> optionalParam : optionalParams.entrySet()) {
+                String[] dependentParams = optionalParam.getValue();
+                this.optionalParams.put(optionalParam.getKey(),
+                                        dependentParams != null ? dependentParams.clone() : null);
+            }
+            this.notAllowedParams = new ArrayList<String>(notAllowedParams);
+            this.plan = ValidationPlan.compile(this.requiredParams, this.optionalParams, this.notAllowedParams);
+            this.singlePass = singlePass;
+        }
+
+        boolean matches(List<String> requiredParams,
+                        Map<String, String[]> optionalParams,
+                        List<String> notAllowedParams) {
+            if (!this.requiredParams.equals(requiredParams)
+                || !this.notAllowedParams.equals(notAllowedParams)
+                || this.optionalParams.size() != optionalParams.size()) {
+                return false;
+            }
+            for (Map.Entry<String, String[]> optionalParam : optionalParams.entrySet()) {
+                String[] dependentParams = this.optionalParams.get(optionalParam.getKey());
+                if (!Arrays.equals(dependentParams, optionalParam.getValue())
+                    || dependentParams == null && !this.optionalParams.containsKey(optionalParam.getKey())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
 }
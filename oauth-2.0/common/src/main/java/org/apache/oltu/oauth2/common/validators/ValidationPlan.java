@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.common.validators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
+import org.apache.oltu.oauth2.common.utils.OAuthUtils;
+
+/**
+ * Required, optional and not allowed parameters of an {@link AbstractValidator}, compiled into bit masks.
+ * <p/>
+ * Every distinct parameter name gets an index. While validating, the presence of each parameter is tracked
+ * in the low 32 bits of a <code>long</code> state and whether it has already been read in the high 32 bits,
+ * so each parameter is read at most once and nothing is allocated unless validation fails.
+ */
+final class ValidationPlan {
+
+    static final int MAX_PARAMETERS = Integer.SIZE;
+
+    private final String[] names;
+
+    private final int[] required;
+
+    private final long requiredMask;
+
+    private final int[] triggers;
+
+    private final long triggersMask;
+
+    private final int[][] dependents;
+
+    private final long[] dependentsMasks;
+
+    private final int[] notAllowed;
+
+    private final long notAllowedMask;
+
+    private ValidationPlan(String[] names,
+                           int[] required,
+                           int[] triggers,
+                           int[][] dependents,
+                           int[] notAllowed) {
+        this.names = names;
+        this.required = required;
+        this.requiredMask = mask(required);
+        this.triggers = triggers;
+        this.triggersMask = mask(triggers);
+        this.dependents = dependents;
+        this.dependentsMasks = new long[dependents.length];
+        for (int i = 0; i < dependents.length; i++) {
+            dependentsMasks[i] = mask(dependents[i]);
+        }
+        this.notAllowed = notAllowed;
+        this.notAllowedMask = mask(notAllowed);
+    }
+
+    /**
+     * Compiles the given parameter constraints.
+     *
+     * @return the compiled plan, <code>null</code> if more than {@link #MAX_PARAMETERS} distinct parameter
+     *         names are involved
+     */
+    static ValidationPlan compile(List<String> requiredParams,
+                                  Map<String, String[]> optionalParams,
+                                  List<String> notAllowedParams) {
+        Map<String, Integer> indexes = new LinkedHashMap<String, Integer>();
+
+        int[] required = indexOf(indexes, requiredParams);
+
+        List<Integer> triggers = new ArrayList<Integer>();
+        List<int[]> dependents = new ArrayList<int[]>();
+        for (Map.Entry<String, String[]> optionalParam : optionalParams.entrySet()) {
+            String[] dependentParams = optionalParam.getValue();
+            if (!OAuthUtils.hasEmptyValues(dependentParams)) {
+                triggers.add(indexOf(indexes, optionalParam.getKey()));
+                dependents.add(indexOf(indexes, Arrays.asList(dependentParams)));
+            }
+        }
+        int[] triggerIndexes = new int[triggers.size()];
+        for (int i = 0; i < triggerIndexes.length; i++) {
+            triggerIndexes[i] = triggers.get(i);
+        }
+
+        int[] notAllowed = indexOf(indexes, notAllowedParams);
+
+        if (indexes.size() > MAX_PARAMETERS) {
+            return null;
+        }
+        return new ValidationPlan(indexes.keySet().toArray(new String[indexes.size()]),
+                                  required,
+                                  triggerIndexes,
+                                  dependents.toArray(new int[dependents.size()][]),
+                                  notAllowed);
+    }
+
+    /**
+     * Checks the required, optional and not allowed parameters, in this order.
+     */
+    void validate(HttpServletRequest request) throws OAuthProblemException {
+        long state = validateRequiredParameters(request, 0L);
+        state = validateOptionalParameters(request, state);
+        validateNotAllowedParameters(request, state);
+    }
+
+    long validateRequiredParameters(HttpServletRequest request, long state) throws OAuthProblemException {
+        state = read(request, requiredMask, state);
+        if ((requiredMask & ~state) != 0L) {
+            final Set<String> missingParameters = new HashSet<String>();
+            for (int index : required) {
+                if (!isPresent(state, index)) {
+                    missingParameters.add(names[index]);
+                }
+            }
+            throw OAuthUtils.handleMissingParameters(missingParameters);
+        }
+        return state;
+    }
+
+    long validateOptionalParameters(HttpServletRequest request, long state) throws OAuthProblemException {
+        state = read(request, triggersMask, state);
+        long missing = 0L;
+        for (int i = 0; i < triggers.length; i++) {
+            if (isPresent(state, triggers[i])) {
+                state = read(request, dependentsMasks[i], state);
+                missing |= dependentsMasks[i] & ~state;
+            }
+        }
+        if (missing != 0L) {
+            final Set<String> missingParameters = new HashSet<String>();
+            for (int i = 0; i < triggers.length; i++) {
+                if (isPresent(state, triggers[i])) {
+                    for (int index : dependents[i]) {
+                        if (!isPresent(state, index)) {
+                            missingParameters.add(names[index]);
+                        }
+                    }
+                }
+            }
+            throw OAuthUtils.handleMissingParameters(missingParameters);
+        }
+        return state;
+    }
+
+    long validateNotAllowedParameters(HttpServletRequest request, long state) throws OAuthProblemException {
+        state = read(request, notAllowedMask, state);
+        if ((notAllowedMask & state) != 0L) {
+            List<String> notAllowedParameters = new ArrayList<String>();
+            for (int index : notAllowed) {
+                if (isPresent(state, index)) {
+                    notAllowedParameters.add(names[index]);
+                }
+            }
+            throw OAuthUtils.handleNotAllowedParametersOAuthException(notAllowedParameters);
+        }
+        return state;
+    }
+
+    private long read(HttpServletRequest request, long mask, long state) {
+        long unread = mask & ~(state >>> MAX_PARAMETERS);
+        while (unread != 0L) {
+            int index = Long.numberOfTrailingZeros(unread);
+            unread &= unread - 1;
+            if (!OAuthUtils.isEmpty(request.getParameter(names[index]))) {
+                state |= 1L << index;
+            }
+            state |= 1L << (index + MAX_PARAMETERS);
+        }
+        return state;
+    }
+
+    private static boolean isPresent(long state, int index) {
+        return (state & (1L << index)) != 0L;
+    }
+
+    private static long mask(int[] indexes) {
+        long mask = 0L;
+        for (int index : indexes) {
+            mask |= 1L << index;
+        }
+        return mask;
+    }
+
+    private static int[] indexOf(Map<String, Integer> indexes, List<String> names) {
+        int[] result = new int[names.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = indexOf(indexes, names.get(i));
+        }
+        return result;
+    }
+
+    private static int indexOf(Map<String, Integer> indexes, String name) {
+        Integer index = indexes.get(name);
+        if (index == null) {
+            index = indexes.size();
+            indexes.put(name, index);
+        }
+        return index;
+    }
+
+}
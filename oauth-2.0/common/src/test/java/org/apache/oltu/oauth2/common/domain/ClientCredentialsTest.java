@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.common.domain;
+
+import org.apache.commons.codec.binary.Base64;
+import org.apache.oltu.oauth2.common.domain.credentials.ClientCredentials;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ClientCredentialsTest {
+
+    @Test
+    public void testParseBasicAuthorization() throws Exception {
+        ClientCredentials credentials = ClientCredentials.fromBasicAuthorization("Basic " + encode("s6BhdRkqt3:gX1fBat3bV"));
+
+        Assert.assertEquals("s6BhdRkqt3", credentials.getClientId());
+        Assert.assertEquals("gX1fBat3bV", credentials.getClientSecret());
+    }
+
+    @Test
+    public void testParseIsCaseInsensitiveAndIgnoresTrailingSpaces() throws Exception {
+        ClientCredentials credentials = ClientCredentials.fromBasicAuthorization("BASIC " + encode("a:b") + "  ");
+
+        Assert.assertEquals("a", credentials.getClientId());
+        Assert.assertEquals("b", credentials.getClientSecret());
+    }
+
+    @Test
+    public void testParseUnpaddedAndUrlSafe() throws Exception {
+        String encoded = Base64.encodeBase64URLSafeString("client?:se>cret".getBytes("UTF-8"));
+        ClientCredentials credentials = ClientCredentials.fromBasicAuthorization("Basic " + encoded);
+
+        Assert.assertEquals("client?", credentials.getClientId());
+        Assert.assertEquals("se>cret", credentials.getClientSecret());
+    }
+
+    @Test
+    public void testParseUtf8() throws Exception {
+        ClientCredentials credentials = ClientCredentials.fromBasicAuthorization("Basic "
+            + encode("cliént:sécr€t"));
+
+        Assert.assertEquals("cliént", credentials.getClientId());
+        Assert.assertEquals("sécr€t", credentials.getClientSecret());
+    }
+
+    @Test
+    public void testParseInvalidAuthorization() throws Exception {
+        Assert.assertNull(ClientCredentials.fromBasicAuthorization(null));
+        Assert.assertNull(ClientCredentials.fromBasicAuthorization("Basic"));
+        Assert.assertNull(ClientCredentials.fromBasicAuthorization("Basic "));
+        Assert.assertNull(ClientCredentials.fromBasicAuthorization("Bearer " + encode("a:b")));
+        Assert.assertNull(ClientCredentials.fromBasicAuthorization("Basic  " + encode("a:b")));
+        Assert.assertNull(ClientCredentials.fromBasicAuthorization("Basic " + encode("a:b") + " x"));
+        Assert.assertNull(ClientCredentials.fromBasicAuthorization("Basicx" + encode("a:b")));
+        Assert.assertNull(ClientCredentials.fromBasicAuthorization("Basic " + encode("ab")));
+        Assert.assertNull(ClientCredentials.fromBasicAuthorization("Basic " + encode(":b")));
+        Assert.assertNull(ClientCredentials.fromBasicAuthorization("Basic " + encode("a:")));
+    }
+
+    private static String encode(String credentials) throws Exception {
+        return Base64.encodeBase64String(credentials.getBytes("UTF-8"));
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oltu.oauth2.common.exception;
+
+import org.apache.oltu.oauth2.common.error.OAuthError;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class OAuthProblemExceptionTest {
+
+    @Test
+    public void testError() {
+        OAuthProblemException e = OAuthProblemException.error(OAuthError.TokenResponse.INVALID_REQUEST, "Bad");
+
+        assertFalse(e.isShared());
+        assertTrue(e.getStackTrace().length > 0);
+        assertTrue(e.getParameters().isEmpty());
+        assertNull(e.get("name"));
+        assertEquals("value", e.setParameter("name", "value").get("name"));
+    }
+
+    @Test
+    public void testStackless() {
+        OAuthProblemException e = OAuthProblemException.stackless(OAuthError.TokenResponse.INVALID_REQUEST, "Bad");
+
+        assertFalse(e.isShared());
+        assertEquals(0, e.getStackTrace().length);
+        assertEquals("invalid_request, Bad", e.getMessage());
+        assertEquals("http://example.com", e.uri("http://example.com").getUri());
+    }
+
+    @Test
+    public void testShared() {
+        OAuthProblemException e = OAuthProblemException.shared(OAuthError.ResourceResponse.INVALID_TOKEN, "Bad");
+
+        assertTrue(e.isShared());
+        assertEquals(0, e.getStackTrace().length);
+        assertEquals(OAuthError.ResourceResponse.INVALID_TOKEN, e.getError());
+        assertEquals("Bad", e.getDescription());
+        assertTrue(e.getParameters().isEmpty());
+        assertEquals(400, e.getResponseStatus());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSharedIsImmutable() {
+        OAuthProblemException.shared(OAuthError.ResourceResponse.INVALID_TOKEN, "Bad").description("Other");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSharedHasNoParameters() {
+        OAuthProblemException.shared(OAuthError.ResourceResponse.INVALID_TOKEN, "Bad").setParameter("name", "value");
+    }
+
+}
@@ -49,4 +49,25 @@ public class OAuthResponseTest {
             body);
     }
 
+    @Test
+    public void testPreparedErrorResponse() throws Exception {
+        OAuthResponse oAuthResponse = OAuthResponse.errorResponse(401)
+            .setError("error")
+            .buildJSONMessage();
+        oAuthResponse.addHeader("header", "value");
+
+        PreparedErrorResponse prepared = PreparedErrorResponse.of(oAuthResponse);
+        oAuthResponse.addHeader("header", "changed");
+
+        assertEquals(401, prepared.getResponseStatus());
+        assertEquals("{\"error\":\"error\"}", prepared.getBody());
+        assertEquals("value", prepared.getHeader("header"));
+
+        OAuthResponse copy = prepared.toResponse();
+        copy.addHeader("header", "changed");
+        assertEquals(401, copy.getResponseStatus());
+        assertEquals("{\"error\":\"error\"}", copy.getBody());
+        assertEquals("value", prepared.getHeader("header"));
+    }
+
 }
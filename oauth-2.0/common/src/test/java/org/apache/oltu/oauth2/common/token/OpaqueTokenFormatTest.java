@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.common.token;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class OpaqueTokenFormatTest {
+
+    private static final byte[] SECRET = "01234567890123456789012345678901".getBytes();
+
+    private static final byte[] NONCE = new byte[OpaqueTokenFormat.NONCE_LENGTH];
+
+    private final OpaqueTokenFormat format = new OpaqueTokenFormat(Collections.singletonMap(7, SECRET));
+
+    @Test
+    public void testRoundTrip() {
+        OpaqueToken token = new OpaqueToken(7, OpaqueToken.Type.REFRESH, "client-é", 0xFFFFFFF0L, 0x8000000000000005L);
+        String encoded = format.write(token, NONCE);
+        assertEquals(encoded, encoded.replaceAll("[^A-Za-z0-9_-]", ""));
+
+        OpaqueToken read = format.read(encoded);
+        assertNotNull(read);
+        assertEquals(7, read.getKeyId());
+        assertEquals(OpaqueToken.Type.REFRESH, read.getType());
+        assertEquals("client-é", read.getClientId());
+        assertEquals(0xFFFFFFF0L, read.getExpiresAt());
+        assertEquals(0x8000000000000005L, read.getScopes());
+    }
+
+    @Test
+    public void testTampered() {
+        String encoded = format.write(new OpaqueToken(7, OpaqueToken.Type.ACCESS, "client", 1500000000L, 1L), NONCE);
+        // flip a scope bit
+        char[] chars = encoded.toCharArray();
+        chars[16] = chars[16] == 'A' ? 'B' : 'A';
+
+        assertNull(format.read(new String(chars)));
+        assertNull(format.read(encoded.substring(1)));
+        assertNull(format.read(encoded + "AA"));
+        assertNull(format.read("not a token"));
+        assertNull(format.read(null));
+    }
+
+    @Test
+    public void testTamperedType() {
+        String encoded = format.write(new OpaqueToken(7, OpaqueToken.Type.REFRESH, "client", 1500000000L, 1L), NONCE);
+        // the third byte, the token type, is encoded by the fourth character
+        char[] chars = encoded.toCharArray();
+        chars[3] = chars[3] == 'B' ? 'C' : 'B';
+
+        assertNull(format.read(new String(chars)));
+    }
+
+    @Test
+    public void testUnknownKey() {
+        Map<Integer, byte[]> secrets = new HashMap<Integer, byte[]>();
+        secrets.put(8, SECRET);
+        String encoded = new OpaqueTokenFormat(secrets).write(new OpaqueToken(8, OpaqueToken.Type.ACCESS, "client", 1500000000L, 1L),
+                                                                    NONCE);
+
+        assertNull(format.read(encoded));
+    }
+
+    @Test
+    public void testRotatedSecretSameKeyId() {
+        // the per-thread engines are shared by all the formats and matched by secret, not by key id
+        OpaqueTokenFormat rotated = new OpaqueTokenFormat(
+            Collections.singletonMap(7, "abcdefghijklmnopqrstuvwxyz012345".getBytes()));
+        String encoded = format.write(new OpaqueToken(7, OpaqueToken.Type.ACCESS, "client", 1500000000L, 1L), NONCE);
+        String rotatedEncoded = rotated.write(new OpaqueToken(7, OpaqueToken.Type.ACCESS, "client", 1500000000L, 1L),
+                                              NONCE);
+
+        assertNull(rotated.read(encoded));
+        assertNull(format.read(rotatedEncoded));
+        assertNotNull(new OpaqueTokenFormat(Collections.singletonMap(7, SECRET.clone())).read(encoded));
+        assertNotNull(rotated.read(rotatedEncoded));
+    }
+
+    @Test
+    public void testScopes() {
+        List<String> scopeNames = Arrays.asList("read", "write", "admin");
+        long bitmap = OpaqueTokenFormat.toScopeBitmap(scopeNames, Arrays.asList("read", "admin"));
+        assertEquals(5L, bitmap);
+        assertEquals(Arrays.asList("read", "admin"), Arrays.asList(OpaqueTokenFormat.toScopes(scopeNames, bitmap).toArray()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortSecret() {
+        new OpaqueTokenFormat(Collections.singletonMap(1, new byte[16]));
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.common.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.oltu.oauth2.common.OAuth;
+import org.junit.Test;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.same;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AuthorizationHeaderTest {
+
+    // the expressions the tokenizer replaces
+    private static final Pattern OAUTH_HEADER = Pattern.compile("\\s*(\\w*)\\s+(.*)");
+    private static final Pattern NVP = Pattern.compile("(\\S*)\\s*\\=\\s*\"([^\"]*)\"");
+
+    private static final String[] HEADERS = {
+        "",
+        " ",
+        "Bearer",
+        "Bearer ",
+        "Bearer  ",
+        "Bearer mF_9.B5f-4.1JqM",
+        "bearer mF_9.B5f-4.1JqM",
+        "  Bearer \t mF_9.B5f-4.1JqM  ",
+        "Bearer:mF_9",
+        " :mF_9",
+        " Bearer",
+        "\nBearer",
+        "Bearer mF_9\nB5f",
+        "Bearer mF_9\u2028B5f",
+        "Basic dXNlcjpwYXNzd29yZA==",
+        "Bearer realm=\"example\"",
+        "Bearer realm=\"example\", error=\"invalid_token\" , error_description=\"The access token expired\"",
+        "Bearer sadfasfd,oauth_signature_method=\"HMAC-SHA1\"",
+        "Bearer a = \"b\",c=\"d\" ,e= \"f\" ,",
+        "Bearer a=\"b\" ",
+        "Bearer a b=\"c\"",
+        "Bearer a=\"b,c\"",
+        "Bearer a==\"b\"",
+        "Bearer =\"b\"",
+        "Bearer \"b\"",
+        "Bearer a=\"\"",
+        "Bearer x\"a=\"b\"",
+        "Bearer realm=\"ex%20ample\",scope=\"read+write\"",
+        "OAuth realm=\"example\"",
+        "Bé arer x"
+    };
+
+    @Test
+    public void testSameResultsAsRegularExpressions() throws Exception {
+        for (String header : HEADERS) {
+            AuthorizationHeader parsed = AuthorizationHeader.parse(header);
+            Matcher m = OAUTH_HEADER.matcher(header);
+            if (m.matches()) {
+                assertEquals(header, m.group(1), parsed.getScheme());
+                assertEquals(header, m.group(2), parsed.getCredentials());
+                Map<String, String> parameters = new HashMap<String, String>();
+                for (String nvp : m.group(2).split("\\s*,\\s*")) {
+                    Matcher pair = NVP.matcher(nvp);
+                    if (pair.matches()) {
+                        parameters.put(OAuthUtils.decodePercent(pair.group(1)),
+                                       OAuthUtils.decodePercent(pair.group(2)));
+                    }
+                }
+                assertEquals(header, parameters, parsed.getParameters());
+            } else {
+                assertNull(header, parsed.getScheme());
+                assertNull(header, parsed.getCredentials());
+                assertTrue(header, parsed.getParameters().isEmpty());
+            }
+        }
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        AuthorizationHeader header = AuthorizationHeader.parse("Bearer realm=\"example\", error=\"invalid_token\"");
+
+        assertEquals("Bearer", header.getScheme());
+        assertTrue(header.isScheme("bearer"));
+        assertFalse(header.isScheme("Basic"));
+        assertEquals("realm=\"example\", error=\"invalid_token\"", header.getCredentials());
+        assertEquals("example", header.getParameter("realm"));
+        assertEquals("invalid_token", header.getParameter("error"));
+        assertEquals(2, header.getParameters().size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testParametersAreUnmodifiable() throws Exception {
+        AuthorizationHeader.parse("Bearer realm=\"example\"").getParameters().put("error", "invalid_token");
+    }
+
+    @Test
+    public void testRequestWithoutHeader() throws Exception {
+        HttpServletRequest request = createMock(HttpServletRequest.class);
+        expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andReturn(null);
+        replay(request);
+
+        assertNull(AuthorizationHeader.of(request));
+        verify(request);
+    }
+
+    @Test
+    public void testParsedOncePerRequest() throws Exception {
+        AuthorizationHeader parsed = AuthorizationHeader.parse("Bearer mF_9.B5f-4.1JqM");
+
+        HttpServletRequest request = createMock(HttpServletRequest.class);
+        expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andReturn("Bearer mF_9.B5f-4.1JqM");
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andReturn(parsed);
+        replay(request);
+
+        assertSame(parsed, AuthorizationHeader.of(request));
+        verify(request);
+    }
+
+    @Test
+    public void testStaleCachedHeaderIsReplaced() throws Exception {
+        AuthorizationHeader stale = AuthorizationHeader.parse("Bearer mF_9.B5f-4.1JqM");
+
+        HttpServletRequest request = createMock(HttpServletRequest.class);
+        expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andReturn("Bearer vF9dft4qmT");
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andReturn(stale);
+        request.setAttribute(same(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        replay(request);
+
+        assertEquals("vF9dft4qmT", AuthorizationHeader.of(request).getCredentials());
+        verify(request);
+    }
+
+}
@@ -90,6 +90,30 @@ public class OAuthUtilsTest {
         OAuthUtils.handleMissingParameters(missingParameters);
     }
 
+    @Test
+    public void testHandledProblemsAreStacklessButMutable() throws Exception {
+        OAuthProblemException[] exceptions = {
+            OAuthUtils.handleOAuthProblemException("missing parameter"),
+            OAuthUtils.handleMissingParameters(Collections.singleton(OAuth.OAUTH_CLIENT_ID)),
+            OAuthUtils.handleBadContentTypeException(OAuth.ContentType.URL_ENCODED),
+            OAuthUtils.handleNotAllowedParametersOAuthException(Collections.singletonList(OAuth.OAUTH_CODE))
+        };
+        for (OAuthProblemException exception : exceptions) {
+            assertEquals(OAuthError.TokenResponse.INVALID_REQUEST, exception.getError());
+            assertEquals(0, exception.getStackTrace().length);
+            assertFalse(exception.isShared());
+
+            // callers such as OAuthRequest still customize the problem
+            exception.setRedirectUri("https://client.example.com/cb");
+            exception.state("af0ifjsldkj").responseStatus(400);
+            assertEquals("https://client.example.com/cb", exception.getRedirectUri());
+            assertEquals("af0ifjsldkj", exception.getState());
+        }
+        assertEquals("Missing parameters: client_id", exceptions[1].getDescription());
+        assertEquals("Bad request content type. Expecting: " + OAuth.ContentType.URL_ENCODED,
+                     exceptions[2].getDescription());
+    }
+
     @Test
     public void testHandleNotAllowedParametersOAuthException() throws Exception {
         List<String> notAllowedParametersList = new LinkedList<String>();
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.common.validators;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.oltu.oauth2.common.OAuth;
+import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
+import org.junit.Test;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class ValidationPlanTest {
+
+    @Test
+    public void testEachParameterIsReadOnce() throws Exception {
+        HttpServletRequest request = createMock(HttpServletRequest.class);
+        expect(request.getMethod()).andReturn(OAuth.HttpMethod.POST);
+        expect(request.getContentType()).andReturn(OAuth.ContentType.URL_ENCODED);
+        expect(request.getParameter(OAuth.OAUTH_GRANT_TYPE)).andReturn("password").once();
+        expect(request.getParameter(OAuth.OAUTH_USERNAME)).andReturn("johndoe").once();
+        expect(request.getParameter(OAuth.OAUTH_SCOPE)).andReturn("read").once();
+        expect(request.getParameter(OAuth.OAUTH_CLIENT_ID)).andReturn("s6BhdRkqt3").once();
+        expect(request.getParameter(OAuth.OAUTH_CODE)).andReturn("").once();
+        replay(request);
+
+        new SampleValidator().performAllValidations(request);
+
+        verify(request);
+    }
+
+    @Test
+    public void testMissingRequiredParameters() throws Exception {
+        HttpServletRequest request = createMock(HttpServletRequest.class);
+        expect(request.getParameter(OAuth.OAUTH_GRANT_TYPE)).andReturn(null);
+        expect(request.getParameter(OAuth.OAUTH_USERNAME)).andReturn("");
+        replay(request);
+
+        try {
+            new SampleValidator().validateRequiredParameters(request);
+            fail("Expected validation exception");
+        } catch (OAuthProblemException e) {
+            assertEquals("Missing parameters: grant_type username", e.getDescription());
+        }
+        verify(request);
+    }
+
+    @Test
+    public void testMissingDependentParameter() throws Exception {
+        HttpServletRequest request = createMock(HttpServletRequest.class);
+        expect(request.getParameter(OAuth.OAUTH_GRANT_TYPE)).andReturn("password");
+        expect(request.getParameter(OAuth.OAUTH_USERNAME)).andReturn("johndoe");
+        expect(request.getParameter(OAuth.OAUTH_REDIRECT_URI)).andReturn("https://client.example.com/cb");
+        expect(request.getParameter(OAuth.OAUTH_STATE)).andReturn(null);
+        replay(request);
+
+        ValidationPlan plan = ValidationPlan.compile(new SampleValidator().requiredParams,
+            Collections.singletonMap(OAuth.OAUTH_REDIRECT_URI, new String[] {OAuth.OAUTH_USERNAME, OAuth.OAUTH_STATE}),
+            Collections.<String>emptyList());
+        try {
+            plan.validate(request);
+            fail("Expected validation exception");
+        } catch (OAuthProblemException e) {
+            assertEquals("Missing parameters: state", e.getDescription());
+        }
+        verify(request);
+    }
+
+    @Test
+    public void testNotAllowedParameters() throws Exception {
+        HttpServletRequest request = createMock(HttpServletRequest.class);
+        expect(request.getParameter(OAuth.OAUTH_CODE)).andReturn("SplxlOBeZQQYbYS6WxSbIA");
+        replay(request);
+
+        try {
+            new SampleValidator().validateNotAllowedParameters(request);
+            fail("Expected validation exception");
+        } catch (OAuthProblemException e) {
+            assertEquals("Not allowed parameters: code", e.getDescription());
+        }
+        verify(request);
+    }
+
+    @Test
+    public void testTooManyParameters() {
+        List<String> requiredParams = new ArrayList<String>();
+        for (int i = 0; i <= ValidationPlan.MAX_PARAMETERS; i++) {
+            requiredParams.add("param" + i);
+        }
+
+        assertNull(ValidationPlan.compile(requiredParams,
+                                          new HashMap<String, String[]>(),
+                                          Collections.<String>emptyList()));
+    }
+
+    @Test
+    public void testParametersChangedAfterFirstUse() throws Exception {
+        AbstractValidator<HttpServletRequest> validator = new AbstractValidator<HttpServletRequest>() {
+
+            @Override
+            public void validateContentType(HttpServletRequest request) throws OAuthProblemException {
+                super.validateContentType(request);
+                // clients not authenticated with the Authorization header send their id in the body
+                requiredParams.remove(OAuth.OAUTH_CLIENT_ID);
+                if (request.getHeader(OAuth.HeaderType.AUTHORIZATION) == null) {
+                    requiredParams.add(OAuth.OAUTH_CLIENT_ID);
+                }
+            }
+
+        };
+
+        HttpServletRequest authenticated = createMock(HttpServletRequest.class);
+        expect(authenticated.getMethod()).andStubReturn(OAuth.HttpMethod.POST);
+        expect(authenticated.getContentType()).andStubReturn(OAuth.ContentType.URL_ENCODED);
+        expect(authenticated.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn("Basic czZCaGRSa3F0Mzo=");
+        replay(authenticated);
+
+        validator.performAllValidations(authenticated);
+        verify(authenticated);
+
+        HttpServletRequest anonymous = createMock(HttpServletRequest.class);
+        expect(anonymous.getMethod()).andStubReturn(OAuth.HttpMethod.POST);
+        expect(anonymous.getContentType()).andStubReturn(OAuth.ContentType.URL_ENCODED);
+        expect(anonymous.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn(null);
+        expect(anonymous.getParameter(OAuth.OAUTH_CLIENT_ID)).andReturn(null);
+        replay(anonymous);
+
+        try {
+            validator.performAllValidations(anonymous);
+            fail("Expected validation exception");
+        } catch (OAuthProblemException e) {
+            assertEquals("Missing parameters: client_id", e.getDescription());
+        }
+        verify(anonymous);
+    }
+
+    private static final class SampleValidator extends AbstractValidator<HttpServletRequest> {
+
+        SampleValidator() {
+            requiredParams.add(OAuth.OAUTH_GRANT_TYPE);
+            requiredParams.add(OAuth.OAUTH_USERNAME);
+            optionalParams.put(OAuth.OAUTH_SCOPE, new String[] {OAuth.OAUTH_USERNAME, OAuth.OAUTH_CLIENT_ID});
+            notAllowedParams.add(OAuth.OAUTH_CODE);
+        }
+
+    }
+
+}
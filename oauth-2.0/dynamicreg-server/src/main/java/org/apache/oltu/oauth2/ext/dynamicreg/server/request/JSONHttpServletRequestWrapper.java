@@ -29,7 +29,6 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
-import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonNumber;
 import javax.json.JsonObject;
@@ -43,6 +42,7 @@ import javax.servlet.ServletRequest;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletRequestWrapper;
 
+import org.apache.oltu.commons.json.JsonProviders;
 import org.apache.oltu.oauth2.common.OAuth;
 import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
 import org.apache.oltu.oauth2.common.exception.OAuthRuntimeException;
@@ -78,7 +78,7 @@ public class JSONHttpServletRequestWrapper extends HttpServletRequestWrapper {
             String body = readJsonBody();
 
             StringReader reader = new StringReader(body);
-            JsonReader jsonReader = Json.createReader(reader);
+            JsonReader jsonReader = JsonProviders.getReaderFactory().createReader(reader);
             JsonStructure structure = jsonReader.read();
 
             if (structure == null || structure instanceof JsonArray) {
@@ -38,6 +38,8 @@ import org.apache.oltu.oauth2.ext.dynamicreg.server.validator.PushPullValidator;
  */
 public class OAuthServerRegistrationRequest extends OAuthRequest {
 
+    private static final PushPullValidator VALIDATOR = new PushPullValidator();
+
     private String type;
 
     private boolean isDiscovered;
@@ -57,7 +59,7 @@ public class OAuthServerRegistrationRequest extends OAuthRequest {
 
     @Override
     protected OAuthValidator initValidator() throws OAuthProblemException, OAuthSystemException {
-        return new PushPullValidator();
+        return VALIDATOR;
     }
 
     public void discover() throws OAuthSystemException {
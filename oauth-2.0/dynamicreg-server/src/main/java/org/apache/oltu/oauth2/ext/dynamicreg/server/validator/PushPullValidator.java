@@ -21,6 +21,12 @@
 
 package org.apache.oltu.oauth2.ext.dynamicreg.server.validator;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.apache.oltu.oauth2.common.OAuth;
 import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
 import org.apache.oltu.oauth2.common.utils.OAuthUtils;
@@ -31,12 +37,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- *
- *
- *
+ * Validates pull and push client registration requests.
+ * <p/>
+ * The set of required parameters depends on the registration <code>type</code>, it is selected per request
+ * rather than accumulated on the validator, so a single instance can safely be shared between threads.
  */
 public class PushPullValidator extends AbstractValidator<JSONHttpServletRequestWrapper> {
 
+    private static final List<String> PULL_PARAMS = Collections.unmodifiableList(Arrays.asList(
+        OAuthRegistration.Request.TYPE,
+        OAuthRegistration.Request.CLIENT_URL));
+
+    private static final List<String> PUSH_PARAMS = Collections.unmodifiableList(Arrays.asList(
+        OAuthRegistration.Request.TYPE,
+        OAuthRegistration.Request.CLIENT_NAME,
+        OAuthRegistration.Request.CLIENT_URL,
+        OAuthRegistration.Request.CLIENT_DESCRIPTION,
+        OAuthRegistration.Request.REDIRECT_URL));
+
     private Logger log = LoggerFactory.getLogger(PushPullValidator.class);
 
     public PushPullValidator() {
@@ -51,12 +69,31 @@ public class PushPullValidator extends AbstractValidator<JSONHttpServletRequestW
             throw OAuthUtils.handleBadContentTypeException(expectedContentType);
         }
 
-//        if content type is json initialize validator for pull or push method based on json content
-        initializeValidationParameter(request);
+//        if content type is json check that the request is either a pull or a push one
+        getTypeParameters(request);
 
+        if (log.isDebugEnabled()) {
+            log.debug("OAuth dynamic client registration type is: {}",
+                new Object[] {request.getParameter(OAuthRegistration.Request.TYPE)});
+        }
     }
 
-    private void initializeValidationParameter(JSONHttpServletRequestWrapper request)
+    @Override
+    public void validateRequiredParameters(JSONHttpServletRequestWrapper request) throws OAuthProblemException {
+        final Set<String> missingParameters = new HashSet<String>();
+        for (List<String> params : Arrays.asList(requiredParams, getTypeParameters(request))) {
+            for (String requiredParam : params) {
+                if (OAuthUtils.isEmpty(request.getParameter(requiredParam))) {
+                    missingParameters.add(requiredParam);
+                }
+            }
+        }
+        if (!missingParameters.isEmpty()) {
+            throw OAuthUtils.handleMissingParameters(missingParameters);
+        }
+    }
+
+    private static List<String> getTypeParameters(JSONHttpServletRequestWrapper request)
         throws OAuthProblemException {
         final String requestType = request.getParameter(OAuthRegistration.Request.TYPE);
 
@@ -65,20 +102,10 @@ public class PushPullValidator extends AbstractValidator<JSONHttpServletRequestW
         }
 
         if (OAuthRegistration.Type.PULL.equals(requestType)) {
-            requiredParams.add(OAuthRegistration.Request.TYPE);
-            requiredParams.add(OAuthRegistration.Request.CLIENT_URL);
+            return PULL_PARAMS;
         } else if (OAuthRegistration.Type.PUSH.equals(requestType)) {
-            requiredParams.add(OAuthRegistration.Request.TYPE);
-            requiredParams.add(OAuthRegistration.Request.CLIENT_NAME);
-            requiredParams.add(OAuthRegistration.Request.CLIENT_URL);
-            requiredParams.add(OAuthRegistration.Request.CLIENT_DESCRIPTION);
-            requiredParams.add(OAuthRegistration.Request.REDIRECT_URL);
-        } else {
-            throw OAuthUtils.handleOAuthProblemException("Invalid [type] parameter value");
-        }
-
-        if (log.isDebugEnabled()) {
-            log.debug("OAuth dynamic client registration type is: {}", new Object[] {requestType});
+            return PUSH_PARAMS;
         }
+        throw OAuthUtils.handleOAuthProblemException("Invalid [type] parameter value");
     }
 }
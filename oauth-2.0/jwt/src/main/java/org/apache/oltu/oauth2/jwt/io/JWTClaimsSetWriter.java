@@ -17,22 +17,25 @@
 package org.apache.oltu.oauth2.jwt.io;
 
 import java.util.List;
+
+import javax.json.stream.JsonGenerator;
+
 import org.apache.oltu.commons.json.CustomizableEntityWriter;
 import org.apache.oltu.oauth2.jwt.ClaimsSet;
 
 public final class JWTClaimsSetWriter extends CustomizableEntityWriter<ClaimsSet> implements JWTConstants {
 
     @Override
-    protected void handleProperties(ClaimsSet claimsSet) {
+    protected void handleProperties(ClaimsSet claimsSet, JsonGenerator generator) {
         List<String> audiences = claimsSet.getAudiences();
-        set(AUDIENCE, audiences.size() > 1 ? audiences : claimsSet.getAudience());
-        set(ISSUER, claimsSet.getIssuer());
-        set(JWT_ID, claimsSet.getJwdId());
-        set(NOT_BEFORE, claimsSet.getNotBefore());
-        set(SUBJECT, claimsSet.getSubject());
-        set(TYPE, claimsSet.getType());
-        set(EXPIRATION_TIME, claimsSet.getExpirationTime());
-        set(ISSUED_AT, claimsSet.getIssuedAt());
+        set(generator, AUDIENCE, audiences.size() > 1 ? audiences : claimsSet.getAudience());
+        set(generator, ISSUER, claimsSet.getIssuer());
+        set(generator, JWT_ID, claimsSet.getJwdId());
+        set(generator, NOT_BEFORE, claimsSet.getNotBefore());
+        set(generator, SUBJECT, claimsSet.getSubject());
+        set(generator, TYPE, claimsSet.getType());
+        set(generator, EXPIRATION_TIME, claimsSet.getExpirationTime());
+        set(generator, ISSUED_AT, claimsSet.getIssuedAt());
     }
 
 }
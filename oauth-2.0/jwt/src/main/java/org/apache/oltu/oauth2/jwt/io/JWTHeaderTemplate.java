@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.jwt.io;
+
+import org.apache.oltu.commons.encodedtoken.Base64UrlCodec;
+import org.apache.oltu.oauth2.jwt.ClaimsSet;
+import org.apache.oltu.oauth2.jwt.Header;
+
+/**
+ * A {@link Header} serialized and base64url encoded once, to write any
+ * number of JWTs sharing the same header.
+ *
+ * Only the claims set is serialized and encoded per token, next to the
+ * cached header segment. Instances are immutable and thread-safe.
+ */
+public final class JWTHeaderTemplate {
+
+    private static final JWTHeaderWriter HEADER_WRITER = new JWTHeaderWriter();
+
+    private static final JWTClaimsSetWriter CLAIMS_SET_WRITER = new JWTClaimsSetWriter();
+
+    private final Header header;
+
+    /**
+     * The base64url encoded header.
+     */
+    private final String encodedHeader;
+
+    public JWTHeaderTemplate(Header header) {
+        if (header == null) {
+            throw new IllegalArgumentException("Impossible to build a header template from a null header.");
+        }
+        this.header = header;
+        encodedHeader = Base64UrlCodec.encode(HEADER_WRITER.toByteArray(header));
+    }
+
+    public Header getHeader() {
+        return header;
+    }
+
+    public String getEncodedHeader() {
+        return encodedHeader;
+    }
+
+    /**
+     * Returns the JWS Signing Input, <code>BASE64URL(header) || '.' || BASE64URL(claimsSet)</code>,
+     * the signature has to be calculated on.
+     */
+    public String writeSigningInput(ClaimsSet claimsSet) {
+        return write(claimsSet, null);
+    }
+
+    /**
+     * Returns the compact serialization of the JWT, using the cached header.
+     *
+     * @param claimsSet the claims set, it cannot be null.
+     * @param signature the base64url encoded signature, the JWT is written
+     *        without the trailing signature segment if null.
+     */
+    public String write(ClaimsSet claimsSet, String signature) {
+        if (claimsSet == null) {
+            throw new IllegalArgumentException("Impossible to build a Token from a null claims set.");
+        }
+
+        byte[] body = CLAIMS_SET_WRITER.toByteArray(claimsSet);
+
+        int headerLength = encodedHeader.length();
+        int encodedBodyLength = Base64UrlCodec.encodedLength(body.length);
+        int signatureLength = signature != null ? signature.length() + 1 : 0;
+        char[] compact = new char[headerLength + 1 + encodedBodyLength + signatureLength];
+
+        encodedHeader.getChars(0, headerLength, compact, 0);
+        compact[headerLength] = '.';
+        int position = headerLength + 1;
+        position += Base64UrlCodec.encode(body, 0, body.length, compact, position);
+        if (signature != null) {
+            compact[position++] = '.';
+            signature.getChars(0, signature.length(), compact, position);
+        }
+
+        return new String(compact);
+    }
+
+}
@@ -16,16 +16,18 @@
  */
 package org.apache.oltu.oauth2.jwt.io;
 
+import javax.json.stream.JsonGenerator;
+
 import org.apache.oltu.commons.json.CustomizableEntityWriter;
 import org.apache.oltu.oauth2.jwt.Header;
 
 public final class JWTHeaderWriter extends CustomizableEntityWriter<Header> implements JWTConstants {
 
     @Override
-    protected void handleProperties(Header header) {
-        set(ALGORITHM, header.getAlgorithm());
-        set(CONTENT_TYPE, header.getContentType());
-        set(TYPE, header.getType());
+    protected void handleProperties(Header header, JsonGenerator generator) {
+        set(generator, ALGORITHM, header.getAlgorithm());
+        set(generator, CONTENT_TYPE, header.getContentType());
+        set(generator, TYPE, header.getType());
     }
 
 }
@@ -24,14 +24,18 @@ import org.apache.oltu.oauth2.jwt.JWT;
  */
 public final class JWTWriter extends TokenWriter<JWT> {
 
+    private static final JWTHeaderWriter HEADER_WRITER = new JWTHeaderWriter();
+
+    private static final JWTClaimsSetWriter CLAIMS_SET_WRITER = new JWTClaimsSetWriter();
+
     @Override
     protected String writeHeader(JWT token) {
-        return new JWTHeaderWriter().write(token.getHeader());
+        return HEADER_WRITER.write(token.getHeader());
     }
 
     @Override
     protected String writeBody(JWT token) {
-        return new JWTClaimsSetWriter().write(token.getClaimsSet());
+        return CLAIMS_SET_WRITER.write(token.getClaimsSet());
     }
 
     @Override
@@ -0,0 +1,484 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.jwt.issuer;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.json.stream.JsonGenerator;
+
+import org.apache.oltu.commons.json.CustomizableEntity;
+import org.apache.oltu.commons.json.CustomizableEntityWriter;
+import org.apache.oltu.jose.jws.JWS;
+import org.apache.oltu.jose.jws.JWSHeaderTemplate;
+import org.apache.oltu.jose.jws.signature.SignatureMethod;
+import org.apache.oltu.jose.jws.signature.SigningKey;
+import org.apache.oltu.jose.jws.signature.VerifyingKey;
+import org.apache.oltu.oauth2.as.issuer.OAuthIssuer;
+import org.apache.oltu.oauth2.as.issuer.SecureRandomValueGenerator;
+import org.apache.oltu.oauth2.as.issuer.ValueGenerator;
+import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
+
+/**
+ * An {@link OAuthIssuer} that mints self-contained, signed JWT access and
+ * refresh tokens.
+ *
+ * Everything tokens have in common is computed once when the issuer is built:
+ * the protected headers are serialized and base64url encoded, and the claim
+ * template ({@code iss}, {@code aud} and any custom claim) is serialized to the
+ * JSON prefix of every claims set. Minting a token only appends the
+ * {@code jti}, {@code iat} and {@code exp} claims, plus the {@code sub},
+ * {@code client_id} and {@code scope} ones when they are given for that token,
+ * encodes the claims set and signs it, reusing the per-thread signature engines
+ * of the JWS module.
+ *
+ * Access and refresh tokens are signed with the same key, so refresh tokens
+ * never carry the access tokens audience: their {@code aud} claim is the
+ * refresh token audience, the issuer itself by default, and their {@code typ}
+ * header parameter is {@value #REFRESH_TOKEN_TYPE}. Resource servers must check
+ * both the {@code typ} header parameter ({@value #ACCESS_TOKEN_TYPE}) and the
+ * {@code aud} claim of the tokens they accept, otherwise a refresh token is a
+ * valid access token with a much longer lifetime.
+ *
+ * Authorization codes are not self-contained and are delegated to a
+ * {@link ValueGenerator}, which also provides the {@code jti} values.
+ *
+ * Instances are immutable and thread-safe.
+ */
+public class JWTIssuer implements OAuthIssuer {
+
+    /**
+     * The {@code typ} header parameter of access tokens, as for RFC 9068.
+     */
+    public static final String ACCESS_TOKEN_TYPE = "at+jwt";
+
+    /**
+     * The {@code typ} header parameter of refresh tokens.
+     */
+    public static final String REFRESH_TOKEN_TYPE = "JWT";
+
+    private static final String ISSUER = "iss";
+
+    private static final String AUDIENCE = "aud";
+
+    private static final String SUBJECT = "sub";
+
+    private static final String CLIENT_ID = "client_id";
+
+    private static final String SCOPE = "scope";
+
+    private static final String EXPIRATION_TIME = "exp";
+
+    private static final String ISSUED_AT = "iat";
+
+    private static final String JWT_ID = "jti";
+
+    private final JWSHeaderTemplate<?, ?> accessTokenHeader;
+
+    private final JWSHeaderTemplate<?, ?> refreshTokenHeader;
+
+    /**
+     * The claim template, an open JSON object to append the per-token claims to.
+     */
+    private final String claimsPrefix;
+
+    /**
+     * The serialized {@code aud} claim of access tokens, {@code null} when they have none.
+     */
+    private final String accessTokenAudience;
+
+    /**
+     * The serialized {@code aud} claim of refresh tokens, {@code null} when they have none.
+     */
+    private final String refreshTokenAudience;
+
+    /**
+     * The serialized template values of the {@code sub}, {@code client_id} and
+     * {@code scope} claims, used when a token is issued without its own.
+     */
+    private final String defaultSubject;
+
+    private final String defaultClientId;
+
+    private final String defaultScope;
+
+    private final long accessTokenLifetime;
+
+    private final long refreshTokenLifetime;
+
+    private final ValueGenerator valueGenerator;
+
+    /**
+     * The last {@code iat} value handed out, in seconds.
+     */
+    private final AtomicLong lastIssuedAt = new AtomicLong();
+
+    /**
+     * Creates an issuer from the given configuration, {@link Builder#build()} is the usual way.
+     */
+    protected JWTIssuer(Builder<?, ?> builder) {
+        this.accessTokenHeader = builder.buildHeaderTemplate(builder.accessTokenType);
+        this.refreshTokenHeader = builder.buildHeaderTemplate(REFRESH_TOKEN_TYPE);
+        this.accessTokenLifetime = builder.accessTokenLifetime;
+        this.refreshTokenLifetime = builder.refreshTokenLifetime;
+        this.valueGenerator = builder.valueGenerator;
+
+        Map<String, Object> claims = new LinkedHashMap<String, Object>(builder.claims);
+        Object audience = claims.remove(AUDIENCE);
+        Object refreshAudience = builder.refreshTokenAudience != null ? builder.refreshTokenAudience
+                                                                      : claims.get(ISSUER);
+        if (refreshAudience != null && refreshAudience.equals(audience)) {
+            throw new IllegalArgumentException("Refresh tokens audience must differ from the access tokens one.");
+        }
+        this.accessTokenAudience = serializeClaim(AUDIENCE, audience);
+        this.refreshTokenAudience = serializeClaim(AUDIENCE, refreshAudience);
+        this.defaultSubject = serializeClaim(SUBJECT, claims.remove(SUBJECT));
+        this.defaultClientId = serializeClaim(CLIENT_ID, claims.remove(CLIENT_ID));
+        this.defaultScope = serializeClaim(SCOPE, claims.remove(SCOPE));
+
+        String template = new ClaimTemplateWriter().write(new ClaimTemplate(claims));
+        // drop the closing brace, per-token claims are appended after the template ones
+        this.claimsPrefix = template.substring(0, template.lastIndexOf('}'));
+    }
+
+    public String accessToken() throws OAuthSystemException {
+        return accessToken(null, null, null);
+    }
+
+    /**
+     * Issues an access token on behalf of the given resource owner and client,
+     * the RFC 9068 profile requires both the {@code sub} and {@code client_id}
+     * claims.
+     *
+     * @param subject the {@code sub} claim, the template one when {@code null}.
+     * @param clientId the {@code client_id} claim, the template one when {@code null}.
+     * @param scopes the granted scopes, joined into the {@code scope} claim,
+     *        the template one when {@code null}.
+     */
+    public String accessToken(String subject, String clientId, Collection<String> scopes)
+            throws OAuthSystemException {
+        return issue(accessTokenHeader, accessTokenAudience, accessTokenLifetime, subject, clientId, scopes);
+    }
+
+    public String refreshToken() throws OAuthSystemException {
+        return refreshToken(null, null, null);
+    }
+
+    /**
+     * Issues a refresh token on behalf of the given resource owner and client.
+     *
+     * @see #accessToken(String, String, Collection)
+     */
+    public String refreshToken(String subject, String clientId, Collection<String> scopes)
+            throws OAuthSystemException {
+        return issue(refreshTokenHeader, refreshTokenAudience, refreshTokenLifetime, subject, clientId, scopes);
+    }
+
+    public String authorizationCode() throws OAuthSystemException {
+        return valueGenerator.generateValue();
+    }
+
+    /**
+     * Returns the current time in milliseconds, the {@code iat} clock source.
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private String issue(JWSHeaderTemplate<?, ?> header,
+                         String audience,
+                         long lifetime,
+                         String subject,
+                         String clientId,
+                         Collection<String> scopes) throws OAuthSystemException {
+        String jwtId = valueGenerator.generateValue();
+        long issuedAt = issuedAt();
+
+        StringBuilder claims = new StringBuilder(claimsPrefix.length() + jwtId.length() + 128).append(claimsPrefix);
+        appendClaim(claims, audience);
+        if (subject != null) {
+            appendClaim(claims, SUBJECT, subject);
+        } else {
+            appendClaim(claims, defaultSubject);
+        }
+        if (clientId != null) {
+            appendClaim(claims, CLIENT_ID, clientId);
+        } else {
+            appendClaim(claims, defaultClientId);
+        }
+        if (scopes != null) {
+            appendScope(claims, scopes);
+        } else {
+            appendClaim(claims, defaultScope);
+        }
+        appendClaim(claims, JWT_ID, jwtId);
+        claims.append(",\"").append(ISSUED_AT).append("\":").append(issuedAt)
+              .append(",\"").append(EXPIRATION_TIME).append("\":").append(issuedAt + lifetime)
+              .append('}');
+
+        try {
+            return header.sign(claims.toString());
+        } catch (RuntimeException e) {
+            throw new OAuthSystemException("OAuth Token cannot be generated.", e);
+        }
+    }
+
+    /**
+     * Returns the current time in seconds, never going back in time when the
+     * wall clock is adjusted backwards, so that tokens issued later never
+     * expire earlier.
+     */
+    private long issuedAt() {
+        long now = currentTimeMillis() / 1000L;
+        long last = lastIssuedAt.get();
+        while (now > last) {
+            if (lastIssuedAt.compareAndSet(last, now)) {
+                return now;
+            }
+            last = lastIssuedAt.get();
+        }
+        return last;
+    }
+
+    /**
+     * Appends an already serialized {@code "name":value} claim, if any.
+     */
+    private static void appendClaim(StringBuilder claims, String claim) {
+        if (claim != null) {
+            if (claims.length() > 1) {
+                claims.append(',');
+            }
+            claims.append(claim);
+        }
+    }
+
+    private static void appendClaim(StringBuilder claims, String name, String value) {
+        if (claims.length() > 1) {
+            claims.append(',');
+        }
+        claims.append('"').append(name).append("\":\"");
+        appendEscaped(claims, value);
+        claims.append('"');
+    }
+
+    /**
+     * Appends the scopes as a space separated {@code scope} claim, as for RFC 8693.
+     */
+    private static void appendScope(StringBuilder claims, Collection<String> scopes) {
+        if (claims.length() > 1) {
+            claims.append(',');
+        }
+        claims.append('"').append(SCOPE).append("\":\"");
+        boolean first = true;
+        for (String scope : scopes) {
+            if (!first) {
+                claims.append(' ');
+            }
+            appendEscaped(claims, scope);
+            first = false;
+        }
+        claims.append('"');
+    }
+
+    /**
+     * Serializes a single template claim to its {@code "name":value} JSON member.
+     */
+    private static String serializeClaim(String name, Object value) {
+        if (value == null) {
+            return null;
+        }
+        String claim = new ClaimTemplateWriter().write(new ClaimTemplate(Collections.singletonMap(name, value)));
+        return claim.substring(claim.indexOf('{') + 1, claim.lastIndexOf('}'));
+    }
+
+    private static void appendEscaped(StringBuilder target, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                target.append('\\').append(c);
+            } else if (c < 0x20) {
+                target.append(String.format("\\u%04x", (int) c));
+            } else {
+                target.append(c);
+            }
+        }
+    }
+
+    public static final class Builder<S extends SigningKey, V extends VerifyingKey> {
+
+        private final SignatureMethod<S, V> method;
+
+        private final S signingKey;
+
+        private final Map<String, Object> claims = new LinkedHashMap<String, Object>();
+
+        private String keyId;
+
+        private String accessTokenType = ACCESS_TOKEN_TYPE;
+
+        private String refreshTokenAudience;
+
+        private long accessTokenLifetime = 3600L;
+
+        private long refreshTokenLifetime = 14L * 24L * 3600L;
+
+        private ValueGenerator valueGenerator = new SecureRandomValueGenerator();
+
+        public Builder(SignatureMethod<S, V> method, S signingKey) {
+            if (method == null) {
+                throw new IllegalArgumentException("A signature method is required in order to sign the tokens.");
+            }
+            if (signingKey == null) {
+                throw new IllegalArgumentException("A signing key is required in order to sign the tokens.");
+            }
+            this.method = method;
+            this.signingKey = signingKey;
+        }
+
+        /**
+         * Sets the {@code kid} header parameter of the issued tokens.
+         */
+        public Builder<S, V> setKeyId(String keyId) {
+            this.keyId = keyId;
+            return this;
+        }
+
+        /**
+         * Sets the {@code typ} header parameter of access tokens, {@value JWTIssuer#ACCESS_TOKEN_TYPE} by default.
+         */
+        public Builder<S, V> setAccessTokenType(String accessTokenType) {
+            this.accessTokenType = accessTokenType;
+            return this;
+        }
+
+        public Builder<S, V> setIssuer(String issuer) {
+            return setClaim(ISSUER, issuer);
+        }
+
+        /**
+         * Sets the {@code aud} claim of access tokens, the resource servers
+         * accepting them.
+         */
+        public Builder<S, V> setAudience(String audience) {
+            return setClaim(AUDIENCE, audience);
+        }
+
+        /**
+         * Sets the {@code aud} claim of refresh tokens, the issuer by default;
+         * it must differ from the access tokens audience, so that resource
+         * servers checking it reject refresh tokens.
+         */
+        public Builder<S, V> setRefreshTokenAudience(String refreshTokenAudience) {
+            this.refreshTokenAudience = refreshTokenAudience;
+            return this;
+        }
+
+        /**
+         * Adds a claim to the template shared by every issued token.
+         *
+         * @param name the claim name, the per-token {@code jti}, {@code iat}
+         *        and {@code exp} claims can't be set; the {@code sub},
+         *        {@code client_id} and {@code scope} ones are the defaults of
+         *        the tokens issued without their own.
+         * @param value the claim value, a string, number, boolean or a collection of them.
+         */
+        public Builder<S, V> setClaim(String name, Object value) {
+            if (name == null) {
+                throw new IllegalArgumentException("Null claim name not allowed.");
+            }
+            if (JWT_ID.equals(name) || ISSUED_AT.equals(name) || EXPIRATION_TIME.equals(name)) {
+                throw new IllegalArgumentException("Claim '" + name + "' is set by the issuer on every token.");
+            }
+            if (value != null) {
+                claims.put(name, value);
+            } else {
+                claims.remove(name);
+            }
+            return this;
+        }
+
+        /**
+         * Sets the access tokens lifetime in seconds, one hour by default.
+         */
+        public Builder<S, V> setAccessTokenLifetime(long accessTokenLifetime) {
+            if (accessTokenLifetime <= 0) {
+                throw new IllegalArgumentException("Access token lifetime must be positive.");
+            }
+            this.accessTokenLifetime = accessTokenLifetime;
+            return this;
+        }
+
+        /**
+         * Sets the refresh tokens lifetime in seconds, fourteen days by default.
+         */
+        public Builder<S, V> setRefreshTokenLifetime(long refreshTokenLifetime) {
+            if (refreshTokenLifetime <= 0) {
+                throw new IllegalArgumentException("Refresh token lifetime must be positive.");
+            }
+            this.refreshTokenLifetime = refreshTokenLifetime;
+            return this;
+        }
+
+        /**
+         * Sets the generator of the {@code jti} claims and of the
+         * authorization codes, {@link SecureRandomValueGenerator} by default.
+         */
+        public Builder<S, V> setValueGenerator(ValueGenerator valueGenerator) {
+            if (valueGenerator == null) {
+                throw new IllegalArgumentException("Null value generator not allowed.");
+            }
+            this.valueGenerator = valueGenerator;
+            return this;
+        }
+
+        public JWTIssuer build() {
+            return new JWTIssuer(this);
+        }
+
+        private JWSHeaderTemplate<S, V> buildHeaderTemplate(String type) {
+            return new JWS.Builder()
+                   .setType(type)
+                   .setKeyId(keyId)
+                   .buildHeaderTemplate(method, signingKey);
+        }
+
+    }
+
+    /**
+     * The claims shared by every issued token, all kept as custom fields.
+     */
+    private static final class ClaimTemplate extends CustomizableEntity {
+
+        ClaimTemplate(Map<String, Object> claims) {
+            super(Collections.unmodifiableMap(new LinkedHashMap<String, Object>(claims)));
+        }
+
+    }
+
+    private static final class ClaimTemplateWriter extends CustomizableEntityWriter<ClaimTemplate> {
+
+        @Override
+        protected void handleProperties(ClaimTemplate claimTemplate, JsonGenerator generator) {
+            // all claims are custom fields
+        }
+
+    }
+
+}
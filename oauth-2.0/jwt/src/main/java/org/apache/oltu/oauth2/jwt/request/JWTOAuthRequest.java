@@ -19,14 +19,19 @@ package org.apache.oltu.oauth2.jwt.request;
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.oltu.oauth2.as.request.AbstractOAuthTokenRequest;
+import org.apache.oltu.oauth2.as.validator.ValidatorRegistry;
 import org.apache.oltu.oauth2.common.OAuth;
 import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
 import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
 import org.apache.oltu.oauth2.common.message.types.GrantType;
-import org.apache.oltu.oauth2.common.validators.OAuthValidator;
 
 public class JWTOAuthRequest extends AbstractOAuthTokenRequest {
 
+    private static final ValidatorRegistry VALIDATORS = new ValidatorRegistry.Builder()
+        .register(GrantType.JWT_BEARER.toString(), new JWTBearerValidator())
+        .registerProviders(JWTOAuthRequest.class)
+        .build();
+
     /**
      * Create a JWT OAuth Token request from a given HttpSerlvetRequest
      *
@@ -39,10 +44,8 @@ public class JWTOAuthRequest extends AbstractOAuthTokenRequest {
     }
     
 	@Override
-	protected OAuthValidator<HttpServletRequest> initValidator()
-			throws OAuthProblemException, OAuthSystemException {
-		validators.put(GrantType.JWT_BEARER.toString(), JWTBearerValidator.class);
-		return super.initValidator();
+	protected ValidatorRegistry getValidatorRegistry() {
+		return VALIDATORS;
 	}
 	
 	public String getAssertion() {
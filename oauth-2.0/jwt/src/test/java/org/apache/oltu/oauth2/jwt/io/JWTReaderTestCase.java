@@ -16,6 +16,7 @@
  */
 package org.apache.oltu.oauth2.jwt.io;
 
+import org.apache.oltu.commons.encodedtoken.TokenDecoder;
 import org.apache.oltu.oauth2.jwt.ClaimsSet;
 import org.apache.oltu.oauth2.jwt.Header;
 import org.apache.oltu.oauth2.jwt.JWT;
@@ -23,9 +24,12 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.math.BigDecimal;
 import java.util.Arrays;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 public final class JWTReaderTestCase implements IOTestCaseConstants {
 
@@ -83,4 +87,27 @@ public final class JWTReaderTestCase implements IOTestCaseConstants {
         assertEquals(1366726317L, claimsSet.getIssuedAt());
     }
 
+    @Test
+    public void testClaimsSetCustomFieldTypes() throws Exception {
+        String claims = "{\"iss\":\"joe\",\"exp\":1300819380,\"small\":-42,"
+                        + "\"big\":123456789012345678901234567890,\"decimal\":1.5,"
+                        + "\"flag\":true,\"nested\":{\"a\":[1,{\"b\":2}]},\"nothing\":null,"
+                        + "\"list\":[\"a\",7,[false]]}";
+        jwt = jwtReader.read(TokenDecoder.base64Encode("{\"alg\":\"none\"}")
+                             + "." + TokenDecoder.base64Encode(claims)
+                             + ".c2lnbmF0dXJl");
+
+        ClaimsSet claimsSet = jwt.getClaimsSet();
+        assertEquals("joe", claimsSet.getIssuer());
+        assertEquals(1300819380L, claimsSet.getExpirationTime());
+        assertEquals(Long.valueOf(-42), claimsSet.getCustomField("small", Long.class));
+        assertEquals(new BigDecimal("123456789012345678901234567890"), claimsSet.getCustomField("big", BigDecimal.class));
+        assertEquals(new BigDecimal("1.5"), claimsSet.getCustomField("decimal", BigDecimal.class));
+        assertEquals(Boolean.TRUE, claimsSet.getCustomField("flag", Boolean.class));
+        assertNull(claimsSet.getCustomField("nested", Object.class));
+        assertNull(claimsSet.getCustomField("nothing", Object.class));
+        assertArrayEquals(new Object[] { "a", 7L, new Object[] { false } },
+                          claimsSet.getCustomField("list", Object[].class));
+    }
+
 }
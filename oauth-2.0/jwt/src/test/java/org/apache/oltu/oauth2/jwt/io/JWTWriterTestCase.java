@@ -106,4 +106,35 @@ public final class JWTWriterTestCase implements IOTestCaseConstants {
         assertEquals(JWT_MULTIPLE_AUDIENCES, encodedJWT);
     }
 
+    @Test
+    public void writeWithHeaderTemplate() {
+        JWT jwt = new JWT.Builder()
+                          // header
+                          .setHeaderAlgorithm("RS256")
+                          .setHeaderCustomField("kid", "be1da0b3567bd265a25098fbcc2b09f21345b3a2")
+                          // claimset
+                          .setClaimsSetAudience("788732372078.apps.googleusercontent.com")
+                          .setClaimsSetIssuer("accounts.google.com")
+                          .setClaimsSetSubject("106422453082479998429")
+                          .setClaimsSetExpirationTime(1366730217L)
+                          .setClaimsSetIssuedAt(1366726317L)
+                          .setClaimsSetCustomField("id", "106422453082479998429")
+                          .setClaimsSetCustomField("verified_email", "true")
+                          .setClaimsSetCustomField("email_verified", "true")
+                          .setClaimsSetCustomField("cid", "788732372078.apps.googleusercontent.com")
+                          .setClaimsSetCustomField("azp", "788732372078.apps.googleusercontent.com")
+                          .setClaimsSetCustomField("email", "antonio.sanso@gmail.com")
+                          .setClaimsSetCustomField("token_hash", "L2I77giBLk0RSs0zQ1SvCA")
+                          .setClaimsSetCustomField("at_hash", "L2I77giBLk0RSs0zQ1SvCA")
+                          .build();
+        String signature = "XWYi5Zj1YWAMGIml_ftoAwmvW1Y7oeybLCpzQrJVuWJpS8L8Vd2TL-RTIOEVG03VA7e0_-_frNuw7MxUgVEgh8G-Nnbk_baJ6k_3w5c1SKFamFiHHDoKLFhrt1Y8JKSuGwE02V-px4Cn0dRAQAc1IN5CU6wqCrYK0p-fv_fvy28";
+
+        JWTHeaderTemplate template = new JWTHeaderTemplate(jwt.getHeader());
+        assertEquals(JWT.substring(0, JWT.indexOf('.')), template.getEncodedHeader());
+        assertEquals(JWT.substring(0, JWT.lastIndexOf('.')), template.writeSigningInput(jwt.getClaimsSet()));
+        assertEquals(JWT, template.write(jwt.getClaimsSet(), signature));
+        // reusable
+        assertEquals(JWT, template.write(jwt.getClaimsSet(), signature));
+    }
+
 }
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.jwt.issuer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+
+import org.apache.oltu.jose.jws.JWS;
+import org.apache.oltu.jose.jws.JWSConstants;
+import org.apache.oltu.jose.jws.io.JWSReader;
+import org.apache.oltu.jose.jws.signature.impl.SignatureMethodHMACImpl;
+import org.apache.oltu.jose.jws.signature.impl.SymmetricKeyImpl;
+import org.apache.oltu.oauth2.jwt.ClaimsSet;
+import org.apache.oltu.oauth2.jwt.JWT;
+import org.apache.oltu.oauth2.jwt.io.JWTReader;
+import org.junit.Test;
+
+public final class JWTIssuerTestCase {
+
+    private final SignatureMethodHMACImpl method = new SignatureMethodHMACImpl(JWSConstants.HS256);
+
+    private final SymmetricKeyImpl key = new SymmetricKeyImpl("supercalifragilistichespiralidoso1234567890".getBytes());
+
+    private long now = 1500000000123L;
+
+    private JWTIssuer.Builder<SymmetricKeyImpl, SymmetricKeyImpl> builder() {
+        return new JWTIssuer.Builder<SymmetricKeyImpl, SymmetricKeyImpl>(method, key);
+    }
+
+    @Test
+    public void accessToken() throws Exception {
+        JWTIssuer issuer = builder()
+                           .setKeyId("key-1")
+                           .setIssuer("https://as.example.com")
+                           .setAudience("https://rs.example.com")
+                           .setClaim("scope", "read write")
+                           .setClaim("roles", Arrays.asList("admin", "user"))
+                           .setAccessTokenLifetime(300)
+                           .build();
+
+        String accessToken = issuer.accessToken();
+
+        JWS jws = new JWSReader().read(accessToken);
+        assertTrue(jws.validate(method, key));
+        assertEquals(JWSConstants.HS256, jws.getHeader().getAlgorithm());
+        assertEquals(JWTIssuer.ACCESS_TOKEN_TYPE, jws.getHeader().getType());
+        assertEquals("key-1", jws.getHeader().getKeyId());
+
+        ClaimsSet claimsSet = new JWTReader().read(accessToken).getClaimsSet();
+        assertEquals("https://as.example.com", claimsSet.getIssuer());
+        assertEquals("https://rs.example.com", claimsSet.getAudience());
+        assertEquals("read write", claimsSet.getCustomField("scope", String.class));
+        assertEquals(300L, claimsSet.getExpirationTime() - claimsSet.getIssuedAt());
+        assertEquals(43, claimsSet.getJwdId().length());
+
+        assertNotEquals(claimsSet.getJwdId(), new JWTReader().read(issuer.accessToken()).getClaimsSet().getJwdId());
+    }
+
+    @Test
+    public void accessTokenPerTokenClaims() throws Exception {
+        JWTIssuer issuer = builder()
+                           .setIssuer("https://as.example.com")
+                           .setAudience("https://rs.example.com")
+                           .setClaim("scope", "read")
+                           .build();
+
+        String accessToken = issuer.accessToken("alice", "s6BhdRkqt3",
+                new LinkedHashSet<String>(Arrays.asList("read", "write")));
+
+        ClaimsSet claimsSet = new JWTReader().read(accessToken).getClaimsSet();
+        assertEquals("alice", claimsSet.getSubject());
+        assertEquals("s6BhdRkqt3", claimsSet.getCustomField("client_id", String.class));
+        assertEquals("read write", claimsSet.getCustomField("scope", String.class));
+        assertEquals("https://rs.example.com", claimsSet.getAudience());
+
+        // the template scope is the default
+        claimsSet = new JWTReader().read(issuer.accessToken("bob", "s6BhdRkqt3", null)).getClaimsSet();
+        assertEquals("bob", claimsSet.getSubject());
+        assertEquals("read", claimsSet.getCustomField("scope", String.class));
+    }
+
+    @Test
+    public void refreshTokenIsNotForResourceServers() throws Exception {
+        JWTIssuer issuer = builder()
+                           .setIssuer("https://as.example.com")
+                           .setAudience("https://rs.example.com")
+                           .build();
+
+        ClaimsSet claimsSet = new JWTReader().read(issuer.refreshToken("alice", "s6BhdRkqt3", null)).getClaimsSet();
+        assertEquals("https://as.example.com", claimsSet.getAudience());
+        assertEquals("alice", claimsSet.getSubject());
+
+        issuer = builder()
+                 .setIssuer("https://as.example.com")
+                 .setAudience("https://rs.example.com")
+                 .setRefreshTokenAudience("https://as.example.com/token")
+                 .build();
+        claimsSet = new JWTReader().read(issuer.refreshToken()).getClaimsSet();
+        assertEquals("https://as.example.com/token", claimsSet.getAudience());
+
+        claimsSet = new JWTReader().read(builder().setAudience("https://rs.example.com").build().refreshToken())
+                    .getClaimsSet();
+        assertNull(claimsSet.getAudience());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void refreshTokenAudienceSameAsAccessToken() {
+        builder()
+        .setAudience("https://rs.example.com")
+        .setRefreshTokenAudience("https://rs.example.com")
+        .build();
+    }
+
+    @Test
+    public void refreshToken() throws Exception {
+        JWTIssuer issuer = builder().setRefreshTokenLifetime(86400).build();
+
+        String refreshToken = issuer.refreshToken();
+
+        JWS jws = new JWSReader().read(refreshToken);
+        assertTrue(jws.validate(method, key));
+        assertEquals(JWTIssuer.REFRESH_TOKEN_TYPE, jws.getHeader().getType());
+
+        JWT jwt = new JWTReader().read(refreshToken);
+        assertEquals(86400L, jwt.getClaimsSet().getExpirationTime() - jwt.getClaimsSet().getIssuedAt());
+        assertFalse(issuer.authorizationCode().equals(issuer.authorizationCode()));
+    }
+
+    @Test
+    public void issuedAtNeverGoesBack() throws Exception {
+        JWTIssuer issuer = new JWTIssuer(builder()) {
+
+            @Override
+            protected long currentTimeMillis() {
+                return now;
+            }
+
+        };
+
+        assertEquals(1500000000L, new JWTReader().read(issuer.accessToken()).getClaimsSet().getIssuedAt());
+
+        // wall clock adjusted backwards
+        now -= 60000L;
+        assertEquals(1500000000L, new JWTReader().read(issuer.accessToken()).getClaimsSet().getIssuedAt());
+
+        now += 120000L;
+        assertEquals(1500000060L, new JWTReader().read(issuer.accessToken()).getClaimsSet().getIssuedAt());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void reservedClaim() {
+        builder().setClaim("exp", 0L);
+    }
+
+}
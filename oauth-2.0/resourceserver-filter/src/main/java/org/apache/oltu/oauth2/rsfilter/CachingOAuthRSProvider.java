@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.rsfilter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
+
+/**
+ * {@link OAuthRSProvider} decorator caching the {@link OAuthDecision}s taken by
+ * the wrapped provider, so that a bearer token reused across many requests is
+ * validated once.
+ *
+ * Entries are keyed by the SHA-256 digest of the resource server id and of the
+ * token, so that tokens are not retained in memory; the cache is bounded by
+ * size, least recently used entries being evicted first, and each entry
+ * lives at most the configured time to live and never beyond the token
+ * expiration time given by the {@link ExpiringOAuthDecision}. Decisions with
+ * no known expiration time are not cached, unless explicitly allowed, since
+ * they could outlive the token they were taken for. Failed validations are
+ * not cached.
+ *
+ * The cache must only wrap providers whose decisions depend on the resource
+ * server id and the token alone, not on the rest of the request.
+ */
+public class CachingOAuthRSProvider implements OAuthRSProvider {
+
+    private final OAuthRSProvider provider;
+
+    private final long timeToLive;
+
+    private final boolean cacheUnknownExpiration;
+
+    private final TokenCache<OAuthDecision> decisions;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Creates a cache of the decisions with a known expiration time only.
+     *
+     * @param provider the provider taking the decisions to be cached
+     * @param maxSize the maximum number of cached decisions
+     * @param timeToLive the maximum time a decision is cached, in milliseconds
+     */
+    public CachingOAuthRSProvider(OAuthRSProvider provider, int maxSize, long timeToLive) {
+        this(provider, maxSize, timeToLive, false);
+    }
+
+    /**
+     * @param provider the provider taking the decisions to be cached
+     * @param maxSize the maximum number of cached decisions
+     * @param timeToLive the maximum time a decision is cached, in milliseconds
+     * @param cacheUnknownExpiration <code>true</code> to cache for the whole time to live the decisions
+     *        which are not {@link ExpiringOAuthDecision}s or don't know the token expiration time, accepting
+     *        that expired or revoked tokens are let through until then
+     */
+    public CachingOAuthRSProvider(OAuthRSProvider provider, int maxSize, long timeToLive,
+                                  boolean cacheUnknownExpiration) {
+        if (provider == null) {
+            throw new IllegalArgumentException("The provider to cache decisions of is required");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("Cache time to live must be positive: " + timeToLive);
+        }
+        this.provider = provider;
+        this.timeToLive = timeToLive;
+        this.cacheUnknownExpiration = cacheUnknownExpiration;
+        this.decisions = new TokenCache<OAuthDecision>(maxSize);
+    }
+
+    @Override
+    public OAuthDecision validateRequest(String rsId, String token, HttpServletRequest req)
+        throws OAuthProblemException {
+        if (token == null) {
+            return provider.validateRequest(rsId, token, req);
+        }
+
+        TokenKey key = TokenKey.of(rsId, token);
+        long now = currentTimeMillis();
+
+        OAuthDecision decision = decisions.get(key, now);
+        if (decision != null) {
+            hits.incrementAndGet();
+            return decision;
+        }
+
+        misses.incrementAndGet();
+        decision = provider.validateRequest(rsId, token, req);
+        if (decision != null) {
+            long expirationTime = decision instanceof ExpiringOAuthDecision
+                ? ((ExpiringOAuthDecision) decision).getExpirationTime()
+                : 0L;
+            long expiresAt = now + timeToLive;
+            if (expirationTime > 0) {
+                expiresAt = Math.min(expiresAt, expirationTime);
+            } else if (!cacheUnknownExpiration) {
+                return decision;
+            }
+            if (expiresAt > now) {
+                decisions.put(key, decision, expiresAt);
+            }
+        }
+        return decision;
+    }
+
+    /**
+     * @return the number of requests served from the cache.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of requests delegated to the wrapped provider.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of currently cached decisions, expired ones included.
+     */
+    public int size() {
+        return decisions.size();
+    }
+
+    /**
+     * Drops all the cached decisions, e.g. after a key rotation or revocation.
+     */
+    public void clear() {
+        decisions.clear();
+    }
+
+    /**
+     * @return the current time in milliseconds, can be overridden for testing purposes.
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oltu.oauth2.rsfilter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.oltu.oauth2.common.error.OAuthError;
+import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
+
+/**
+ * {@link OAuthRSProvider} decorator remembering the tokens rejected by the
+ * wrapped provider for a short time, so that clients sending the same invalid
+ * or expired token again and again are rejected without validating it.
+ *
+ * Entries are keyed like in {@link CachingOAuthRSProvider} and only record the
+ * error code of the rejection: repeated requests get a shared
+ * {@link OAuthProblemException} without description, for which
+ * {@link OAuthFilter} sends a response built once. A rejected token is only
+ * admitted in the cache with the configured probability, so that tokens sent
+ * once don't evict the ones sent repeatedly; a token sent repeatedly is
+ * admitted after a few requests. Transient failures, the
+ * <code>server_error</code> and <code>temporarily_unavailable</code> errors,
+ * are not cached.
+ *
+ * The cache must only wrap providers whose rejections depend on the resource
+ * server id and the token alone, not on the rest of the request.
+ */
+public class NegativeCachingOAuthRSProvider implements OAuthRSProvider {
+
+    /**
+     * Maximum number of distinct error codes having a shared problem, other
+     * codes are not cached.
+     */
+    private static final int MAX_ERRORS = 16;
+
+    private final OAuthRSProvider provider;
+
+    private final long timeToLive;
+
+    private final double admissionProbability;
+
+    private final TokenCache<OAuthProblemException> rejections;
+
+    private final ConcurrentMap<String, OAuthProblemException> problems =
+        new ConcurrentHashMap<String, OAuthProblemException>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong admissions = new AtomicLong();
+
+    private final AtomicLong skippedAdmissions = new AtomicLong();
+
+    /**
+     * @param provider the provider whose rejections are cached
+     * @param maxSize the maximum number of cached rejections
+     * @param timeToLive the maximum time a rejection is cached, in milliseconds
+     * @param admissionProbability the probability a rejected token is cached, greater than 0 and at most 1
+     */
+    public NegativeCachingOAuthRSProvider(OAuthRSProvider provider, int maxSize, long timeToLive,
+                                          double admissionProbability) {
+        if (provider == null) {
+            throw new IllegalArgumentException("The provider to cache rejections of is required");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("Cache time to live must be positive: " + timeToLive);
+        }
+        if (!(admissionProbability > 0 && admissionProbability <= 1)) {
+            throw new IllegalArgumentException("Cache admission probability must be in ]0, 1]: "
+                                               + admissionProbability);
+        }
+        this.provider = provider;
+        this.timeToLive = timeToLive;
+        this.admissionProbability = admissionProbability;
+        this.rejections = new TokenCache<OAuthProblemException>(maxSize);
+    }
+
+    @Override
+    public OAuthDecision validateRequest(String rsId, String token, HttpServletRequest req)
+        throws OAuthProblemException {
+        if (token == null) {
+            return provider.validateRequest(rsId, token, req);
+        }
+
+        TokenKey key = TokenKey.of(rsId, token);
+        long now = currentTimeMillis();
+
+        OAuthProblemException problem = rejections.get(key, now);
+        if (problem != null) {
+            hits.incrementAndGet();
+            throw problem;
+        }
+
+        misses.incrementAndGet();
+        try {
+            return provider.validateRequest(rsId, token, req);
+        } catch (OAuthProblemException e) {
+            OAuthProblemException shared = sharedProblem(e.getError());
+            if (shared != null) {
+                if (admit()) {
+                    admissions.incrementAndGet();
+                    rejections.put(key, shared, now + timeToLive);
+                } else {
+                    skippedAdmissions.incrementAndGet();
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of requests rejected from the cache.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of requests delegated to the wrapped provider.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of rejected tokens put in the cache.
+     */
+    public long getAdmissionCount() {
+        return admissions.get();
+    }
+
+    /**
+     * @return the number of rejected tokens not put in the cache by the admission policy.
+     */
+    public long getSkippedAdmissionCount() {
+        return skippedAdmissions.get();
+    }
+
+    /**
+     * @return the number of currently cached rejections, expired ones included.
+     */
+    public int size() {
+        return rejections.size();
+    }
+
+    /**
+     * Drops all the cached rejections.
+     */
+    public void clear() {
+        rejections.clear();
+    }
+
+    /**
+     * @return the current time in milliseconds, can be overridden for testing purposes.
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * @return whether a rejected token is cached, can be overridden for testing purposes.
+     */
+    protected boolean admit() {
+        return admissionProbability >= 1 || ThreadLocalRandom.current().nextDouble() < admissionProbability;
+    }
+
+    /**
+     * @return the shared problem reported for the error code, or <code>null</code> when it must not be cached.
+     */
+    private OAuthProblemException sharedProblem(String error) {
+        if (OAuthError.CodeResponse.SERVER_ERROR.equals(error)
+            || OAuthError.CodeResponse.TEMPORARILY_UNAVAILABLE.equals(error)) {
+            return null;
+        }
+        // null keys are not supported
+        String code = error == null ? "" : error;
+        OAuthProblemException problem = problems.get(code);
+        if (problem == null) {
+            if (problems.size() >= MAX_ERRORS) {
+                return null;
+            }
+            problem = OAuthProblemException.shared(error, null);
+            OAuthProblemException previous = problems.putIfAbsent(code, problem);
+            if (previous != null) {
+                problem = previous;
+            }
+        }
+        return problem;
+    }
+
+}
@@ -25,8 +25,10 @@ import org.apache.oltu.oauth2.common.OAuth;
 import org.apache.oltu.oauth2.common.error.OAuthError;
 import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
 import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
-import org.apache.oltu.oauth2.common.message.OAuthResponse;
+import org.apache.oltu.oauth2.common.message.PreparedErrorResponse;
 import org.apache.oltu.oauth2.common.message.types.ParameterStyle;
+import org.apache.oltu.oauth2.common.message.types.TokenType;
+import org.apache.oltu.oauth2.rs.request.AccessTokenResolver;
 import org.apache.oltu.oauth2.rs.request.OAuthAccessResourceRequest;
 import org.apache.oltu.oauth2.rs.response.OAuthRSResponse;
 
@@ -36,6 +38,8 @@ import javax.servlet.http.HttpServletRequestWrapper;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.security.Principal;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  *
@@ -52,14 +56,74 @@ public class OAuthFilter implements Filter {
     public static final String RS_TOKENS = "oauth.rs.tokens";
     public static final ParameterStyle RS_TOKENS_DEFAULT = ParameterStyle.HEADER;
 
+    /**
+     * Whether every accepted token mechanism is validated on each request. When disabled, the body mechanisms
+     * are skipped for requests with a single valid header or query token and no form parameters.
+     */
+    public static final String RS_TOKENS_EXHAUSTIVE = "oauth.rs.tokens.exhaustive";
+    public static final boolean RS_TOKENS_EXHAUSTIVE_DEFAULT = true;
+
+    /**
+     * Maximum number of cached decisions, caching is disabled when missing. Cached decisions are reused for
+     * any request carrying the same token: the provider decisions must not depend on the rest of the request.
+     */
+    public static final String RS_CACHE_SIZE = "oauth.rs.cache.size";
+
+    /**
+     * Maximum time a decision is cached, in seconds; decisions are never cached beyond the token expiration
+     * time. The provider decisions must not depend on the rest of the request.
+     */
+    public static final String RS_CACHE_TTL = "oauth.rs.cache.ttl";
+    public static final long RS_CACHE_TTL_DEFAULT = 60;
+
+    /**
+     * Whether the decisions not telling the token expiration time, see {@link ExpiringOAuthDecision}, are
+     * cached for the whole time to live, letting expired or revoked tokens through until then. The provider
+     * decisions must not depend on the rest of the request.
+     */
+    public static final String RS_CACHE_UNKNOWN_EXPIRATION = "oauth.rs.cache.unknown-expiration";
+    public static final boolean RS_CACHE_UNKNOWN_EXPIRATION_DEFAULT = false;
+
+    /**
+     * Maximum number of cached rejected tokens, caching is disabled when missing.
+     */
+    public static final String RS_NEGATIVE_CACHE_SIZE = "oauth.rs.cache.negative.size";
+
+    /**
+     * Maximum time a rejected token is cached, in seconds.
+     */
+    public static final String RS_NEGATIVE_CACHE_TTL = "oauth.rs.cache.negative.ttl";
+    public static final long RS_NEGATIVE_CACHE_TTL_DEFAULT = 10;
+
+    /**
+     * Probability a rejected token is cached, greater than 0 and at most 1.
+     */
+    public static final String RS_NEGATIVE_CACHE_ADMISSION = "oauth.rs.cache.negative.admission";
+    public static final double RS_NEGATIVE_CACHE_ADMISSION_DEFAULT = 0.25;
+
     private static final String TOKEN_DELIMITER = ",";
 
+    private static final int MAX_SHARED_ERRORS = 64;
+
     private String realm;
 
     private OAuthRSProvider provider;
 
     private ParameterStyle[] parameterStyles;
 
+    private AccessTokenResolver resolver;
+
+    /**
+     * Response sent when the request carries no token.
+     */
+    private PreparedErrorResponse unauthorized;
+
+    /**
+     * Responses of the shared problems thrown so far, by identity.
+     */
+    private final ConcurrentMap<OAuthProblemException, PreparedErrorResponse> sharedErrors =
+        new ConcurrentHashMap<OAuthProblemException, PreparedErrorResponse>();
+
 
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
@@ -67,6 +131,8 @@ public class OAuthFilter implements Filter {
         provider = OAuthUtils
             .initiateServletContext(filterConfig, OAUTH_RS_PROVIDER_CLASS,
                 OAuthRSProvider.class);
+        provider = initCache(filterConfig, provider);
+        provider = initNegativeCache(filterConfig, provider);
         realm = filterConfig.getInitParameter(RS_REALM);
         if (OAuthUtils.isEmpty(realm)) {
             realm = RS_REALM_DEFAULT;
@@ -90,6 +156,19 @@ public class OAuthFilter implements Filter {
             }
         }
 
+        String exhaustiveString = filterConfig.getServletContext().getInitParameter(RS_TOKENS_EXHAUSTIVE);
+        boolean exhaustive = OAuthUtils.isEmpty(exhaustiveString)
+            ? RS_TOKENS_EXHAUSTIVE_DEFAULT
+            : Boolean.parseBoolean(exhaustiveString.trim());
+
+        try {
+            // the problems are only turned into responses, they can be shared constants
+            resolver = new AccessTokenResolver(new TokenType[] {OAuth.DEFAULT_TOKEN_TYPE}, parameterStyles,
+                                               exhaustive, true);
+            unauthorized = OAuthRSResponse.prepareError(HttpServletResponse.SC_UNAUTHORIZED, realm, null);
+        } catch (OAuthSystemException e) {
+            throw new ServletException(e);
+        }
     }
 
     @Override
@@ -101,8 +180,7 @@ public class OAuthFilter implements Filter {
         try {
 
             // Make an OAuth Request out of this servlet request
-            OAuthAccessResourceRequest oauthRequest = new OAuthAccessResourceRequest(req,
-                parameterStyles);
+            OAuthAccessResourceRequest oauthRequest = new OAuthAccessResourceRequest(req, resolver);
 
             // Get the access token
             String accessToken = oauthRequest.getAccessToken();
@@ -143,39 +221,84 @@ public class OAuthFilter implements Filter {
 
     }
 
+    private static OAuthRSProvider initCache(FilterConfig filterConfig, OAuthRSProvider provider)
+        throws ServletException {
+        String cacheSize = filterConfig.getInitParameter(RS_CACHE_SIZE);
+        if (OAuthUtils.isEmpty(cacheSize)) {
+            return provider;
+        }
+
+        String cacheTtl = filterConfig.getInitParameter(RS_CACHE_TTL);
+        String unknownExpiration = filterConfig.getInitParameter(RS_CACHE_UNKNOWN_EXPIRATION);
+        try {
+            long ttl = OAuthUtils.isEmpty(cacheTtl) ? RS_CACHE_TTL_DEFAULT : Long.parseLong(cacheTtl);
+            boolean cacheUnknownExpiration = OAuthUtils.isEmpty(unknownExpiration)
+                ? RS_CACHE_UNKNOWN_EXPIRATION_DEFAULT
+                : Boolean.parseBoolean(unknownExpiration.trim());
+            return new CachingOAuthRSProvider(provider, Integer.parseInt(cacheSize), ttl * 1000L,
+                                              cacheUnknownExpiration);
+        } catch (IllegalArgumentException e) {
+            throw new ServletException("Incorrect decisions cache configuration: " + e.getMessage());
+        }
+    }
+
+    private static OAuthRSProvider initNegativeCache(FilterConfig filterConfig, OAuthRSProvider provider)
+        throws ServletException {
+        String cacheSize = filterConfig.getInitParameter(RS_NEGATIVE_CACHE_SIZE);
+        if (OAuthUtils.isEmpty(cacheSize)) {
+            return provider;
+        }
+
+        String cacheTtl = filterConfig.getInitParameter(RS_NEGATIVE_CACHE_TTL);
+        String admission = filterConfig.getInitParameter(RS_NEGATIVE_CACHE_ADMISSION);
+        try {
+            long ttl = OAuthUtils.isEmpty(cacheTtl) ? RS_NEGATIVE_CACHE_TTL_DEFAULT : Long.parseLong(cacheTtl);
+            double admissionProbability = OAuthUtils.isEmpty(admission)
+                ? RS_NEGATIVE_CACHE_ADMISSION_DEFAULT
+                : Double.parseDouble(admission);
+            return new NegativeCachingOAuthRSProvider(provider, Integer.parseInt(cacheSize), ttl * 1000L,
+                                                      admissionProbability);
+        } catch (IllegalArgumentException e) {
+            throw new ServletException("Incorrect rejections cache configuration: " + e.getMessage());
+        }
+    }
+
     private void respondWithError(HttpServletResponse resp, OAuthProblemException error)
         throws IOException, ServletException {
 
-        OAuthResponse oauthResponse = null;
+        PreparedErrorResponse errorResponse;
 
         try {
             if (OAuthUtils.isEmpty(error.getError())) {
-                oauthResponse = OAuthRSResponse.errorResponse(HttpServletResponse.SC_UNAUTHORIZED)
-                    .setRealm(realm)
-                    .buildHeaderMessage();
-
-            } else {
-
-                int responseCode = 401;
-                if (error.getError().equals(OAuthError.CodeResponse.INVALID_REQUEST)) {
-                    responseCode = 400;
-                } else if (error.getError().equals(OAuthError.ResourceResponse.INSUFFICIENT_SCOPE)) {
-                    responseCode = 403;
+                errorResponse = unauthorized;
+            } else if (error.isShared()) {
+                // shared problems are constants, their response is built once
+                errorResponse = sharedErrors.get(error);
+                if (errorResponse == null) {
+                    errorResponse = prepareError(error);
+                    if (sharedErrors.size() < MAX_SHARED_ERRORS) {
+                        sharedErrors.putIfAbsent(error, errorResponse);
+                    }
                 }
-
-                oauthResponse = OAuthRSResponse
-                    .errorResponse(responseCode)
-                    .setRealm(realm)
-                    .setError(error.getError())
-                    .setErrorDescription(error.getDescription())
-                    .setErrorUri(error.getUri())
-                    .buildHeaderMessage();
+            } else {
+                errorResponse = prepareError(error);
             }
-            resp.addHeader(OAuth.HeaderType.WWW_AUTHENTICATE,
-                oauthResponse.getHeader(OAuth.HeaderType.WWW_AUTHENTICATE));
-            resp.sendError(oauthResponse.getResponseStatus());
         } catch (OAuthSystemException e) {
             throw new ServletException(e);
         }
+
+        resp.addHeader(OAuth.HeaderType.WWW_AUTHENTICATE,
+            errorResponse.getHeader(OAuth.HeaderType.WWW_AUTHENTICATE));
+        resp.sendError(errorResponse.getResponseStatus());
+    }
+
+    private PreparedErrorResponse prepareError(OAuthProblemException error) throws OAuthSystemException {
+        int responseCode = 401;
+        if (error.getError().equals(OAuthError.CodeResponse.INVALID_REQUEST)) {
+            responseCode = 400;
+        } else if (error.getError().equals(OAuthError.ResourceResponse.INSUFFICIENT_SCOPE)) {
+            responseCode = 403;
+        }
+        return OAuthRSResponse.prepareError(responseCode, realm, error);
     }
 }
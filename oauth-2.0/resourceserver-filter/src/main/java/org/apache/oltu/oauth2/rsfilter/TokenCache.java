@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oltu.oauth2.rsfilter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Size bounded cache of values expiring at a given time, keyed by
+ * {@link TokenKey}; least recently used entries are evicted first, from
+ * independently locked segments.
+ */
+final class TokenCache<V> {
+
+    /**
+     * Number of independently locked segments, must be a power of two.
+     */
+    private static final int SEGMENTS = 16;
+
+    private final Segment<V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    TokenCache(int maxSize) {
+        int segmentSize = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<V>(segmentSize);
+        }
+    }
+
+    /**
+     * @return the value cached for the key, or <code>null</code> when missing or expired.
+     */
+    V get(TokenKey key, long now) {
+        return segment(key).get(key, now);
+    }
+
+    void put(TokenKey key, V value, long expiresAt) {
+        segment(key).put(key, value, expiresAt);
+    }
+
+    /**
+     * @return the number of cached values, expired ones included.
+     */
+    int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    void clear() {
+        for (Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment<V> segment(TokenKey key) {
+        return segments[key.hashCode & (SEGMENTS - 1)];
+    }
+
+    private static final class Segment<V> {
+
+        private final LinkedHashMap<TokenKey, Entry<V>> entries;
+
+        Segment(final int maxSize) {
+            entries = new LinkedHashMap<TokenKey, Entry<V>>(16, 0.75f, true) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<TokenKey, Entry<V>> eldest) {
+                    return size() > maxSize;
+                }
+
+            };
+        }
+
+        synchronized V get(TokenKey key, long now) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= now) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+
+        synchronized void put(TokenKey key, V value, long expiresAt) {
+            entries.put(key, new Entry<V>(value, expiresAt));
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+
+        synchronized void clear() {
+            entries.clear();
+        }
+
+    }
+
+    private static final class Entry<V> {
+
+        private final V value;
+
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oltu.oauth2.rsfilter;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Cache key of a token, the SHA-256 digest of the resource server id and of
+ * the token, so that tokens are not retained in memory.
+ */
+final class TokenKey {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = new ThreadLocal<MessageDigest>() {
+
+        @Override
+        protected MessageDigest initialValue() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not supported by the JVM", e);
+            }
+        }
+
+    };
+
+    private final byte[] digest;
+
+    final int hashCode;
+
+    private TokenKey(byte[] digest) {
+        this.digest = digest;
+        // the digest bytes are uniformly distributed already
+        this.hashCode = (digest[0] & 0xFF)
+                        | (digest[1] & 0xFF) << 8
+                        | (digest[2] & 0xFF) << 16
+                        | (digest[3] & 0xFF) << 24;
+    }
+
+    static TokenKey of(String rsId, String token) {
+        MessageDigest digest = SHA_256.get();
+        if (rsId != null) {
+            digest.update(rsId.getBytes(UTF_8));
+        }
+        digest.update((byte) 0);
+        return new TokenKey(digest.digest(token.getBytes(UTF_8)));
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof TokenKey && Arrays.equals(digest, ((TokenKey) obj).digest);
+    }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.rsfilter;
+
+import java.security.Principal;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class CachingOAuthRSProviderTest {
+
+    private CountingProvider provider;
+
+    private long now;
+
+    private CachingOAuthRSProvider cache;
+
+    @Before
+    public void setUp() {
+        provider = new CountingProvider();
+        now = 1000000L;
+        provider.expirationTime = now + 3600000L;
+        cache = new CachingOAuthRSProvider(provider, 64, 60000L) {
+
+            @Override
+            protected long currentTimeMillis() {
+                return now;
+            }
+
+        };
+    }
+
+    @Test
+    public void testHitsAndMisses() throws Exception {
+        OAuthDecision decision = cache.validateRequest("rs", "token-1", null);
+        assertSame(decision, cache.validateRequest("rs", "token-1", null));
+        assertSame(decision, cache.validateRequest("rs", "token-1", null));
+        assertNotSame(decision, cache.validateRequest("rs", "token-2", null));
+        assertNotSame(decision, cache.validateRequest("other-rs", "token-1", null));
+
+        assertEquals(3, provider.calls);
+        assertEquals(2, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void testTimeToLive() throws Exception {
+        OAuthDecision decision = cache.validateRequest("rs", "token", null);
+        now += 59999L;
+        assertSame(decision, cache.validateRequest("rs", "token", null));
+        now += 1L;
+        assertNotSame(decision, cache.validateRequest("rs", "token", null));
+        assertEquals(2, provider.calls);
+    }
+
+    @Test
+    public void testTokenExpiration() throws Exception {
+        provider.expirationTime = now + 1000L;
+        OAuthDecision decision = cache.validateRequest("rs", "token", null);
+        now += 999L;
+        assertSame(decision, cache.validateRequest("rs", "token", null));
+        now += 1L;
+        assertNotSame(decision, cache.validateRequest("rs", "token", null));
+
+        // already expired tokens are not cached
+        cache.validateRequest("rs", "token", null);
+        assertEquals(3, provider.calls);
+    }
+
+    @Test
+    public void testUnknownExpirationNotCached() throws Exception {
+        provider.expirationTime = 0L;
+        assertNotSame(cache.validateRequest("rs", "token", null), cache.validateRequest("rs", "token", null));
+
+        provider.expiring = false;
+        assertNotSame(cache.validateRequest("rs", "token", null), cache.validateRequest("rs", "token", null));
+        assertEquals(4, provider.calls);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testUnknownExpirationOptIn() throws Exception {
+        cache = new CachingOAuthRSProvider(provider, 64, 60000L, true) {
+
+            @Override
+            protected long currentTimeMillis() {
+                return now;
+            }
+
+        };
+        provider.expiring = false;
+
+        OAuthDecision decision = cache.validateRequest("rs", "token", null);
+        now += 59999L;
+        assertSame(decision, cache.validateRequest("rs", "token", null));
+        now += 1L;
+        assertNotSame(decision, cache.validateRequest("rs", "token", null));
+        assertEquals(2, provider.calls);
+    }
+
+    @Test
+    public void testBoundedSize() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            cache.validateRequest("rs", "token-" + i, null);
+        }
+        assertEquals(64, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testProblemsNotCached() throws Exception {
+        provider.problem = OAuthProblemException.error("invalid_token");
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.validateRequest("rs", "token", null);
+                fail();
+            } catch (OAuthProblemException e) {
+                assertEquals("invalid_token", e.getError());
+            }
+        }
+        assertEquals(2, provider.calls);
+        assertEquals(0, cache.getHitCount());
+    }
+
+    private static final class CountingProvider implements OAuthRSProvider {
+
+        private int calls;
+
+        private long expirationTime;
+
+        private boolean expiring = true;
+
+        private OAuthProblemException problem;
+
+        @Override
+        public OAuthDecision validateRequest(String rsId, String token, HttpServletRequest req)
+            throws OAuthProblemException {
+            calls++;
+            if (problem != null) {
+                throw problem;
+            }
+            if (!expiring) {
+                return new OAuthDecision() {
+
+                    @Override
+                    public Principal getPrincipal() {
+                        return null;
+                    }
+
+                    @Override
+                    public OAuthClient getOAuthClient() {
+                        return null;
+                    }
+
+                };
+            }
+            return new ExpiringOAuthDecision() {
+
+                @Override
+                public Principal getPrincipal() {
+                    return null;
+                }
+
+                @Override
+                public OAuthClient getOAuthClient() {
+                    return null;
+                }
+
+                @Override
+                public long getExpirationTime() {
+                    return expirationTime;
+                }
+
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oltu.oauth2.rsfilter;
+
+import java.security.Principal;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.oltu.oauth2.common.error.OAuthError;
+import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class NegativeCachingOAuthRSProviderTest {
+
+    private CountingProvider provider;
+
+    private long now;
+
+    private boolean admit;
+
+    private NegativeCachingOAuthRSProvider cache;
+
+    @Before
+    public void setUp() {
+        provider = new CountingProvider();
+        now = 1000000L;
+        admit = true;
+        cache = new NegativeCachingOAuthRSProvider(provider, 64, 10000L, 0.5) {
+
+            @Override
+            protected long currentTimeMillis() {
+                return now;
+            }
+
+            @Override
+            protected boolean admit() {
+                return admit;
+            }
+
+        };
+    }
+
+    @Test
+    public void testRejectionsCached() throws Exception {
+        provider.problem = OAuthProblemException.error(OAuthError.ResourceResponse.INVALID_TOKEN, "Token expired");
+
+        assertSame(provider.problem, reject("rs", "token"));
+        OAuthProblemException cached = reject("rs", "token");
+        assertSame(cached, reject("rs", "token"));
+        assertTrue(cached.isShared());
+        assertEquals(OAuthError.ResourceResponse.INVALID_TOKEN, cached.getError());
+        assertNull(cached.getDescription());
+
+        // same problem for another token with the same error code
+        reject("rs", "other-token");
+        assertSame(cached, reject("rs", "other-token"));
+
+        assertEquals(2, provider.calls);
+        assertEquals(3, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.getAdmissionCount());
+    }
+
+    @Test
+    public void testValidTokensNotCached() throws Exception {
+        assertNotNull(cache.validateRequest("rs", "token", null));
+        assertNotNull(cache.validateRequest("rs", "token", null));
+        assertEquals(2, provider.calls);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testTimeToLive() throws Exception {
+        provider.problem = OAuthProblemException.error(OAuthError.ResourceResponse.INVALID_TOKEN);
+        reject("rs", "token");
+        now += 9999L;
+        reject("rs", "token");
+        assertEquals(1, provider.calls);
+        now += 1L;
+        reject("rs", "token");
+        assertEquals(2, provider.calls);
+    }
+
+    @Test
+    public void testAdmission() throws Exception {
+        provider.problem = OAuthProblemException.error(OAuthError.ResourceResponse.INVALID_TOKEN);
+        admit = false;
+        reject("rs", "token");
+        reject("rs", "token");
+        admit = true;
+        reject("rs", "token");
+        reject("rs", "token");
+
+        assertEquals(3, provider.calls);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getAdmissionCount());
+        assertEquals(2, cache.getSkippedAdmissionCount());
+    }
+
+    @Test
+    public void testTransientErrorsNotCached() throws Exception {
+        provider.problem = OAuthProblemException.error(OAuthError.CodeResponse.SERVER_ERROR);
+        reject("rs", "token");
+        reject("rs", "token");
+        assertEquals(2, provider.calls);
+        assertEquals(0, cache.getAdmissionCount());
+    }
+
+    @Test
+    public void testBoundedSize() throws Exception {
+        provider.problem = OAuthProblemException.error(OAuthError.ResourceResponse.INVALID_TOKEN);
+        for (int i = 0; i < 1000; i++) {
+            reject("rs", "token-" + i);
+        }
+        assertEquals(64, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncorrectAdmissionProbability() {
+        new NegativeCachingOAuthRSProvider(provider, 64, 10000L, 0);
+    }
+
+    private OAuthProblemException reject(String rsId, String token) {
+        try {
+            cache.validateRequest(rsId, token, null);
+            fail();
+            return null;
+        } catch (OAuthProblemException e) {
+            return e;
+        }
+    }
+
+    private static final class CountingProvider implements OAuthRSProvider {
+
+        private int calls;
+
+        private OAuthProblemException problem;
+
+        @Override
+        public OAuthDecision validateRequest(String rsId, String token, HttpServletRequest req)
+            throws OAuthProblemException {
+            calls++;
+            if (problem != null) {
+                throw problem;
+            }
+            return new OAuthDecision() {
+
+                @Override
+                public Principal getPrincipal() {
+                    return null;
+                }
+
+                @Override
+                public OAuthClient getOAuthClient() {
+                    return null;
+                }
+
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.rs;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.oltu.oauth2.common.token.OpaqueToken;
+import org.apache.oltu.oauth2.common.token.OpaqueTokenFormat;
+
+/**
+ * Verifies self-contained opaque access tokens locally, see
+ * {@link OpaqueTokenFormat}: no lookup, no I/O and no JSON parsing are
+ * involved, only a base64url decoding and an HMAC computation.
+ *
+ * Several keys can be configured, so that tokens issued before a key
+ * rotation keep being accepted until they expire. Instances are immutable
+ * and thread-safe.
+ */
+public class OpaqueTokenVerifier {
+
+    private final OpaqueTokenFormat format;
+
+    private final List<String> scopeNames;
+
+    private final long clockSkew;
+
+    protected OpaqueTokenVerifier(Builder builder) {
+        this.format = new OpaqueTokenFormat(builder.secrets);
+        this.scopeNames = Collections.unmodifiableList(new ArrayList<String>(builder.scopeNames));
+        this.clockSkew = builder.clockSkew;
+    }
+
+    /**
+     * Verifies the given token.
+     *
+     * @param token the access token.
+     * @return the token content, null if the token is malformed, not
+     *         authentic, expired or not an access token.
+     */
+    public OpaqueToken verify(String token) {
+        OpaqueToken opaqueToken = format.read(token);
+        if (opaqueToken == null
+            || opaqueToken.getType() != OpaqueToken.Type.ACCESS
+            || opaqueToken.getExpiresAt() + clockSkew <= currentTimeMillis() / 1000L) {
+            return null;
+        }
+        return opaqueToken;
+    }
+
+    /**
+     * Verifies the given token and that it grants all the required scopes.
+     *
+     * @param token the access token.
+     * @param requiredScopes the scopes the token must grant.
+     * @return the token content, null if the token is malformed, not
+     *         authentic, expired, not an access token or lacks one of the
+     *         required scopes.
+     */
+    public OpaqueToken verify(String token, Collection<String> requiredScopes) {
+        OpaqueToken opaqueToken = verify(token);
+        if (opaqueToken == null) {
+            return null;
+        }
+
+        long required;
+        try {
+            required = OpaqueTokenFormat.toScopeBitmap(scopeNames, requiredScopes);
+        } catch (IllegalArgumentException e) {
+            // a scope no token can grant
+            return null;
+        }
+        return (opaqueToken.getScopes() & required) == required ? opaqueToken : null;
+    }
+
+    /**
+     * Returns the names of the scopes the given token grants.
+     */
+    public Set<String> getScopes(OpaqueToken opaqueToken) {
+        return OpaqueTokenFormat.toScopes(scopeNames, opaqueToken.getScopes());
+    }
+
+    /**
+     * Returns the current time in milliseconds, the expiration check clock source.
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    public static final class Builder {
+
+        private final Map<Integer, byte[]> secrets = new HashMap<Integer, byte[]>();
+
+        private List<String> scopeNames = Collections.emptyList();
+
+        private long clockSkew;
+
+        /**
+         * Adds a key tokens can be authenticated with.
+         *
+         * @param keyId the key id, in the [0, 255] range.
+         * @param secret the HMAC secret, at least 256 bits long.
+         */
+        public Builder addKey(int keyId, byte[] secret) {
+            secrets.put(keyId, secret);
+            return this;
+        }
+
+        /**
+         * Sets the scopes tokens can grant, the same list, in the same order,
+         * the authorization server issues tokens with.
+         */
+        public Builder setScopeNames(List<String> scopeNames) {
+            if (scopeNames == null || scopeNames.size() > OpaqueTokenFormat.MAX_SCOPES) {
+                throw new IllegalArgumentException("At most " + OpaqueTokenFormat.MAX_SCOPES + " scopes can be set.");
+            }
+            this.scopeNames = scopeNames;
+            return this;
+        }
+
+        /**
+         * Sets the seconds tokens are still accepted after their expiration
+         * time, to absorb clock differences with the authorization server.
+         */
+        public Builder setClockSkew(long clockSkew) {
+            if (clockSkew < 0) {
+                throw new IllegalArgumentException("Clock skew must not be negative.");
+            }
+            this.clockSkew = clockSkew;
+            return this;
+        }
+
+        public OpaqueTokenVerifier build() {
+            return new OpaqueTokenVerifier(this);
+        }
+
+    }
+
+}
@@ -23,7 +23,7 @@ package org.apache.oltu.oauth2.rs.extractor;
 
 import javax.servlet.http.HttpServletRequest;
 
-import org.apache.oltu.oauth2.common.OAuth;
+import org.apache.oltu.oauth2.common.utils.AuthorizationHeader;
 import org.apache.oltu.oauth2.common.utils.OAuthUtils;
 
 
@@ -37,14 +37,16 @@ public class BearerHeaderTokenExtractor implements TokenExtractor {
 
     @Override
     public String getAccessToken(HttpServletRequest request) {
-        String authzHeader = request.getHeader(OAuth.HeaderType.AUTHORIZATION);
-        return OAuthUtils.getAuthHeaderField(authzHeader);
+        AuthorizationHeader authzHeader = AuthorizationHeader.of(request);
+        if (authzHeader != null && authzHeader.isScheme(OAuthUtils.AUTH_SCHEME)) {
+            return authzHeader.getCredentials();
+        }
+        return null;
     }
 
     @Override
     public String getAccessToken(HttpServletRequest request, String tokenName) {
-        String authzHeader = request.getHeader(OAuth.HeaderType.AUTHORIZATION);
-        return OAuthUtils.getAuthHeaderField(authzHeader);
+        return getAccessToken(request);
     }
 
 
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.rs.request;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.oltu.oauth2.common.OAuth;
+import org.apache.oltu.oauth2.common.error.OAuthError;
+import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
+import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
+import org.apache.oltu.oauth2.common.message.types.ParameterStyle;
+import org.apache.oltu.oauth2.common.message.types.TokenType;
+import org.apache.oltu.oauth2.common.utils.OAuthUtils;
+import org.apache.oltu.oauth2.common.validators.OAuthValidator;
+import org.apache.oltu.oauth2.rs.ResourceServer;
+import org.apache.oltu.oauth2.rs.extractor.TokenExtractor;
+
+/**
+ * Finds the single mechanism a protected resource request carries its access token with.
+ * <p/>
+ * The validators and token extractors of every accepted token type and parameter style are instantiated once,
+ * when the resolver is created; they don't keep any per-request state, so a resolver can be built at start up,
+ * for example in a filter <code>init</code> method, and shared by all the request threads.
+ * <p/>
+ * An exhaustive resolver validates every mechanism on each request. A lazy one validates the header and query
+ * mechanisms first, which only need the request headers and the query string, and skips the body mechanisms
+ * when they found exactly one valid token and the request can't carry form parameters, having no form encoded
+ * content type or an empty body: requests sending their token in the header, without a form body, are resolved
+ * without building and throwing the problems of the body mechanisms. A token sent both in the header and in a
+ * form body is rejected either way, as required by RFC 6750 section 2.
+ */
+public final class AccessTokenResolver {
+
+    private static final OAuthProblemException MORE_THAN_ONE_MECHANISM =
+        OAuthProblemException.shared(OAuthError.TokenResponse.INVALID_REQUEST,
+                                     "Found more than one mechanism for authenticating client");
+
+    private static final OAuthProblemException PARAMETERS_NOT_FOUND =
+        OAuthProblemException.shared(OAuthError.TokenResponse.INVALID_REQUEST, "OAuth parameters were not found");
+
+    private final OAuthValidator<HttpServletRequest>[] validators;
+
+    private final TokenExtractor[] extractors;
+
+    /**
+     * Index of the first body mechanism when probing lazily, the mechanisms after it are only validated
+     * when the previous ones didn't resolve the request.
+     */
+    private final int firstDeferred;
+
+    private final boolean sharedProblems;
+
+    /**
+     * Creates an exhaustive resolver.
+     *
+     * @param tokenTypes      the accepted token types
+     * @param parameterStyles the accepted ways of sending the token
+     * @throws OAuthSystemException if no resource server, validator or extractor is available for one of them
+     */
+    public AccessTokenResolver(TokenType[] tokenTypes, ParameterStyle[] parameterStyles)
+        throws OAuthSystemException {
+        this(tokenTypes, parameterStyles, true);
+    }
+
+    /**
+     * Creates a resolver throwing problems the caller can modify.
+     *
+     * @param tokenTypes      the accepted token types
+     * @param parameterStyles the accepted ways of sending the token
+     * @param exhaustive      <code>false</code> to skip the body mechanisms of the requests with a single
+     *                        valid header or query token and no form parameters
+     * @throws OAuthSystemException if no resource server, validator or extractor is available for one of them
+     */
+    public AccessTokenResolver(TokenType[] tokenTypes, ParameterStyle[] parameterStyles, boolean exhaustive)
+        throws OAuthSystemException {
+        this(tokenTypes, parameterStyles, exhaustive, false);
+    }
+
+    /**
+     * @param tokenTypes      the accepted token types
+     * @param parameterStyles the accepted ways of sending the token
+     * @param exhaustive      <code>false</code> to skip the body mechanisms of the requests with a single
+     *                        valid header or query token and no form parameters
+     * @param sharedProblems  <code>true</code> to throw {@link OAuthProblemException#shared shared} problems,
+     *                        whose setters fail, when the request carries no token or more than one; only for
+     *                        callers which never modify the problems they catch
+     * @throws OAuthSystemException if no resource server, validator or extractor is available for one of them
+     */
+    @SuppressWarnings("unchecked")
+    public AccessTokenResolver(TokenType[] tokenTypes, ParameterStyle[] parameterStyles, boolean exhaustive,
+                               boolean sharedProblems) throws OAuthSystemException {
+        this.sharedProblems = sharedProblems;
+        int size = tokenTypes.length * parameterStyles.length;
+        this.validators = new OAuthValidator[size];
+        this.extractors = new TokenExtractor[size];
+
+        // lazy resolvers move the body mechanisms after the other ones, keeping the configured order otherwise
+        int deferred = 0;
+        if (!exhaustive) {
+            for (ParameterStyle style : parameterStyles) {
+                if (style == ParameterStyle.BODY) {
+                    deferred += tokenTypes.length;
+                }
+            }
+        }
+        this.firstDeferred = size - deferred;
+
+        int head = 0;
+        int tail = firstDeferred;
+        for (TokenType tokenType : tokenTypes) {
+            ResourceServer resourceServer = OAuthAccessResourceRequest.instantiateResourceServer(tokenType);
+            for (ParameterStyle style : parameterStyles) {
+                int i = !exhaustive && style == ParameterStyle.BODY ? tail++ : head++;
+                this.validators[i] = resourceServer.instantiateValidator(style);
+                this.extractors[i] = resourceServer.instantiateExtractor(style);
+            }
+        }
+    }
+
+    /**
+     * Validates the request against the accepted token types and parameter styles.
+     *
+     * @return the extractor of the token of the request
+     * @throws OAuthProblemException if the request carries no token, more than one, or an invalid one; the
+     *                               problem has no stack trace, and is shared by several requests only if
+     *                               the resolver was created so
+     */
+    public TokenExtractor resolve(HttpServletRequest request) throws OAuthProblemException {
+        int found = -1;
+        int foundValidStyles = 0;
+        boolean lackAuthInfo = false;
+        OAuthProblemException ex = null;
+        String lackAuthReason = "OAuth parameters were not found";
+        for (int i = 0; i < validators.length; i++) {
+            if (i == firstDeferred
+                && (foundValidStyles > 1 || foundValidStyles == 1 && ex == null && !hasFormParameters(request))) {
+                // more than one token are rejected whatever the body contains, and a single one is accepted
+                // as is only when there is no body a second one could be sent in
+                break;
+            }
+            try {
+                OAuthValidator<HttpServletRequest> validator = validators[i];
+                validator.validateContentType(request);
+                validator.validateMethod(request);
+                validator.validateRequiredParameters(request);
+
+                found = i;
+                foundValidStyles++;
+            } catch (OAuthProblemException e) {
+                //request lacks any authentication information?
+                if (OAuthUtils.isEmpty(e.getError())) {
+                    lackAuthInfo = true;
+                    lackAuthReason = e.getDescription();
+                } else {
+                    ex = OAuthProblemException.stackless(e.getError(), e.getDescription());
+                }
+            }
+        }
+
+        if (foundValidStyles > 1) {
+            throw problem(MORE_THAN_ONE_MECHANISM);
+        }
+
+        if (ex != null) {
+            throw ex;
+        }
+
+        if (foundValidStyles == 0 && lackAuthInfo) {
+            throw OAuthProblemException.stackless(null, lackAuthReason);
+        }
+
+        if (foundValidStyles == 0) {
+            throw problem(PARAMETERS_NOT_FOUND);
+        }
+
+        return extractors[found];
+    }
+
+    /**
+     * Returns the given shared problem, or a copy of it the caller can modify.
+     */
+    private OAuthProblemException problem(OAuthProblemException sharedProblem) {
+        return sharedProblems
+            ? sharedProblem
+            : OAuthProblemException.stackless(sharedProblem.getError(), sharedProblem.getDescription());
+    }
+
+    /**
+     * Tells whether the request may carry form parameters, without reading its body.
+     */
+    private static boolean hasFormParameters(HttpServletRequest request) {
+        // the content length is -1 when unknown, chunked bodies included
+        return OAuthUtils.hasContentType(request.getContentType(), OAuth.ContentType.URL_ENCODED)
+            && request.getContentLength() != 0;
+    }
+
+}
@@ -26,13 +26,11 @@ import java.util.HashMap;
 import java.util.Map;
 import javax.servlet.http.HttpServletRequest;
 import org.apache.oltu.oauth2.common.OAuth;
-import org.apache.oltu.oauth2.common.error.OAuthError;
 import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
 import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
 import org.apache.oltu.oauth2.common.message.types.ParameterStyle;
 import org.apache.oltu.oauth2.common.message.types.TokenType;
 import org.apache.oltu.oauth2.common.utils.OAuthUtils;
-import org.apache.oltu.oauth2.common.validators.OAuthValidator;
 import org.apache.oltu.oauth2.rs.BearerResourceServer;
 import org.apache.oltu.oauth2.rs.ResourceServer;
 import org.apache.oltu.oauth2.rs.extractor.TokenExtractor;
@@ -44,24 +42,29 @@ import org.apache.oltu.oauth2.rs.extractor.TokenExtractor;
  */
 public class OAuthAccessResourceRequest {
 
+    private static final AccessTokenResolver DEFAULT_RESOLVER;
+
     private HttpServletRequest request;
-    private ParameterStyle[] parameterStyles=new ParameterStyle[] {OAuth.DEFAULT_PARAMETER_STYLE};
-    private TokenType[] tokenTypes=new TokenType []{OAuth.DEFAULT_TOKEN_TYPE};
-    private ParameterStyle usedParameterStyle;
-    private ResourceServer usedResourceServer;
 
     protected static Map<TokenType, Class> tokens = new HashMap<TokenType, Class>();
 
     private TokenExtractor extractor;
-    
-    {
+
+    static {
         tokens.put(TokenType.BEARER, BearerResourceServer.class);
         //TODO add MACResourceServer - see AMBER-41
+
+        try {
+            DEFAULT_RESOLVER = new AccessTokenResolver(new TokenType[] {OAuth.DEFAULT_TOKEN_TYPE},
+                                                       new ParameterStyle[] {OAuth.DEFAULT_PARAMETER_STYLE});
+        } catch (OAuthSystemException e) {
+            throw new ExceptionInInitializerError(e);
+        }
     }
-  
+
     public OAuthAccessResourceRequest(HttpServletRequest request)
         throws OAuthSystemException, OAuthProblemException {
-        this(request,new TokenType []{OAuth.DEFAULT_TOKEN_TYPE}, new ParameterStyle[] {OAuth.DEFAULT_PARAMETER_STYLE});
+        this(request, DEFAULT_RESOLVER);
     }
 
     public OAuthAccessResourceRequest(HttpServletRequest request, ParameterStyle... parameterStyles)
@@ -73,71 +76,29 @@ public class OAuthAccessResourceRequest {
             throws OAuthSystemException, OAuthProblemException {
         this(request, tokenTypes, new ParameterStyle[]{OAuth.DEFAULT_PARAMETER_STYLE});
     }
-    
+
     public OAuthAccessResourceRequest(HttpServletRequest request, TokenType[] tokenTypes ,ParameterStyle[] parameterStyles)
+        throws OAuthSystemException, OAuthProblemException {
+        this(request, isDefault(tokenTypes, parameterStyles)
+            ? DEFAULT_RESOLVER : new AccessTokenResolver(tokenTypes, parameterStyles));
+    }
+
+    /**
+     * Create a protected resource request with a resolver shared between requests.
+     *
+     * @param request  the request to the protected resource
+     * @param resolver the accepted token types and parameter styles, typically built once at start up
+     */
+    public OAuthAccessResourceRequest(HttpServletRequest request, AccessTokenResolver resolver)
         throws OAuthSystemException, OAuthProblemException {
         this.request = request;
-        this.tokenTypes = tokenTypes;
-        this.parameterStyles = parameterStyles;
-        this.validate();
+        this.extractor = resolver.resolve(request);
     }
 
     public String getAccessToken() throws OAuthSystemException {
         return extractor.getAccessToken(request);
     }
 
-    private void validate() throws OAuthSystemException, OAuthProblemException {
-
-        int foundValidStyles = 0;
-        boolean lackAuthInfo = false;
-        OAuthProblemException ex = null;
-        String lackAuthReason = "OAuth parameters were not found";
-        for (TokenType tokenType : tokenTypes) {
-            ResourceServer resourceServer = instantiateResourceServer(tokenType);
-            for (ParameterStyle style : parameterStyles) {
-                try {
-
-                    OAuthValidator validator = resourceServer.instantiateValidator(style);
-                    validator.validateContentType(request);
-                    validator.validateMethod(request);
-                    validator.validateRequiredParameters(request);
-
-                    usedParameterStyle = style;
-                    usedResourceServer = resourceServer;
-                    foundValidStyles++;
-                } catch (OAuthProblemException e) {
-                    //request lacks any authentication information?
-                    if (OAuthUtils.isEmpty(e.getError())) {
-                        lackAuthInfo = true;
-                        lackAuthReason = e.getDescription();
-                    } else {
-                        ex = OAuthProblemException.error(e.getError(), e.getDescription());
-                    }
-                }
-            }
-        }
-
-        if (foundValidStyles > 1) {
-            throw OAuthProblemException.error(OAuthError.TokenResponse.INVALID_REQUEST,
-                    "Found more than one mechanism for authenticating client");
-        }
-
-        if (ex != null) {
-            throw ex;
-        }
-
-        if (foundValidStyles == 0 && lackAuthInfo) {
-            throw OAuthProblemException.error(null, lackAuthReason);
-        }
-
-        if (foundValidStyles == 0) {
-            throw OAuthProblemException.error(OAuthError.TokenResponse.INVALID_REQUEST,
-                    "OAuth parameters were not found");
-        }
-
-        extractor = usedResourceServer.instantiateExtractor(usedParameterStyle);
-    }
-
     public static ResourceServer instantiateResourceServer(TokenType tokenType) throws OAuthSystemException {
         Class clazz = tokens.get(tokenType);
         if (clazz == null) {
@@ -145,5 +106,10 @@ public class OAuthAccessResourceRequest {
         }
         return (ResourceServer)OAuthUtils.instantiateClass(clazz);
     }
-    
+
+    private static boolean isDefault(TokenType[] tokenTypes, ParameterStyle[] parameterStyles) {
+        return tokenTypes.length == 1 && tokenTypes[0] == OAuth.DEFAULT_TOKEN_TYPE
+            && parameterStyles.length == 1 && parameterStyles[0] == OAuth.DEFAULT_PARAMETER_STYLE;
+    }
+
 }
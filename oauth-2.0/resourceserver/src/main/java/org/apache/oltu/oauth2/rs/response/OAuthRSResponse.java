@@ -21,7 +21,11 @@
 
 package org.apache.oltu.oauth2.rs.response;
 
+import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
+import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
 import org.apache.oltu.oauth2.common.message.OAuthResponse;
+import org.apache.oltu.oauth2.common.message.PreparedErrorResponse;
+import org.apache.oltu.oauth2.common.utils.OAuthUtils;
 
 
 /**
@@ -35,6 +39,26 @@ public class OAuthRSResponse extends OAuthResponse {
         super(uri, responseStatus);
     }
 
+    /**
+     * Builds the <code>WWW-Authenticate</code> header of an error response once, to be kept and sent for
+     * every request rejected with the same problem.
+     *
+     * @param responseCode the HTTP status of the response
+     * @param realm        the protection realm
+     * @param error        the problem, only the realm is sent when it is <code>null</code> or its error code
+     *                     is empty
+     */
+    public static PreparedErrorResponse prepareError(int responseCode, String realm, OAuthProblemException error)
+        throws OAuthSystemException {
+        OAuthErrorResponseBuilder builder = errorResponse(responseCode).setRealm(realm);
+        if (error != null && !OAuthUtils.isEmpty(error.getError())) {
+            builder.setError(error.getError())
+                .setErrorDescription(error.getDescription())
+                .setErrorUri(error.getUri());
+        }
+        return PreparedErrorResponse.of(builder.buildHeaderMessage());
+    }
+
     public static class OAuthRSResponseBuilder extends OAuthResponse.OAuthResponseBuilder {
 
         public OAuthRSResponseBuilder(int responseCode) {
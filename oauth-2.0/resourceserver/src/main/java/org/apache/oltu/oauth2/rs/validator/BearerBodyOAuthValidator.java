@@ -37,25 +37,39 @@ import org.apache.oltu.oauth2.common.validators.AbstractValidator;
  */
 public class BearerBodyOAuthValidator extends AbstractValidator {
 
+    private static final OAuthProblemException MISSING_TOKEN =
+        OAuthProblemException.shared(null, "Missing OAuth token.");
+
+    private static final OAuthProblemException INCORRECT_METHOD =
+        OAuthProblemException.shared(OAuthError.TokenResponse.INVALID_REQUEST,
+                                     "Incorrect method. POST, PUT, DELETE are supported.");
+
+    private static final OAuthProblemException NOT_SINGLE_PART =
+        OAuthProblemException.shared(OAuthError.TokenResponse.INVALID_REQUEST, "Request is not single part.");
+
+    private static final OAuthProblemException BAD_CONTENT_TYPE =
+        OAuthProblemException.shared(OAuthError.TokenResponse.INVALID_REQUEST,
+                                     "Bad request content type. Expecting: " + OAuth.ContentType.URL_ENCODED);
+
     @Override
     public void validateMethod(HttpServletRequest request) throws OAuthProblemException {
         // Check if the method is POST, PUT, or DELETE
         String method = request.getMethod();
         if (!(OAuth.HttpMethod.POST.equals(method) || OAuth.HttpMethod.PUT.equals(method) || OAuth.HttpMethod
             .DELETE.equals(method))) {
-            throw OAuthProblemException
-                .error(OAuthError.TokenResponse.INVALID_REQUEST)
-                .description("Incorrect method. POST, PUT, DELETE are supported.");
+            throw INCORRECT_METHOD;
         }
     }
 
     @Override
     public void validateContentType(HttpServletRequest request) throws OAuthProblemException {
         if (OAuthUtils.isMultipart(request)) {
-            throw OAuthProblemException.error(OAuthError.CodeResponse.INVALID_REQUEST).
-                description("Request is not single part.");
+            throw NOT_SINGLE_PART;
+        }
+        // same check as the parent one, without building the problem again for each rejected request
+        if (!OAuthUtils.hasContentType(request.getContentType(), OAuth.ContentType.URL_ENCODED)) {
+            throw BAD_CONTENT_TYPE;
         }
-        super.validateContentType(request);
     }
 
 
@@ -63,8 +77,7 @@ public class BearerBodyOAuthValidator extends AbstractValidator {
     public void validateRequiredParameters(HttpServletRequest request) throws OAuthProblemException {
 
         if (OAuthUtils.isMultipart(request)) {
-            throw OAuthProblemException.error(OAuthError.TokenResponse.INVALID_REQUEST).
-                description("Request is not single part.");
+            throw NOT_SINGLE_PART;
         }
 
 
@@ -72,7 +85,7 @@ public class BearerBodyOAuthValidator extends AbstractValidator {
         if (OAuthUtils.hasEmptyValues(tokens)) {
             tokens = request.getParameterValues(OAuth.OAUTH_TOKEN);
             if (OAuthUtils.hasEmptyValues(tokens)) {
-                throw OAuthProblemException.error(null, "Missing OAuth token.");
+                throw MISSING_TOKEN;
             }
         }
 
@@ -21,12 +21,12 @@
 
 package org.apache.oltu.oauth2.rs.validator;
 
-import java.util.Map;
 import javax.servlet.http.HttpServletRequest;
 
 import org.apache.oltu.oauth2.common.OAuth;
 import org.apache.oltu.oauth2.common.error.OAuthError;
 import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
+import org.apache.oltu.oauth2.common.utils.AuthorizationHeader;
 import org.apache.oltu.oauth2.common.utils.OAuthUtils;
 import org.apache.oltu.oauth2.common.validators.AbstractValidator;
 
@@ -38,6 +38,12 @@ import org.apache.oltu.oauth2.common.validators.AbstractValidator;
  */
 public class BearerHeaderOAuthValidator extends AbstractValidator {
 
+    private static final OAuthProblemException MISSING_HEADER =
+        OAuthProblemException.shared("", "Missing authorization header.");
+
+    private static final OAuthProblemException INCORRECT_METHOD =
+        OAuthProblemException.shared("", "Incorrect authorization method.");
+
     @Override
     public void validateContentType(HttpServletRequest request) throws OAuthProblemException {
     }
@@ -49,27 +55,25 @@ public class BearerHeaderOAuthValidator extends AbstractValidator {
     @Override
     public void validateRequiredParameters(HttpServletRequest request) throws OAuthProblemException {
         // Check if there is the Authorization Header
-        String authzHeader = request.getHeader(OAuth.HeaderType.AUTHORIZATION);
-        if (OAuthUtils.isEmpty(authzHeader)) {
-            throw OAuthProblemException.error("", "Missing authorization header.");
+        AuthorizationHeader authzHeader = AuthorizationHeader.of(request);
+        if (authzHeader == null) {
+            throw MISSING_HEADER;
         }
 
         // See if the authorization method is set to OAuth
-        String authzMethod = OAuthUtils.getAuthzMethod(authzHeader);
-        if (!OAuth.OAUTH_HEADER_NAME.equals(authzMethod)) {
-            throw OAuthProblemException.error("", "Incorrect authorization method.");
+        if (!OAuth.OAUTH_HEADER_NAME.equals(authzHeader.getScheme())) {
+            throw INCORRECT_METHOD;
         }
 
         // Get the header field
-        String headerField = OAuthUtils.getAuthHeaderField(authzHeader);
+        String headerField = authzHeader.getCredentials();
         if (OAuthUtils.isEmpty(headerField)) {
             throw OAuthProblemException
                 .error(OAuthError.TokenResponse.INVALID_REQUEST, "Missing required parameter.");
         }
 
         // Check if this OAuth 1.0 or OAuth 2.0
-        Map<String, String> values = OAuthUtils.decodeOAuthHeader(authzHeader);
-        String oauthVersionDiff = values.get(OAuth.OAUTH_VERSION_DIFFER);
+        String oauthVersionDiff = authzHeader.getParameter(OAuth.OAUTH_VERSION_DIFFER);
         if (!OAuthUtils.isEmpty(oauthVersionDiff)) {
             throw OAuthProblemException
                 .error(OAuthError.TokenResponse.INVALID_REQUEST,
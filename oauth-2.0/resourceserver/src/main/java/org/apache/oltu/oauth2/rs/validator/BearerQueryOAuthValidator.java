@@ -39,6 +39,9 @@ import org.apache.oltu.oauth2.rs.ResourceServer;
  */
 public class BearerQueryOAuthValidator extends AbstractValidator {
 
+    private static final OAuthProblemException MISSING_TOKEN =
+        OAuthProblemException.shared(null, "Missing OAuth token.");
+
     @Override
     public void validateContentType(HttpServletRequest request) throws OAuthProblemException {
     }
@@ -54,7 +57,7 @@ public class BearerQueryOAuthValidator extends AbstractValidator {
         if (OAuthUtils.hasEmptyValues(tokens)) {
             tokens = getQueryParameterValues(request, OAuth.OAUTH_TOKEN);
             if (OAuthUtils.hasEmptyValues(tokens)) {
-                throw OAuthProblemException.error(null, "Missing OAuth token.");
+                throw MISSING_TOKEN;
             }
         }
 
@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.rs;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.oltu.oauth2.common.OAuth;
+import org.apache.oltu.oauth2.common.error.OAuthError;
+import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
+import org.apache.oltu.oauth2.common.exception.OAuthSystemException;
+import org.apache.oltu.oauth2.common.message.types.ParameterStyle;
+import org.apache.oltu.oauth2.common.message.types.TokenType;
+import org.apache.oltu.oauth2.common.utils.AuthorizationHeader;
+import org.apache.oltu.oauth2.rs.extractor.BearerBodyTokenExtractor;
+import org.apache.oltu.oauth2.rs.extractor.BearerHeaderTokenExtractor;
+import org.apache.oltu.oauth2.rs.extractor.TokenExtractor;
+import org.apache.oltu.oauth2.rs.request.AccessTokenResolver;
+import org.apache.oltu.oauth2.rs.request.OAuthAccessResourceRequest;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+
+public class AccessTokenResolverTest {
+
+    private final AccessTokenResolver resolver = new AccessTokenResolver(
+        new TokenType[] {TokenType.BEARER},
+        new ParameterStyle[] {ParameterStyle.HEADER, ParameterStyle.BODY});
+
+    public AccessTokenResolverTest() throws OAuthSystemException {
+    }
+
+    @Test
+    public void testExtractorsAreSharedBetweenRequests() throws Exception {
+        HttpServletRequest first = mockHeaderRequest("Bearer sometoken");
+        HttpServletRequest second = mockHeaderRequest("Bearer othertoken");
+
+        AccessTokenResolver headerResolver = new AccessTokenResolver(
+            new TokenType[] {TokenType.BEARER},
+            new ParameterStyle[] {ParameterStyle.HEADER});
+        TokenExtractor extractor = headerResolver.resolve(first);
+
+        Assert.assertTrue(extractor instanceof BearerHeaderTokenExtractor);
+        Assert.assertSame(extractor, headerResolver.resolve(second));
+        Assert.assertEquals("othertoken", new OAuthAccessResourceRequest(second, headerResolver).getAccessToken());
+        verify(first, second);
+    }
+
+    @Test
+    public void testResolveBodyToken() throws Exception {
+        HttpServletRequest request = createMock(HttpServletRequest.class);
+        expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn(null);
+        expect(request.getMethod()).andStubReturn(OAuth.HttpMethod.POST);
+        expect(request.getContentType()).andStubReturn(OAuth.ContentType.URL_ENCODED);
+        expect(request.getParameterValues(OAuth.OAUTH_BEARER_TOKEN)).andStubReturn(new String[] {"sometoken"});
+        expect(request.getParameter(OAuth.OAUTH_VERSION_DIFFER)).andStubReturn(null);
+        replay(request);
+
+        Assert.assertTrue(resolver.resolve(request) instanceof BearerBodyTokenExtractor);
+        verify(request);
+    }
+
+    @Test
+    public void testMissingToken() throws Exception {
+        HttpServletRequest request = createMock(HttpServletRequest.class);
+        expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn(null);
+        expect(request.getMethod()).andStubReturn(OAuth.HttpMethod.POST);
+        expect(request.getContentType()).andStubReturn(OAuth.ContentType.URL_ENCODED);
+        expect(request.getParameterValues(OAuth.OAUTH_BEARER_TOKEN)).andStubReturn(null);
+        expect(request.getParameterValues(OAuth.OAUTH_TOKEN)).andStubReturn(null);
+        replay(request);
+
+        try {
+            resolver.resolve(request);
+            Assert.fail("Exception expected");
+        } catch (OAuthProblemException e) {
+            Assert.assertNull(e.getError());
+        }
+        verify(request);
+    }
+
+    @Test
+    public void testMoreThanOneMechanism() throws Exception {
+        HttpServletRequest request = mockHeaderAndBodyRequest();
+
+        try {
+            resolver.resolve(request);
+            Assert.fail("Exception expected");
+        } catch (OAuthProblemException e) {
+            Assert.assertEquals(OAuthError.TokenResponse.INVALID_REQUEST, e.getError());
+            Assert.assertFalse(e.isShared());
+            Assert.assertEquals(0, e.getStackTrace().length);
+            // callers may still customize the problem
+            e.description("Only one token is allowed").responseStatus(400).setParameter("realm", "example");
+            Assert.assertEquals("Only one token is allowed", e.getDescription());
+        }
+        verify(request);
+    }
+
+    @Test
+    public void testSharedProblems() throws Exception {
+        AccessTokenResolver sharingResolver = new AccessTokenResolver(
+            new TokenType[] {TokenType.BEARER},
+            new ParameterStyle[] {ParameterStyle.HEADER, ParameterStyle.BODY}, true, true);
+
+        OAuthProblemException first = null;
+        for (int i = 0; i < 2; i++) {
+            HttpServletRequest request = mockHeaderAndBodyRequest();
+            try {
+                sharingResolver.resolve(request);
+                Assert.fail("Exception expected");
+            } catch (OAuthProblemException e) {
+                Assert.assertTrue(e.isShared());
+                if (first != null) {
+                    Assert.assertSame(first, e);
+                }
+                first = e;
+            }
+            verify(request);
+        }
+    }
+
+    @Test
+    public void testLazyResolverDoesNotReadBody() throws Exception {
+        AccessTokenResolver lazyResolver = new AccessTokenResolver(
+            new TokenType[] {TokenType.BEARER},
+            new ParameterStyle[] {ParameterStyle.BODY, ParameterStyle.HEADER}, false);
+
+        // getParameterValues isn't expected: the mock fails if the body is read
+        HttpServletRequest request = mockHeaderRequest("Bearer sometoken");
+        Assert.assertTrue(lazyResolver.resolve(request) instanceof BearerHeaderTokenExtractor);
+        verify(request);
+
+        // a form content type with an empty body
+        request = createMock(HttpServletRequest.class);
+        expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn("Bearer sometoken");
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
+        expect(request.getMethod()).andStubReturn(OAuth.HttpMethod.POST);
+        expect(request.getContentType()).andStubReturn(OAuth.ContentType.URL_ENCODED);
+        expect(request.getContentLength()).andStubReturn(0);
+        replay(request);
+
+        Assert.assertTrue(lazyResolver.resolve(request) instanceof BearerHeaderTokenExtractor);
+        verify(request);
+    }
+
+    @Test
+    public void testLazyResolverDetectsHeaderAndBodyTokens() throws Exception {
+        AccessTokenResolver lazyResolver = new AccessTokenResolver(
+            new TokenType[] {TokenType.BEARER},
+            new ParameterStyle[] {ParameterStyle.HEADER, ParameterStyle.BODY}, false);
+
+        HttpServletRequest request = createMock(HttpServletRequest.class);
+        expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn("Bearer sometoken");
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
+        expect(request.getMethod()).andStubReturn(OAuth.HttpMethod.POST);
+        expect(request.getContentType()).andStubReturn(OAuth.ContentType.URL_ENCODED);
+        // chunked body
+        expect(request.getContentLength()).andStubReturn(-1);
+        expect(request.getParameterValues(OAuth.OAUTH_BEARER_TOKEN)).andStubReturn(new String[] {"sometoken"});
+        expect(request.getParameter(OAuth.OAUTH_VERSION_DIFFER)).andStubReturn(null);
+        replay(request);
+
+        try {
+            lazyResolver.resolve(request);
+            Assert.fail("Exception expected");
+        } catch (OAuthProblemException e) {
+            Assert.assertEquals(OAuthError.TokenResponse.INVALID_REQUEST, e.getError());
+        }
+        verify(request);
+    }
+
+    @Test
+    public void testLazyResolverReadsBodyWithoutOtherToken() throws Exception {
+        AccessTokenResolver lazyResolver = new AccessTokenResolver(
+            new TokenType[] {TokenType.BEARER},
+            new ParameterStyle[] {ParameterStyle.BODY, ParameterStyle.HEADER}, false);
+
+        HttpServletRequest request = createMock(HttpServletRequest.class);
+        expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn(null);
+        expect(request.getMethod()).andStubReturn(OAuth.HttpMethod.POST);
+        expect(request.getContentType()).andStubReturn(OAuth.ContentType.URL_ENCODED);
+        expect(request.getParameterValues(OAuth.OAUTH_BEARER_TOKEN)).andStubReturn(new String[] {"sometoken"});
+        expect(request.getParameter(OAuth.OAUTH_VERSION_DIFFER)).andStubReturn(null);
+        replay(request);
+
+        Assert.assertTrue(lazyResolver.resolve(request) instanceof BearerBodyTokenExtractor);
+        verify(request);
+    }
+
+    @Test
+    public void testLazyResolverDetectsHeaderAndQueryTokens() throws Exception {
+        AccessTokenResolver lazyResolver = new AccessTokenResolver(
+            new TokenType[] {TokenType.BEARER},
+            new ParameterStyle[] {ParameterStyle.HEADER, ParameterStyle.QUERY, ParameterStyle.BODY}, false);
+
+        HttpServletRequest request = createMock(HttpServletRequest.class);
+        expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn("Bearer sometoken");
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
+        expect(request.getQueryString()).andStubReturn("access_token=sometoken");
+        expect(request.getMethod()).andStubReturn(OAuth.HttpMethod.POST);
+        expect(request.getContentType()).andStubReturn(OAuth.ContentType.URL_ENCODED);
+        replay(request);
+
+        try {
+            lazyResolver.resolve(request);
+            Assert.fail("Exception expected");
+        } catch (OAuthProblemException e) {
+            Assert.assertEquals(OAuthError.TokenResponse.INVALID_REQUEST, e.getError());
+        }
+        verify(request);
+    }
+
+    @Test(expected = OAuthSystemException.class)
+    public void testUnsupportedTokenType() throws Exception {
+        new AccessTokenResolver(new TokenType[] {TokenType.MAC}, new ParameterStyle[] {ParameterStyle.HEADER});
+    }
+
+    private static HttpServletRequest mockHeaderAndBodyRequest() {
+        HttpServletRequest request = createMock(HttpServletRequest.class);
+        expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn("Bearer sometoken");
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
+        expect(request.getMethod()).andStubReturn(OAuth.HttpMethod.POST);
+        expect(request.getContentType()).andStubReturn(OAuth.ContentType.URL_ENCODED);
+        expect(request.getParameterValues(OAuth.OAUTH_BEARER_TOKEN)).andStubReturn(new String[] {"sometoken"});
+        expect(request.getParameter(OAuth.OAUTH_VERSION_DIFFER)).andStubReturn(null);
+        replay(request);
+        return request;
+    }
+
+    private static HttpServletRequest mockHeaderRequest(String authorization) {
+        HttpServletRequest request = createMock(HttpServletRequest.class);
+        expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn(authorization);
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
+        expect(request.getMethod()).andStubReturn(OAuth.HttpMethod.GET);
+        expect(request.getContentType()).andStubReturn(null);
+        replay(request);
+        return request;
+    }
+
+}
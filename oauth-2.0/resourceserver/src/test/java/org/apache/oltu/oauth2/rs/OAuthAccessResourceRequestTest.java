@@ -30,6 +30,7 @@ import org.apache.oltu.oauth2.common.OAuth;
 import org.apache.oltu.oauth2.common.error.OAuthError;
 import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
 import org.apache.oltu.oauth2.common.message.types.ParameterStyle;
+import org.apache.oltu.oauth2.common.utils.AuthorizationHeader;
 import org.apache.oltu.oauth2.rs.request.OAuthAccessResourceRequest;
 import org.junit.Assert;
 import org.junit.Test;
@@ -70,6 +71,9 @@ public class OAuthAccessResourceRequestTest {
         expect(request.getMethod()).andStubReturn(OAuth.HttpMethod.POST);
         expect(request.getContentType()).andStubReturn(OAuth.ContentType.JSON);
         expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn("Basic assdafasfd");
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
         replay(request);
 
         try {
@@ -88,6 +92,9 @@ public class OAuthAccessResourceRequestTest {
         expect(request.getMethod()).andStubReturn(OAuth.HttpMethod.POST);
         expect(request.getContentType()).andStubReturn(OAuth.ContentType.JSON);
         expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn("Bearer ");
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
         replay(request);
 
         try {
@@ -107,6 +114,9 @@ public class OAuthAccessResourceRequestTest {
         expect(request.getContentType()).andStubReturn(OAuth.ContentType.JSON);
         expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION))
             .andStubReturn("Bearer sadfasfd,oauth_signature_method=\"HMAC-SHA1\"");
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
         replay(request);
 
         try {
@@ -125,6 +135,9 @@ public class OAuthAccessResourceRequestTest {
         expect(request.getMethod()).andStubReturn(OAuth.HttpMethod.POST);
         expect(request.getContentType()).andStubReturn(OAuth.ContentType.JSON);
         expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn("Bearer token");
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
         replay(request);
         try {
             new OAuthAccessResourceRequest(request);
@@ -199,6 +212,9 @@ public class OAuthAccessResourceRequestTest {
         expect(request.getParameterValues(OAuth.OAUTH_BEARER_TOKEN)).andStubReturn(new String[] {"sometoken"});
         expect(request.getParameter(OAuth.OAUTH_VERSION_DIFFER)).andStubReturn(null);
         expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn("Bearer sadfasfd");
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
         replay(request);
 
         try {
@@ -220,6 +236,9 @@ public class OAuthAccessResourceRequestTest {
         expect(request.getParameter(OAuth.OAUTH_VERSION_DIFFER)).andStubReturn(null);
         expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION))
             .andStubReturn("Bearer sadfasfd,oauth_signature_method=\"HMAC-SHA1\"");
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
         replay(request);
 
         try {
@@ -460,6 +479,9 @@ public class OAuthAccessResourceRequestTest {
         expect(request.getParameter(OAuth.OAUTH_BEARER_TOKEN)).andStubReturn("sometoken");
         expect(request.getParameter(OAuth.OAUTH_VERSION_DIFFER)).andStubReturn(null);
         expect(request.getHeader("Authorization")).andStubReturn(AUTHORIZATION_HEADER_OAUTH2);
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
         expect(request.getParameterValues(OAuth.OAUTH_BEARER_TOKEN)).andStubReturn(new String[] {"sometoken"});
 
         replay(request);
@@ -499,6 +521,9 @@ public class OAuthAccessResourceRequestTest {
         expect(request.getParameterValues(OAuth.OAUTH_BEARER_TOKEN)).andStubReturn(new String[] {null});
         expect(request.getParameterValues(OAuth.OAUTH_TOKEN)).andStubReturn(new String[] {null});
         expect(request.getHeader("Authorization")).andStubReturn(AUTHORIZATION_HEADER_OAUTH2);
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
 
         replay(request);
 
@@ -521,6 +546,9 @@ public class OAuthAccessResourceRequestTest {
         expect(request.getContentType()).andStubReturn(OAuth.ContentType.URL_ENCODED);
         expect(request.getParameterValues(OAuth.OAUTH_BEARER_TOKEN)).andStubReturn(new String[] {"sometoken"});
         expect(request.getHeader("Authorization")).andStubReturn(AUTHORIZATION_HEADER_OAUTH2);
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
 
         replay(request);
 
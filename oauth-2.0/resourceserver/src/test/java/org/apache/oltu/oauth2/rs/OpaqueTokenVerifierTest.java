@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oltu.oauth2.rs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.oltu.oauth2.common.token.OpaqueToken;
+import org.apache.oltu.oauth2.common.token.OpaqueTokenFormat;
+import org.junit.Test;
+
+public class OpaqueTokenVerifierTest {
+
+    private static final byte[] OLD_SECRET = "01234567890123456789012345678901".getBytes();
+
+    private static final byte[] NEW_SECRET = "abcdefghijklmnopqrstuvwxyz012345".getBytes();
+
+    private static final List<String> SCOPE_NAMES = Arrays.asList("read", "write", "admin");
+
+    private final OpaqueTokenVerifier verifier = new OpaqueTokenVerifier(new OpaqueTokenVerifier.Builder()
+                                                                         .addKey(1, OLD_SECRET)
+                                                                         .addKey(2, NEW_SECRET)
+                                                                         .setScopeNames(SCOPE_NAMES)
+                                                                         .setClockSkew(30)) {
+
+        @Override
+        protected long currentTimeMillis() {
+            return 1500000000000L;
+        }
+
+    };
+
+    private static String issue(int keyId, byte[] secret, long expiresAt, String... scopes) {
+        return issue(OpaqueToken.Type.ACCESS, keyId, secret, expiresAt, scopes);
+    }
+
+    private static String issue(OpaqueToken.Type type, int keyId, byte[] secret, long expiresAt, String... scopes) {
+        OpaqueTokenFormat format = new OpaqueTokenFormat(Collections.singletonMap(keyId, secret));
+        long bitmap = OpaqueTokenFormat.toScopeBitmap(SCOPE_NAMES, Arrays.asList(scopes));
+        return format.write(new OpaqueToken(keyId, type, "client", expiresAt, bitmap),
+                            new byte[OpaqueTokenFormat.NONCE_LENGTH]);
+    }
+
+    @Test
+    public void testVerify() {
+        OpaqueToken token = verifier.verify(issue(2, NEW_SECRET, 1500003600L, "read", "write"));
+        assertNotNull(token);
+        assertEquals("client", token.getClientId());
+        assertEquals(Arrays.asList("read", "write"), Arrays.asList(verifier.getScopes(token).toArray()));
+
+        // issued before the key rotation
+        assertNotNull(verifier.verify(issue(1, OLD_SECRET, 1500003600L)));
+        // unknown key
+        assertNull(verifier.verify(issue(3, NEW_SECRET, 1500003600L)));
+        // signed with the wrong secret
+        assertNull(verifier.verify(issue(1, NEW_SECRET, 1500003600L)));
+    }
+
+    @Test
+    public void testExpiration() {
+        assertNotNull(verifier.verify(issue(2, NEW_SECRET, 1499999990L)));
+        assertNull(verifier.verify(issue(2, NEW_SECRET, 1499999970L)));
+    }
+
+    @Test
+    public void testNotAccessToken() {
+        String refreshToken = issue(OpaqueToken.Type.REFRESH, 2, NEW_SECRET, 1500003600L, "read");
+        String code = issue(OpaqueToken.Type.CODE, 2, NEW_SECRET, 1500003600L, "read");
+
+        assertNull(verifier.verify(refreshToken));
+        assertNull(verifier.verify(refreshToken, Arrays.asList("read")));
+        assertNull(verifier.verify(code));
+        assertNull(verifier.verify(code, Arrays.asList("read")));
+    }
+
+    @Test
+    public void testRequiredScopes() {
+        String token = issue(2, NEW_SECRET, 1500003600L, "read", "write");
+
+        assertNotNull(verifier.verify(token, Arrays.asList("read")));
+        assertNotNull(verifier.verify(token, Arrays.asList("read", "write")));
+        assertNull(verifier.verify(token, Arrays.asList("admin")));
+        assertNull(verifier.verify(token, Arrays.asList("unknown")));
+    }
+
+}
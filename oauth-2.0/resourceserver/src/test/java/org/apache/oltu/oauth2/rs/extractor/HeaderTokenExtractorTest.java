@@ -22,6 +22,7 @@
 package org.apache.oltu.oauth2.rs.extractor;
 
 import org.apache.oltu.oauth2.common.OAuth;
+import org.apache.oltu.oauth2.common.utils.AuthorizationHeader;
 import org.junit.Test;
 
 import javax.servlet.http.HttpServletRequest;
@@ -36,6 +37,9 @@ public class HeaderTokenExtractorTest {
     public void testGetAccessToken() throws Exception {
         HttpServletRequest request = createStrictMock(HttpServletRequest.class);
         expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn("Bearer sometoken");
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
         replay(request);
         BearerHeaderTokenExtractor hte = new BearerHeaderTokenExtractor();
         assertEquals("sometoken", hte.getAccessToken(request));
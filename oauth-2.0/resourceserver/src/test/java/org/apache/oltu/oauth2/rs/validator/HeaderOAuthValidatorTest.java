@@ -24,6 +24,7 @@ package org.apache.oltu.oauth2.rs.validator;
 import org.apache.oltu.oauth2.common.OAuth;
 import org.apache.oltu.oauth2.common.error.OAuthError;
 import org.apache.oltu.oauth2.common.exception.OAuthProblemException;
+import org.apache.oltu.oauth2.common.utils.AuthorizationHeader;
 import org.apache.oltu.oauth2.common.utils.OAuthUtils;
 import org.junit.Test;
 
@@ -55,6 +56,9 @@ public class HeaderOAuthValidatorTest {
     public void testValidateInvalidHeader() throws Exception {
         HttpServletRequest request = createMock(HttpServletRequest.class);
         expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn("Basic arawersadf");
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
         replay(request);
         try {
             BearerHeaderOAuthValidator bov = new BearerHeaderOAuthValidator();
@@ -72,6 +76,9 @@ public class HeaderOAuthValidatorTest {
     public void testValidateValidHeaderMissingField() throws Exception {
         HttpServletRequest request = createMock(HttpServletRequest.class);
         expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn("Bearer  ");
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
         replay(request);
         try {
             BearerHeaderOAuthValidator bov = new BearerHeaderOAuthValidator();
@@ -90,6 +97,9 @@ public class HeaderOAuthValidatorTest {
         HttpServletRequest request = createMock(HttpServletRequest.class);
         expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION))
             .andStubReturn("Bearer sdfsadfsadf,oauth_signature_method=\"HMAC-SHA1\"");
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
         replay(request);
         try {
             BearerHeaderOAuthValidator bov = new BearerHeaderOAuthValidator();
@@ -106,6 +116,9 @@ public class HeaderOAuthValidatorTest {
     public void testValidateValidHeader() throws Exception {
         HttpServletRequest request = createMock(HttpServletRequest.class);
         expect(request.getHeader(OAuth.HeaderType.AUTHORIZATION)).andStubReturn("Bearer sdfsadfsadf");
+        expect(request.getAttribute(AuthorizationHeader.REQUEST_ATTRIBUTE)).andStubReturn(null);
+        request.setAttribute(eq(AuthorizationHeader.REQUEST_ATTRIBUTE), anyObject());
+        expectLastCall().asStub();
         replay(request);
         BearerHeaderOAuthValidator bov = new BearerHeaderOAuthValidator();
         bov.performAllValidations(request);